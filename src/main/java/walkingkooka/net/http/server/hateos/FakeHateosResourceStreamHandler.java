@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.collect.Range;
+import walkingkooka.net.UrlPath;
+import walkingkooka.net.http.server.HttpRequestAttribute;
+import walkingkooka.test.Fake;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link HateosResourceStreamHandler} where all methods throw {@link UnsupportedOperationException}.
+ */
+public class FakeHateosResourceStreamHandler<I extends Comparable<I>, V, X extends HateosHandlerContext> implements HateosResourceStreamHandler<I, V, X>, Fake {
+
+    @Override
+    public Iterator<V> handleAll(final Map<HttpRequestAttribute<?>, Object> parameters,
+                                 final UrlPath path,
+                                 final X context) {
+        HateosResourceHandler.checkParameters(parameters);
+        HateosResourceHandler.checkPath(path);
+        HateosResourceHandler.checkContext(context);
+
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<V> handleMany(final Set<I> ids,
+                                  final Map<HttpRequestAttribute<?>, Object> parameters,
+                                  final UrlPath path,
+                                  final X context) {
+        HateosResourceHandler.checkManyIds(ids);
+        HateosResourceHandler.checkParameters(parameters);
+        HateosResourceHandler.checkPath(path);
+        HateosResourceHandler.checkContext(context);
+
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<V> handleRange(final Range<I> range,
+                                   final Map<HttpRequestAttribute<?>, Object> parameters,
+                                   final UrlPath path,
+                                   final X context) {
+        HateosResourceHandler.checkIdRange(range);
+        HateosResourceHandler.checkParameters(parameters);
+        HateosResourceHandler.checkPath(path);
+        HateosResourceHandler.checkContext(context);
+
+        throw new UnsupportedOperationException();
+    }
+}
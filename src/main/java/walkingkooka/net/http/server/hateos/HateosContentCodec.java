@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.net.header.MediaType;
+import walkingkooka.tree.json.JsonNode;
+
+/**
+ * Converts a {@link JsonNode} to and from the bytes of a request or response body with a {@link MediaType} other than
+ * text JSON. Codecs are offered by {@link HateosHandlerContext#codecs()}, and selected using the request
+ * Accept and Content-Type headers.
+ */
+public interface HateosContentCodec {
+
+    /**
+     * The {@link MediaType} of the bodies supported by this codec.
+     */
+    MediaType contentType();
+
+    /**
+     * Encodes the given {@link JsonNode} into bytes.
+     */
+    byte[] encode(final JsonNode node);
+
+    /**
+     * Decodes the bytes into a {@link JsonNode}, failing with an {@link IllegalArgumentException} if they are invalid.
+     */
+    JsonNode decode(final byte[] bytes);
+}
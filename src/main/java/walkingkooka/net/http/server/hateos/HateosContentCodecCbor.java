@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.net.header.MediaType;
+import walkingkooka.tree.json.JsonNode;
+
+import java.util.Objects;
+
+/**
+ * A {@link HateosContentCodec} for application/cbor (RFC 8949), mapping each {@link JsonNode} to the equivalent CBOR
+ * data item. Numbers without a fraction are written as integers, all others as 64 bit floats.
+ */
+final class HateosContentCodecCbor implements HateosContentCodec {
+
+    /**
+     * Singleton
+     */
+    final static HateosContentCodecCbor INSTANCE = new HateosContentCodecCbor();
+
+    private final static MediaType CONTENT_TYPE = MediaType.parse("application/cbor");
+
+    private HateosContentCodecCbor() {
+        super();
+    }
+
+    @Override
+    public MediaType contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] encode(final JsonNode node) {
+        Objects.requireNonNull(node, "node");
+
+        return HateosContentCodecCborEncoder.encode(node);
+    }
+
+    @Override
+    public JsonNode decode(final byte[] bytes) {
+        Objects.requireNonNull(bytes, "bytes");
+
+        return HateosContentCodecCborDecoder.decode(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return CONTENT_TYPE.toString();
+    }
+}
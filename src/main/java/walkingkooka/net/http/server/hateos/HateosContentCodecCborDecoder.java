@@ -0,0 +1,287 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.tree.json.JsonNode;
+import walkingkooka.tree.json.JsonPropertyName;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Reads a single CBOR data item into a {@link JsonNode}. Only the data items that have a JSON equivalent with definite
+ * lengths are supported, and maps must have text keys.
+ */
+final class HateosContentCodecCborDecoder {
+
+    final static int UNSIGNED_INTEGER = 0;
+    final static int NEGATIVE_INTEGER = 1;
+    final static int TEXT_STRING = 3;
+    final static int ARRAY = 4;
+    final static int MAP = 5;
+    final static int SIMPLE_AND_FLOAT = 7;
+
+    final static int FALSE = 0xf4;
+    final static int TRUE = 0xf5;
+    final static int NULL = 0xf6;
+    final static int FLOAT16 = 0xf9;
+    final static int FLOAT32 = 0xfa;
+    final static int FLOAT64 = 0xfb;
+
+    /**
+     * Protects against a stack overflow from deeply nested arrays and maps.
+     */
+    private final static int MAX_DEPTH = 512;
+
+    static JsonNode decode(final byte[] bytes) {
+        final HateosContentCodecCborDecoder decoder = new HateosContentCodecCborDecoder(bytes);
+        final JsonNode node = decoder.node(0);
+        if (decoder.offset != bytes.length) {
+            throw new IllegalArgumentException("Invalid CBOR, unexpected byte at " + decoder.offset);
+        }
+        return node;
+    }
+
+    private HateosContentCodecCborDecoder(final byte[] bytes) {
+        super();
+        this.bytes = bytes;
+    }
+
+    private JsonNode node(final int depth) {
+        if (depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Invalid CBOR, nesting deeper than " + MAX_DEPTH);
+        }
+
+        final int initial = this.read();
+        final int additional = initial & 0x1f;
+
+        final JsonNode node;
+        switch (initial >>> 5) {
+            case UNSIGNED_INTEGER:
+                node = JsonNode.number(
+                    (double) this.argument(additional)
+                );
+                break;
+            case NEGATIVE_INTEGER:
+                node = JsonNode.number(
+                    -1.0 - this.argument(additional)
+                );
+                break;
+            case TEXT_STRING:
+                node = JsonNode.string(
+                    this.string(additional)
+                );
+                break;
+            case ARRAY:
+                node = this.array(
+                    additional,
+                    depth
+                );
+                break;
+            case MAP:
+                node = this.object(
+                    additional,
+                    depth
+                );
+                break;
+            case SIMPLE_AND_FLOAT:
+                node = this.simpleOrFloat(initial);
+                break;
+            default:
+                throw this.unsupported(initial);
+        }
+
+        return node;
+    }
+
+    private JsonNode array(final int additional,
+                           final int depth) {
+        final int count = this.length(additional);
+
+        final List<JsonNode> elements = Lists.array();
+        for (int i = 0; i < count; i++) {
+            elements.add(
+                this.node(depth + 1)
+            );
+        }
+
+        return JsonNode.array()
+            .setChildren(elements);
+    }
+
+    private JsonNode object(final int additional,
+                            final int depth) {
+        final int count = this.length(additional);
+
+        // JsonObject#set copies the object for every property, so the properties are gathered and set once
+        final List<JsonNode> properties = Lists.array();
+        for (int i = 0; i < count; i++) {
+            final int initial = this.read();
+            if (TEXT_STRING != initial >>> 5) {
+                throw new IllegalArgumentException("Invalid CBOR, map key must be a text string at " + (this.offset - 1));
+            }
+            final String name = this.string(initial & 0x1f);
+
+            properties.add(
+                this.node(depth + 1)
+                    .setName(
+                        JsonPropertyName.with(name)
+                    )
+            );
+        }
+
+        return JsonNode.object()
+            .setChildren(properties);
+    }
+
+    private JsonNode simpleOrFloat(final int initial) {
+        final JsonNode node;
+
+        switch (initial) {
+            case FALSE:
+                node = JsonNode.booleanNode(false);
+                break;
+            case TRUE:
+                node = JsonNode.booleanNode(true);
+                break;
+            case NULL:
+                node = JsonNode.nullNode();
+                break;
+            case FLOAT16:
+                node = JsonNode.number(
+                    float16((int) this.readBigEndian(2))
+                );
+                break;
+            case FLOAT32:
+                node = JsonNode.number(
+                    Float.intBitsToFloat((int) this.readBigEndian(4))
+                );
+                break;
+            case FLOAT64:
+                node = JsonNode.number(
+                    Double.longBitsToDouble(this.readBigEndian(8))
+                );
+                break;
+            default:
+                throw this.unsupported(initial);
+        }
+
+        return node;
+    }
+
+    private static double float16(final int half) {
+        final int exponent = (half >>> 10) & 0x1f;
+        final int mantissa = half & 0x3ff;
+
+        final double value;
+        if (0 == exponent) {
+            value = mantissa * Math.pow(2, -24);
+        } else if (0x1f != exponent) {
+            value = (mantissa + 1024) * Math.pow(2, exponent - 25);
+        } else {
+            value = 0 == mantissa ?
+                Double.POSITIVE_INFINITY :
+                Double.NaN;
+        }
+
+        return 0 != (half & 0x8000) ?
+            -value :
+            value;
+    }
+
+    private String string(final int additional) {
+        final int length = this.length(additional);
+        final String text = new String(
+            this.bytes,
+            this.offset,
+            length,
+            StandardCharsets.UTF_8
+        );
+        this.offset += length;
+        return text;
+    }
+
+    /**
+     * Reads the length of a string, array or map, which can never be more than the remaining bytes, as every byte,
+     * element or entry requires at least one byte.
+     */
+    private int length(final int additional) {
+        final long length = this.argument(additional);
+        if (length > this.bytes.length - this.offset) {
+            throw new IllegalArgumentException("Invalid CBOR, length " + length + " exceeds remaining bytes at " + this.offset);
+        }
+        return (int) length;
+    }
+
+    private long argument(final int additional) {
+        final long argument;
+
+        if (additional < 24) {
+            argument = additional;
+        } else {
+            switch (additional) {
+                case 24:
+                    argument = this.readBigEndian(1);
+                    break;
+                case 25:
+                    argument = this.readBigEndian(2);
+                    break;
+                case 26:
+                    argument = this.readBigEndian(4);
+                    break;
+                case 27:
+                    argument = this.readBigEndian(8);
+                    if (argument < 0) {
+                        throw new IllegalArgumentException("Invalid CBOR, integer too large at " + this.offset);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid CBOR, indefinite length or reserved value at " + (this.offset - 1));
+            }
+        }
+
+        return argument;
+    }
+
+    private long readBigEndian(final int byteCount) {
+        long value = 0;
+        for (int i = 0; i < byteCount; i++) {
+            value = (value << 8) | this.read();
+        }
+        return value;
+    }
+
+    private int read() {
+        final int offset = this.offset;
+        if (offset >= this.bytes.length) {
+            throw new IllegalArgumentException("Invalid CBOR, unexpected end at " + offset);
+        }
+        this.offset = offset + 1;
+        return this.bytes[offset] & 0xff;
+    }
+
+    private IllegalArgumentException unsupported(final int initial) {
+        return new IllegalArgumentException("Invalid CBOR, unsupported initial byte 0x" + Integer.toHexString(initial) + " at " + (this.offset - 1));
+    }
+
+    private final byte[] bytes;
+
+    private int offset;
+}
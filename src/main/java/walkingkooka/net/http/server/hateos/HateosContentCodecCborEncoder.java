@@ -0,0 +1,186 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.tree.json.JsonNode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes a {@link JsonNode} as CBOR into a growable byte array.
+ */
+final class HateosContentCodecCborEncoder {
+
+    /**
+     * Numbers with a larger magnitude may not be exactly represented by a long and are written as floats.
+     */
+    private final static double MAX_SAFE_INTEGER = 9007199254740992.0;
+
+    static byte[] encode(final JsonNode node) {
+        final HateosContentCodecCborEncoder encoder = new HateosContentCodecCborEncoder();
+        encoder.node(node);
+        return Arrays.copyOf(
+            encoder.bytes,
+            encoder.length
+        );
+    }
+
+    private HateosContentCodecCborEncoder() {
+        super();
+    }
+
+    private void node(final JsonNode node) {
+        if (node.isNull()) {
+            this.write(HateosContentCodecCborDecoder.NULL);
+        } else if (node.isBoolean()) {
+            this.write(
+                node.booleanOrFail() ?
+                    HateosContentCodecCborDecoder.TRUE :
+                    HateosContentCodecCborDecoder.FALSE
+            );
+        } else if (node.isNumber()) {
+            this.number(
+                node.numberOrFail()
+                    .doubleValue()
+            );
+        } else if (node.isString()) {
+            this.string(node.stringOrFail());
+        } else if (node.isArray()) {
+            this.head(
+                HateosContentCodecCborDecoder.ARRAY,
+                node.children()
+                    .size()
+            );
+            for (final JsonNode element : node.children()) {
+                this.node(element);
+            }
+        } else if (node.isObject()) {
+            this.head(
+                HateosContentCodecCborDecoder.MAP,
+                node.children()
+                    .size()
+            );
+            for (final JsonNode property : node.children()) {
+                this.string(
+                    property.name()
+                        .value()
+                );
+                this.node(property);
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported json " + node);
+        }
+    }
+
+    private void number(final double value) {
+        final long longValue = (long) value;
+
+        // negative zero must be written as a float to keep its sign
+        if (longValue == value && Math.abs(value) < MAX_SAFE_INTEGER && false == (0 == longValue && 1 / value < 0)) {
+            if (longValue >= 0) {
+                this.head(
+                    HateosContentCodecCborDecoder.UNSIGNED_INTEGER,
+                    longValue
+                );
+            } else {
+                this.head(
+                    HateosContentCodecCborDecoder.NEGATIVE_INTEGER,
+                    -1 - longValue
+                );
+            }
+        } else {
+            this.write(HateosContentCodecCborDecoder.FLOAT64);
+            this.writeBigEndian(
+                Double.doubleToLongBits(value),
+                8
+            );
+        }
+    }
+
+    private void string(final String text) {
+        final byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        this.head(
+            HateosContentCodecCborDecoder.TEXT_STRING,
+            utf8.length
+        );
+        this.ensureCapacity(utf8.length);
+        System.arraycopy(
+            utf8,
+            0,
+            this.bytes,
+            this.length,
+            utf8.length
+        );
+        this.length += utf8.length;
+    }
+
+    /**
+     * Writes the initial byte with the major type and the shortest encoding of the non negative argument.
+     */
+    private void head(final int majorType,
+                      final long argument) {
+        final int initial = majorType << 5;
+
+        if (argument < 24) {
+            this.write(initial | (int) argument);
+        } else if (argument < 0x100) {
+            this.write(initial | 24);
+            this.writeBigEndian(argument, 1);
+        } else if (argument < 0x10000) {
+            this.write(initial | 25);
+            this.writeBigEndian(argument, 2);
+        } else if (argument < 0x100000000L) {
+            this.write(initial | 26);
+            this.writeBigEndian(argument, 4);
+        } else {
+            this.write(initial | 27);
+            this.writeBigEndian(argument, 8);
+        }
+    }
+
+    private void writeBigEndian(final long value,
+                                final int byteCount) {
+        for (int i = byteCount - 1; i >= 0; i--) {
+            this.write((int) (value >>> (i * 8)));
+        }
+    }
+
+    private void write(final int value) {
+        this.ensureCapacity(1);
+        this.bytes[this.length++] = (byte) value;
+    }
+
+    private void ensureCapacity(final int count) {
+        final int required = this.length + count;
+        if (required > this.bytes.length) {
+            this.bytes = Arrays.copyOf(
+                this.bytes,
+                Math.max(
+                    required,
+                    this.bytes.length * 2
+                )
+            );
+        }
+    }
+
+    private byte[] bytes = new byte[64];
+
+    private int length;
+}
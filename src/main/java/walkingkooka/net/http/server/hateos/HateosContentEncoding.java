@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.net.header.ContentEncoding;
+
+/**
+ * Compresses response bodies for a single {@link ContentEncoding}, which is selected when accepted by the request
+ * Accept-Encoding header, and decompresses request bodies with a matching Content-Encoding header. Encodings are
+ * offered by {@link HateosHandlerContext#contentEncodings()}.
+ */
+public interface HateosContentEncoding {
+
+    /**
+     * The {@link ContentEncoding} written to the response Content-Encoding header.
+     */
+    ContentEncoding contentEncoding();
+
+    /**
+     * Compresses the given bytes.
+     */
+    byte[] encode(final byte[] content);
+
+    /**
+     * Decompresses the given bytes, failing with an {@link IllegalArgumentException} if they are invalid or would
+     * decompress to more than maxLength bytes.
+     */
+    byte[] decode(final byte[] content,
+                  final int maxLength);
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.net.header.ContentEncoding;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A {@link HateosContentEncoding} for gzip or deflate, using a pool of {@link Deflater}, so their native buffers are
+ * not allocated and released for every response. Decoding inflates a buffer at a time, so a small request body that
+ * inflates to a huge size is rejected once it passes the maximum length, without the entire output being created.
+ */
+final class HateosContentEncodingZip implements HateosContentEncoding {
+
+    /**
+     * The number of idle {@link Deflater} retained by each pool.
+     */
+    private final static int POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Deflate uses the zlib format.
+     */
+    final static HateosContentEncodingZip DEFLATE = with(
+        ContentEncoding.DEFLATE,
+        false,
+        POOL_SIZE
+    );
+
+    /**
+     * Gzip adds its own header and trailer around raw deflate data.
+     */
+    final static HateosContentEncodingZip GZIP = with(
+        ContentEncoding.GZIP,
+        true,
+        POOL_SIZE
+    );
+
+    private final static byte[] GZIP_HEADER = new byte[]{
+        0x1f,
+        (byte) 0x8b,
+        Deflater.DEFLATED,
+        0, // flags
+        0, 0, 0, 0, // modification time
+        0, // extra flags
+        (byte) 0xff // unknown operating system
+    };
+
+    private final static int BUFFER_SIZE = 8192;
+
+    static HateosContentEncodingZip with(final ContentEncoding contentEncoding,
+                                         final boolean gzip,
+                                         final int poolSize) {
+        return new HateosContentEncodingZip(
+            contentEncoding,
+            gzip,
+            poolSize
+        );
+    }
+
+    private HateosContentEncodingZip(final ContentEncoding contentEncoding,
+                                     final boolean gzip,
+                                     final int poolSize) {
+        super();
+        this.contentEncoding = contentEncoding;
+        this.gzip = gzip;
+        this.poolSize = poolSize;
+    }
+
+    @Override
+    public ContentEncoding contentEncoding() {
+        return this.contentEncoding;
+    }
+
+    private final ContentEncoding contentEncoding;
+
+    @Override
+    public byte[] encode(final byte[] content) {
+        Objects.requireNonNull(content, "content");
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 4 + 64);
+
+        final Deflater deflater = this.borrow();
+        try {
+            if (this.gzip) {
+                bytes.write(
+                    GZIP_HEADER,
+                    0,
+                    GZIP_HEADER.length
+                );
+                deflate(
+                    deflater,
+                    content,
+                    bytes
+                );
+
+                final CRC32 crc = new CRC32();
+                crc.update(content);
+                writeLittleEndian(
+                    crc.getValue(),
+                    bytes
+                );
+                writeLittleEndian(
+                    content.length,
+                    bytes
+                );
+            } else {
+                deflate(
+                    deflater,
+                    content,
+                    bytes
+                );
+            }
+        } finally {
+            this.release(deflater);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private final boolean gzip;
+
+    private static void deflate(final Deflater deflater,
+                                final byte[] content,
+                                final ByteArrayOutputStream bytes) {
+        deflater.setInput(content);
+        deflater.finish();
+
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        while (false == deflater.finished()) {
+            final int count = deflater.deflate(buffer);
+            bytes.write(
+                buffer,
+                0,
+                count
+            );
+        }
+    }
+
+    private static void writeLittleEndian(final long value,
+                                          final ByteArrayOutputStream bytes) {
+        for (int i = 0; i < 4; i++) {
+            bytes.write((int) (value >>> (i * 8)));
+        }
+    }
+
+    @Override
+    public byte[] decode(final byte[] content,
+                         final int maxLength) {
+        Objects.requireNonNull(content, "content");
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("Invalid maxLength " + maxLength + " < 0");
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+            Math.min(
+                content.length * 4 + 64,
+                maxLength
+            )
+        );
+
+        try (final InputStream input = this.inflater(content)) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int total = 0;
+
+            for (; ; ) {
+                final int count = input.read(buffer);
+                if (-1 == count) {
+                    break;
+                }
+                total += count;
+                if (total > maxLength) {
+                    throw new IllegalArgumentException("Decoded content exceeds " + maxLength + " bytes");
+                }
+                bytes.write(
+                    buffer,
+                    0,
+                    count
+                );
+            }
+        } catch (final IOException cause) {
+            throw new IllegalArgumentException(
+                "Invalid " + this.contentEncoding + ": " + cause.getMessage(),
+                cause
+            );
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private InputStream inflater(final byte[] content) throws IOException {
+        final InputStream input = new ByteArrayInputStream(content);
+        return this.gzip ?
+            new GZIPInputStream(input) :
+            new InflaterInputStream(input);
+    }
+
+    // pool.............................................................................................................
+
+    /**
+     * Takes an idle {@link Deflater} or creates a new one if the pool is empty.
+     */
+    private Deflater borrow() {
+        Deflater deflater = this.idle.poll();
+        if (null != deflater) {
+            this.idleCount.decrementAndGet();
+        } else {
+            deflater = new Deflater(
+                Deflater.DEFAULT_COMPRESSION,
+                this.gzip // nowrap
+            );
+        }
+        return deflater;
+    }
+
+    /**
+     * Resets and returns the {@link Deflater} to the pool, or releases its native memory when the pool is full.
+     */
+    private void release(final Deflater deflater) {
+        if (this.idleCount.incrementAndGet() <= this.poolSize) {
+            deflater.reset();
+            this.idle.offer(deflater);
+        } else {
+            this.idleCount.decrementAndGet();
+            deflater.end();
+        }
+    }
+
+    int idleCount() {
+        return this.idleCount.get();
+    }
+
+    private final int poolSize;
+
+    private final Queue<Deflater> idle = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.contentEncoding.toString();
+    }
+}
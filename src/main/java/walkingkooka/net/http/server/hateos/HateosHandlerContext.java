@@ -18,6 +18,7 @@
 package walkingkooka.net.http.server.hateos;
 
 import walkingkooka.Context;
+import walkingkooka.collect.list.Lists;
 import walkingkooka.net.header.CharsetName;
 import walkingkooka.net.header.MediaType;
 import walkingkooka.net.http.server.HttpHandlerContext;
@@ -26,6 +27,7 @@ import walkingkooka.tree.json.marshall.JsonNodeMarshallContextObjectPostProcesso
 import walkingkooka.tree.json.marshall.JsonNodeMarshallUnmarshallContext;
 import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContextPreProcessor;
 
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -40,8 +42,56 @@ public interface HateosHandlerContext extends HttpHandlerContext,
      */
     MediaType HATEOS_DEFAULT_CONTENT_TYPE = MediaType.APPLICATION_JSON.setCharset(CharsetName.UTF_8);
 
+    /**
+     * Newline delimited JSON, which may be requested using an Accept header for collection selections such as
+     * {@link HateosResourceSelection#all()}, where each resource is written on its own line.
+     */
+    MediaType HATEOS_NDJSON_CONTENT_TYPE = MediaType.parse("application/x-ndjson");
+
     MediaType contentType();
 
+    /**
+     * Additional {@link HateosContentCodec codecs} that may be selected using the request Accept and Content-Type
+     * headers when the {@link #contentType()} is not accepted. By default, none are available.
+     */
+    default List<HateosContentCodec> codecs() {
+        return Lists.empty();
+    }
+
+    /**
+     * Response bodies shorter than this number of bytes are never compressed.
+     */
+    int CONTENT_ENCODING_MINIMUM_LENGTH = 1024;
+
+    /**
+     * The {@link HateosContentEncoding encodings} in order of preference, that may compress response bodies accepted
+     * by the request Accept-Encoding header, and decompress request bodies with a Content-Encoding header. By default,
+     * none are available, responses are never compressed and compressed requests are rejected.
+     */
+    default List<HateosContentEncoding> contentEncodings() {
+        return Lists.empty();
+    }
+
+    /**
+     * The minimum length in bytes of a response body before it is compressed.
+     */
+    default int contentEncodingMinimumLength() {
+        return CONTENT_ENCODING_MINIMUM_LENGTH;
+    }
+
+    /**
+     * Request bodies that decompress to more than this number of bytes are rejected.
+     */
+    int CONTENT_ENCODING_MAX_DECODED_LENGTH = 16 * 1024 * 1024;
+
+    /**
+     * The maximum length in bytes of a request body after it has been decompressed, which protects against small
+     * bodies that decompress to an enormous size.
+     */
+    default int contentEncodingMaxDecodedLength() {
+        return CONTENT_ENCODING_MAX_DECODED_LENGTH;
+    }
+
     /**
      * Helper that returns the json node as text using the current {@link #indentation()} and {@link #lineEnding()}.
      */
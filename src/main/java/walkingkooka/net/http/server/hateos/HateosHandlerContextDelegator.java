@@ -23,6 +23,8 @@ import walkingkooka.net.http.server.HttpHandlerContextDelegator;
 import walkingkooka.tree.json.marshall.JsonNodeMarshallUnmarshallContext;
 import walkingkooka.tree.json.marshall.JsonNodeMarshallUnmarshallContextDelegator;
 
+import java.util.List;
+
 public interface HateosHandlerContextDelegator extends HateosHandlerContext,
     HttpHandlerContextDelegator,
     JsonNodeMarshallUnmarshallContextDelegator {
@@ -33,6 +35,30 @@ public interface HateosHandlerContextDelegator extends HateosHandlerContext,
             .contentType();
     }
 
+    @Override
+    default List<HateosContentCodec> codecs() {
+        return this.hateosHandlerContext()
+            .codecs();
+    }
+
+    @Override
+    default List<HateosContentEncoding> contentEncodings() {
+        return this.hateosHandlerContext()
+            .contentEncodings();
+    }
+
+    @Override
+    default int contentEncodingMinimumLength() {
+        return this.hateosHandlerContext()
+            .contentEncodingMinimumLength();
+    }
+
+    @Override
+    default int contentEncodingMaxDecodedLength() {
+        return this.hateosHandlerContext()
+            .contentEncodingMaxDecodedLength();
+    }
+
 
     HateosHandlerContext hateosHandlerContext();
 
@@ -29,6 +29,8 @@ import java.util.Set;
 
 /**
  * Handles a HATEOS request for a one or more {@link HateosResource} as a single {@link HttpEntity}.
+ * Handlers are invoked synchronously, as the router must complete the {@link walkingkooka.net.http.server.HttpResponse}
+ * before {@link walkingkooka.net.http.server.HttpHandler#handle} returns.
  */
 public interface HateosHttpEntityHandler<I extends Comparable<I>, X extends HateosHandlerContext> {
 
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.net.http.server.HttpRequest;
+
+/**
+ * Limits the number of concurrent requests that are handled. A request that cannot acquire a permit receives a
+ * {@link walkingkooka.net.http.HttpStatusCode#SERVICE_UNAVAILABLE} with a Retry-After header and its handler is never
+ * invoked. Limiters are set for all requests to a resource with {@link HateosResourceMappings#setLimiter(HateosLimiter)}
+ * or for a single {@link walkingkooka.net.header.LinkRelation} with
+ * {@link HateosResourceMappings#setLimiter(walkingkooka.net.header.LinkRelation, HateosLimiter)}.
+ */
+public interface HateosLimiter {
+
+    /**
+     * Attempts to acquire a permit for the given {@link HttpRequest}, returning false if the request should be rejected.
+     * Some limiters may wait for a permit to become available.
+     */
+    boolean tryAcquire(final HttpRequest request);
+
+    /**
+     * Releases a permit acquired by {@link #tryAcquire(HttpRequest)}, with the number of nanoseconds the request held it.
+     * Sampled is false for requests whose latency says nothing about the load on the handler, such as bad requests,
+     * not modified responses, cached results and coalesced requests, but true for handlers that failed.
+     */
+    void release(final HttpRequest request,
+                 final long nanos,
+                 final boolean sampled);
+
+    /**
+     * The number of seconds a rejected client should wait before retrying.
+     */
+    long retryAfter();
+
+    /**
+     * The number of requests currently holding a permit.
+     */
+    int inFlight();
+
+    /**
+     * The number of requests rejected.
+     */
+    long rejected();
+
+    /**
+     * The total number of nanoseconds requests spent waiting for a permit.
+     */
+    long queueNanos();
+}
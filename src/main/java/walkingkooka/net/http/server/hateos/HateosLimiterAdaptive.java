@@ -0,0 +1,156 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.net.http.HttpMethod;
+import walkingkooka.net.http.server.HttpRequest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link HateosLimiter} that adjusts the number of concurrent requests for each {@link HttpMethod} to hold handler
+ * latency near the minimum observed latency. When latency rises above the minimum, which means requests are queuing
+ * somewhere, the limit shrinks, otherwise it grows by about the square root of the limit. Requests over the limit are
+ * rejected immediately without waiting. Latencies are kept per {@link HttpMethod}, so a separate limiter should be set
+ * for each {@link walkingkooka.net.header.LinkRelation} to also keep resources and link relations apart.
+ */
+final class HateosLimiterAdaptive implements HateosLimiter {
+
+    static HateosLimiterAdaptive with(final int initialLimit,
+                                      final int minLimit,
+                                      final int maxLimit,
+                                      final long retryAfter) {
+        if (minLimit <= 0) {
+            throw new IllegalArgumentException("Invalid minLimit " + minLimit + " <= 0");
+        }
+        if (maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid maxLimit " + maxLimit + " < " + minLimit);
+        }
+        if (initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid initialLimit " + initialLimit + " not between " + minLimit + " and " + maxLimit);
+        }
+        if (retryAfter < 0) {
+            throw new IllegalArgumentException("Invalid retryAfter " + retryAfter + " < 0");
+        }
+
+        return new HateosLimiterAdaptive(
+            initialLimit,
+            minLimit,
+            maxLimit,
+            retryAfter
+        );
+    }
+
+    private HateosLimiterAdaptive(final int initialLimit,
+                                  final int minLimit,
+                                  final int maxLimit,
+                                  final long retryAfter) {
+        super();
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public boolean tryAcquire(final HttpRequest request) {
+        final boolean acquired = this.limit(request.method())
+            .tryAcquire();
+        if (false == acquired) {
+            this.rejected.incrementAndGet();
+        }
+        return acquired;
+    }
+
+    @Override
+    public void release(final HttpRequest request,
+                        final long nanos,
+                        final boolean sampled) {
+        this.limit(request.method())
+            .release(
+                nanos,
+                sampled
+            );
+    }
+
+    /**
+     * Returns the {@link HateosLimiterAdaptiveLimit} for the given {@link HttpMethod}, creating it if necessary.
+     */
+    HateosLimiterAdaptiveLimit limit(final HttpMethod method) {
+        return this.methodToLimit.computeIfAbsent(
+            method,
+            (m) -> HateosLimiterAdaptiveLimit.with(
+                this.initialLimit,
+                this.minLimit,
+                this.maxLimit
+            )
+        );
+    }
+
+    private final Map<HttpMethod, HateosLimiterAdaptiveLimit> methodToLimit = new ConcurrentHashMap<>();
+
+    private final int initialLimit;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    @Override
+    public long retryAfter() {
+        return this.retryAfter;
+    }
+
+    private final long retryAfter;
+
+    // stats............................................................................................................
+
+    @Override
+    public int inFlight() {
+        int inFlight = 0;
+        for (final HateosLimiterAdaptiveLimit limit : this.methodToLimit.values()) {
+            inFlight += limit.inFlight.get();
+        }
+        return inFlight;
+    }
+
+    @Override
+    public long rejected() {
+        return this.rejected.get();
+    }
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Requests never wait for a permit.
+     */
+    @Override
+    public long queueNanos() {
+        return 0;
+    }
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return "limit: " + this.minLimit + ".." + this.maxLimit +
+            " retryAfter: " + this.retryAfter + "s " +
+            this.methodToLimit;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The concurrency limit and latency samples for a single {@link walkingkooka.net.http.HttpMethod} within a
+ * {@link HateosLimiterAdaptive}. Permits are taken by comparing and setting the in flight count against the current
+ * limit, while each sampled request adjusts the limit using the gradient between the minimum and smoothed latency.
+ * Samples are taken without locking, a release that finds another sample in progress is skipped, so under load only a
+ * fraction of releases are sampled.
+ */
+final class HateosLimiterAdaptiveLimit {
+
+    /**
+     * Latencies within this multiple of the minimum are treated as no queuing and allow the limit to grow.
+     */
+    private final static double TOLERANCE = 1.5;
+
+    /**
+     * The gradient never shrinks the limit by more than half for a single sample.
+     */
+    private final static double MIN_GRADIENT = 0.5;
+
+    /**
+     * The weight given to a new sample when smoothing the latency and limit.
+     */
+    private final static double SMOOTHING = 0.2;
+
+    /**
+     * The minimum latency rises by this factor for every sample, about 65% every 1000 samples, so a resource that has
+     * become slower for good eventually has a new minimum, while a burst of slow samples during overload does not
+     * replace the minimum at once.
+     */
+    private final static double MIN_LATENCY_DECAY = 1.0005;
+
+    static HateosLimiterAdaptiveLimit with(final int initialLimit,
+                                           final int minLimit,
+                                           final int maxLimit) {
+        return new HateosLimiterAdaptiveLimit(
+            initialLimit,
+            minLimit,
+            maxLimit
+        );
+    }
+
+    private HateosLimiterAdaptiveLimit(final int initialLimit,
+                                       final int minLimit,
+                                       final int maxLimit) {
+        super();
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    boolean tryAcquire() {
+        final AtomicInteger inFlight = this.inFlight;
+
+        boolean acquired = false;
+        for (; ; ) {
+            final int current = inFlight.get();
+            if (current >= this.limit) {
+                break;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                acquired = true;
+                break;
+            }
+        }
+        return acquired;
+    }
+
+    void release(final long nanos,
+                 final boolean sampled) {
+        final int inFlight = this.inFlight.getAndDecrement();
+
+        if (sampled && this.sampling.compareAndSet(false, true)) {
+            try {
+                this.sample(
+                    nanos,
+                    inFlight
+                );
+            } finally {
+                this.sampling.set(false);
+            }
+        }
+    }
+
+    /**
+     * Only a single release samples at a time, the others skip their sample rather than wait.
+     */
+    private final AtomicBoolean sampling = new AtomicBoolean();
+
+    /**
+     * Updates the latencies and limit, only called while holding {@link #sampling}. The in flight count includes the
+     * sampled request, and the limit only grows while at least half of it is in use, so an idle resource does not
+     * drift to its maximum limit.
+     */
+    private void sample(final long nanos,
+                        final int inFlight) {
+        final long latency = Math.max(
+            1,
+            nanos
+        );
+
+        this.minLatency = 0 == this.minLatency ?
+            latency :
+            Math.min(
+                latency,
+                this.minLatency * MIN_LATENCY_DECAY
+            );
+
+        this.smoothedLatency = 0 == this.smoothedLatency ?
+            latency :
+            this.smoothedLatency * (1 - SMOOTHING) + latency * SMOOTHING;
+
+        final double gradient = Math.max(
+            MIN_GRADIENT,
+            Math.min(
+                1.0,
+                TOLERANCE * this.minLatency / this.smoothedLatency
+            )
+        );
+
+        final double estimatedLimit = this.estimatedLimit;
+        final double newLimit = estimatedLimit * gradient +
+            (inFlight * 2 >= this.limit ?
+                Math.sqrt(estimatedLimit) :
+                0);
+
+        this.estimatedLimit = Math.max(
+            this.minLimit,
+            Math.min(
+                this.maxLimit,
+                estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING
+            )
+        );
+        this.limit = (int) this.estimatedLimit;
+    }
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private double minLatency;
+
+    private double smoothedLatency;
+
+    private double estimatedLimit;
+
+    /**
+     * The current limit, read without locking by {@link #tryAcquire()}.
+     */
+    volatile int limit;
+
+    final AtomicInteger inFlight = new AtomicInteger();
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.inFlight + "/" + this.limit;
+    }
+}
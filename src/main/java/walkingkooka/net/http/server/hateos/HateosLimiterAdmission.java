@@ -0,0 +1,273 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.collect.set.Sets;
+import walkingkooka.collect.set.SortedSets;
+import walkingkooka.net.http.HttpMethod;
+import walkingkooka.net.http.server.HttpRequest;
+import walkingkooka.text.CharSequences;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link HateosLimiter} that admits or rejects a request immediately after it is routed, before its body is read.
+ * <ul>
+ * <li>Requests that have already waited longer than maxQueueTime milliseconds, measured from the
+ * {@link HateosResourceMappings#X_REQUEST_START} header added by a proxy, are rejected as their client has probably
+ * given up.</li>
+ * <li>Requests with a sheddable {@link HttpMethod} are rejected once sheddableInFlight requests are in flight, which
+ * leaves the remaining permits for higher priority requests.</li>
+ * <li>All other requests are rejected once maxInFlight requests are in flight.</li>
+ * </ul>
+ * Priorities for a resource are chosen by setting an admission limiter with its own limits on its
+ * {@link HateosResourceMappings}.
+ */
+final class HateosLimiterAdmission implements HateosLimiter {
+
+    static HateosLimiterAdmission with(final int maxInFlight,
+                                       final int sheddableInFlight,
+                                       final Set<HttpMethod> sheddable,
+                                       final long maxQueueTime,
+                                       final LongSupplier now,
+                                       final long retryAfter) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Invalid maxInFlight " + maxInFlight + " <= 0");
+        }
+        if (sheddableInFlight < 0 || sheddableInFlight > maxInFlight) {
+            throw new IllegalArgumentException("Invalid sheddableInFlight " + sheddableInFlight + " not between 0 and " + maxInFlight);
+        }
+        Objects.requireNonNull(sheddable, "sheddable");
+        if (maxQueueTime <= 0) {
+            throw new IllegalArgumentException("Invalid maxQueueTime " + maxQueueTime + " <= 0");
+        }
+        Objects.requireNonNull(now, "now");
+        if (retryAfter < 0) {
+            throw new IllegalArgumentException("Invalid retryAfter " + retryAfter + " < 0");
+        }
+
+        final Set<HttpMethod> sheddableCopy = SortedSets.tree();
+        sheddableCopy.addAll(sheddable);
+
+        return new HateosLimiterAdmission(
+            maxInFlight,
+            sheddableInFlight,
+            Sets.readOnly(sheddableCopy),
+            maxQueueTime,
+            now,
+            retryAfter
+        );
+    }
+
+    private HateosLimiterAdmission(final int maxInFlight,
+                                   final int sheddableInFlight,
+                                   final Set<HttpMethod> sheddable,
+                                   final long maxQueueTime,
+                                   final LongSupplier now,
+                                   final long retryAfter) {
+        super();
+        this.maxInFlight = maxInFlight;
+        this.sheddableInFlight = sheddableInFlight;
+        this.sheddable = sheddable;
+        this.maxQueueTime = maxQueueTime;
+        this.now = now;
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public boolean tryAcquire(final HttpRequest request) {
+        final long queueTime = this.queueTime(request);
+
+        final boolean acquired = queueTime <= this.maxQueueTime &&
+            this.tryAcquire(
+                this.sheddable.contains(request.method()) ?
+                    this.sheddableInFlight :
+                    this.maxInFlight
+            );
+        if (acquired) {
+            this.queueNanos.addAndGet(queueTime * 1000 * 1000);
+        } else {
+            this.rejected.incrementAndGet();
+        }
+        return acquired;
+    }
+
+    /**
+     * Returns the milliseconds since the {@link HateosResourceMappings#X_REQUEST_START}, or zero if the header is absent
+     * or invalid.
+     */
+    private long queueTime(final HttpRequest request) {
+        final String start = HateosResourceMappings.X_REQUEST_START.header(request)
+            .orElse(null);
+
+        long queueTime = 0;
+        if (null != start) {
+            try {
+                queueTime = Math.max(
+                    0,
+                    this.now.getAsLong() - requestStart(start)
+                );
+            } catch (final NumberFormatException ignore) {
+                // queueTime = 0
+            }
+        }
+        return queueTime;
+    }
+
+    /**
+     * Parses a {@link HateosResourceMappings#X_REQUEST_START} into milliseconds since the epoch. The value may be
+     * prefixed by <code>t=</code> and is either
+     * <ul>
+     * <li>seconds with a fraction, as added by nginx with <code>t=${msec}</code>, eg <code>t=1700000000.123</code></li>
+     * <li>microseconds, as added by Apache with <code>t=%t</code>, eg <code>t=1700000000123456</code></li>
+     * <li>milliseconds, eg <code>1700000000123</code></li>
+     * </ul>
+     */
+    static long requestStart(final String value) {
+        final String text = value.startsWith("t=") ?
+            value.substring(2) :
+            value;
+
+        final long millis;
+
+        final int dot = text.indexOf('.');
+        if (-1 != dot) {
+            final String fraction = (text.substring(dot + 1) + "000")
+                .substring(0, 3);
+            if (false == isDigits(fraction)) {
+                throw new NumberFormatException("Invalid fraction in " + CharSequences.quoteAndEscape(value));
+            }
+            millis = Long.parseLong(text.substring(0, dot)) * 1000 + Long.parseLong(fraction);
+        } else {
+            final long number = Long.parseLong(text);
+            millis = number >= MIN_MICROS ?
+                number / 1000 :
+                number;
+        }
+
+        return millis;
+    }
+
+    private static boolean isDigits(final String text) {
+        boolean digits = true;
+
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                digits = false;
+                break;
+            }
+        }
+
+        return digits;
+    }
+
+    /**
+     * Values at or above this are treated as microseconds, it is 1973 in microseconds but the year 5138 in milliseconds.
+     */
+    private final static long MIN_MICROS = 100L * 1000 * 1000 * 1000 * 1000;
+
+    private boolean tryAcquire(final int limit) {
+        final AtomicInteger inFlight = this.inFlight;
+
+        boolean acquired = false;
+        for (; ; ) {
+            final int current = inFlight.get();
+            if (current >= limit) {
+                break;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                acquired = true;
+                break;
+            }
+        }
+        return acquired;
+    }
+
+    @Override
+    public void release(final HttpRequest request,
+                        final long nanos,
+                        final boolean sampled) {
+        this.inFlight.decrementAndGet();
+    }
+
+    private final int maxInFlight;
+
+    private final int sheddableInFlight;
+
+    private final Set<HttpMethod> sheddable;
+
+    /**
+     * The maximum milliseconds a request may wait before it is handled.
+     */
+    private final long maxQueueTime;
+
+    /**
+     * Provides the current time in milliseconds.
+     */
+    private final LongSupplier now;
+
+    @Override
+    public long retryAfter() {
+        return this.retryAfter;
+    }
+
+    private final long retryAfter;
+
+    // stats............................................................................................................
+
+    @Override
+    public int inFlight() {
+        return this.inFlight.get();
+    }
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @Override
+    public long rejected() {
+        return this.rejected.get();
+    }
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * The total time admitted requests waited before they were routed, measured using
+     * {@link HateosResourceMappings#X_REQUEST_START}. Rejected requests are not included.
+     */
+    @Override
+    public long queueNanos() {
+        return this.queueNanos.get();
+    }
+
+    private final AtomicLong queueNanos = new AtomicLong();
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return "maxInFlight: " + this.maxInFlight +
+            " sheddableInFlight: " + this.sheddableInFlight +
+            " " + this.sheddable +
+            " maxQueueTime: " + this.maxQueueTime + "ms" +
+            " retryAfter: " + this.retryAfter + "s";
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.net.http.server.HttpRequest;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link HateosLimiter} that allows a maximum number of concurrent requests. When all permits are taken up to
+ * maxQueue requests wait at most maxWait milliseconds for a permit, while any further requests are rejected immediately.
+ * Permits are taken and returned using a non fair {@link Semaphore} which only compares and sets its count unless a
+ * request must wait.
+ */
+final class HateosLimiterBulkhead implements HateosLimiter {
+
+    static HateosLimiterBulkhead with(final int maxConcurrent,
+                                      final int maxQueue,
+                                      final long maxWait,
+                                      final long retryAfter) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("Invalid maxConcurrent " + maxConcurrent + " <= 0");
+        }
+        if (maxQueue < 0) {
+            throw new IllegalArgumentException("Invalid maxQueue " + maxQueue + " < 0");
+        }
+        if (maxWait < 0) {
+            throw new IllegalArgumentException("Invalid maxWait " + maxWait + " < 0");
+        }
+        if (retryAfter < 0) {
+            throw new IllegalArgumentException("Invalid retryAfter " + retryAfter + " < 0");
+        }
+
+        return new HateosLimiterBulkhead(
+            maxConcurrent,
+            maxQueue,
+            maxWait,
+            retryAfter
+        );
+    }
+
+    private HateosLimiterBulkhead(final int maxConcurrent,
+                                  final int maxQueue,
+                                  final long maxWait,
+                                  final long retryAfter) {
+        super();
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.maxWait = maxWait;
+        this.retryAfter = retryAfter;
+
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    @Override
+    public boolean tryAcquire(final HttpRequest request) {
+        boolean acquired = this.permits.tryAcquire();
+        if (false == acquired) {
+            if (this.waiting.incrementAndGet() <= this.maxQueue) {
+                acquired = this.waitForPermit();
+            }
+            this.waiting.decrementAndGet();
+
+            if (false == acquired) {
+                this.rejected.incrementAndGet();
+            }
+        }
+        return acquired;
+    }
+
+    private boolean waitForPermit() {
+        final long start = System.nanoTime();
+
+        boolean acquired;
+        try {
+            acquired = this.permits.tryAcquire(
+                this.maxWait,
+                TimeUnit.MILLISECONDS
+            );
+        } catch (final InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            this.queueNanos.addAndGet(System.nanoTime() - start);
+        }
+
+        return acquired;
+    }
+
+    @Override
+    public void release(final HttpRequest request,
+                        final long nanos,
+                        final boolean sampled) {
+        this.permits.release();
+    }
+
+    private final int maxConcurrent;
+
+    private final Semaphore permits;
+
+    /**
+     * The number of requests that may wait for a permit.
+     */
+    private final int maxQueue;
+
+    /**
+     * The number of milliseconds a queued request waits for a permit before it is rejected.
+     */
+    private final long maxWait;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    @Override
+    public long retryAfter() {
+        return this.retryAfter;
+    }
+
+    private final long retryAfter;
+
+    // stats............................................................................................................
+
+    @Override
+    public int inFlight() {
+        return this.maxConcurrent - this.permits.availablePermits();
+    }
+
+    @Override
+    public long rejected() {
+        return this.rejected.get();
+    }
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Override
+    public long queueNanos() {
+        return this.queueNanos.get();
+    }
+
+    private final AtomicLong queueNanos = new AtomicLong();
+
+    /**
+     * The number of requests currently waiting for a permit.
+     */
+    int waiting() {
+        return this.waiting.get();
+    }
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return "maxConcurrent: " + this.maxConcurrent +
+            " maxQueue: " + this.maxQueue +
+            " maxWait: " + this.maxWait + "ms" +
+            " retryAfter: " + this.retryAfter + "s";
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.net.http.HttpMethod;
+import walkingkooka.reflect.PublicStaticHelper;
+
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * A collection of {@link HateosLimiter}. The bulkhead blocks waiting threads, so these are not available to J2CL or GWT.
+ */
+public final class HateosLimiters implements PublicStaticHelper {
+
+    /**
+     * {@see HateosLimiterAdaptive}
+     */
+    public static HateosLimiter adaptive(final int initialLimit,
+                                         final int minLimit,
+                                         final int maxLimit,
+                                         final long retryAfter) {
+        return HateosLimiterAdaptive.with(
+            initialLimit,
+            minLimit,
+            maxLimit,
+            retryAfter
+        );
+    }
+
+    /**
+     * {@see HateosLimiterAdmission}
+     */
+    public static HateosLimiter admission(final int maxInFlight,
+                                          final int sheddableInFlight,
+                                          final Set<HttpMethod> sheddable,
+                                          final long maxQueueTime,
+                                          final LongSupplier now,
+                                          final long retryAfter) {
+        return HateosLimiterAdmission.with(
+            maxInFlight,
+            sheddableInFlight,
+            sheddable,
+            maxQueueTime,
+            now,
+            retryAfter
+        );
+    }
+
+    /**
+     * {@see HateosLimiterBulkhead}
+     */
+    public static HateosLimiter bulkhead(final int maxConcurrent,
+                                         final int maxQueue,
+                                         final long maxWait,
+                                         final long retryAfter) {
+        return HateosLimiterBulkhead.with(
+            maxConcurrent,
+            maxQueue,
+            maxWait,
+            retryAfter
+        );
+    }
+
+    /**
+     * Stop creation
+     */
+    private HateosLimiters() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -53,4 +53,13 @@ public interface HateosResource<I> extends HasId<Optional<I>> {
      * character given. This also assumes that special characters are escaped as necessary.
      */
     String hateosLinkId();
+
+    /**
+     * An optional version which changes whenever this resource changes. When present and ETags are enabled with
+     * {@link HateosResourceMappings#setETag(boolean)}, the ETag is computed from the id and version, and a matching
+     * If-None-Match is answered without marshalling this resource.
+     */
+    default Optional<String> hateosVersion() {
+        return Optional.empty();
+    }
 }
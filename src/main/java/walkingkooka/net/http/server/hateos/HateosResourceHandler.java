@@ -32,6 +32,10 @@ import java.util.Set;
  * marshalling of the response to the response body.
  * Note that 2xx responses, especially {@link walkingkooka.net.http.HttpStatusCode#OK} and {@link walkingkooka.net.http.HttpStatusCode#NO_CONTENT},
  * response should always contain {@link HateosResourceMappings#X_CONTENT_TYPE_NAME}, which is used by the client to dispatch watcher events.
+ * <br>
+ * Handlers are invoked synchronously, as the router must complete the {@link walkingkooka.net.http.server.HttpResponse}
+ * before {@link walkingkooka.net.http.server.HttpHandler#handle} returns. Slow handlers should be bounded with a cache
+ * such as {@link HateosResourceHandlers#cache} or {@link HateosResourceMappings#setSingleFlight}.
  */
 public interface HateosResourceHandler<I extends Comparable<I>, V, C, X extends HateosHandlerContext> {
 
@@ -0,0 +1,498 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.Cast;
+import walkingkooka.collect.Range;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.net.UrlPath;
+import walkingkooka.net.http.server.HttpRequestAttribute;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A {@link HateosResourceHandler} that caches the results of reads, which are calls without a resource, of
+ * {@link #handleAll(Optional, Map, UrlPath, HateosHandlerContext)}, {@link #handleMany(Set, Optional, Map, UrlPath, HateosHandlerContext)},
+ * {@link #handleOne(Comparable, Optional, Map, UrlPath, HateosHandlerContext)} and {@link #handleRange(Range, Optional, Map, UrlPath, HateosHandlerContext)}
+ * keyed by the selection, path, query parameters and the Accept, Accept-Language and Authorization headers. Other
+ * headers are ignored, so clients that only differ by headers such as User-Agent share results. Entries expire after a
+ * time to live, and when full an entry is removed using the {@link HateosResourceSelectionCacheEviction}.
+ * <br>
+ * Hits read a {@link ConcurrentHashMap} without taking a lock. Entries are also queued in insertion order, and when
+ * full the eldest is removed, except that {@link HateosResourceSelectionCacheEviction#LEAST_RECENTLY_USED} gives an
+ * entry read since it was queued a second chance by queueing it again, which approximates least recently used without
+ * reordering anything on a hit. Only misses, evictions and invalidates are synchronized.
+ * <br>
+ * This handler should be registered for {@link walkingkooka.net.http.HttpMethod#GET}. Any other method routed to the same
+ * {@link HateosResourceMappings}, eg a POST or DELETE, invalidates the cached results for the selected ids.
+ */
+public final class HateosResourceHandlerCache<I extends Comparable<I>, V, C, X extends HateosHandlerContext> implements HateosResourceHandler<I, V, C, X> {
+
+    static <I extends Comparable<I>, V, C, X extends HateosHandlerContext> HateosResourceHandlerCache<I, V, C, X> with(final HateosResourceHandler<I, V, C, X> handler,
+                                                                                                                      final int maxSize,
+                                                                                                                      final long timeToLive,
+                                                                                                                      final HateosResourceSelectionCacheEviction eviction,
+                                                                                                                      final LongSupplier now) {
+        Objects.requireNonNull(handler, "handler");
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Invalid maxSize " + maxSize + " <= 0");
+        }
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("Invalid timeToLive " + timeToLive + " <= 0");
+        }
+        Objects.requireNonNull(eviction, "eviction");
+        Objects.requireNonNull(now, "now");
+
+        return new HateosResourceHandlerCache<>(
+            handler,
+            maxSize,
+            timeToLive,
+            eviction,
+            now
+        );
+    }
+
+    private HateosResourceHandlerCache(final HateosResourceHandler<I, V, C, X> handler,
+                                       final int maxSize,
+                                       final long timeToLive,
+                                       final HateosResourceSelectionCacheEviction eviction,
+                                       final LongSupplier now) {
+        super();
+        this.handler = handler;
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive;
+        this.eviction = eviction;
+        this.now = now;
+
+        final AtomicLong[] hits = new AtomicLong[COUNTER_STRIPES];
+        final AtomicLong[] misses = new AtomicLong[COUNTER_STRIPES];
+        for (int i = 0; i < COUNTER_STRIPES; i++) {
+            hits[i] = new AtomicLong();
+            misses[i] = new AtomicLong();
+        }
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    // HateosResourceHandler............................................................................................
+
+    @Override
+    public Optional<C> handleAll(final Optional<C> resource,
+                                 final Map<HttpRequestAttribute<?>, Object> parameters,
+                                 final UrlPath path,
+                                 final X context) {
+        return resource.isPresent() ?
+            this.handler.handleAll(
+                resource,
+                parameters,
+                path,
+                context
+            ) :
+            this.getOrHandle(
+                HateosResourceSelection.all(),
+                parameters,
+                path,
+                () -> this.handler.handleAll(
+                    resource,
+                    parameters,
+                    path,
+                    context
+                )
+            );
+    }
+
+    @Override
+    public Optional<C> handleMany(final Set<I> ids,
+                                  final Optional<C> resource,
+                                  final Map<HttpRequestAttribute<?>, Object> parameters,
+                                  final UrlPath path,
+                                  final X context) {
+        return resource.isPresent() ?
+            this.handler.handleMany(
+                ids,
+                resource,
+                parameters,
+                path,
+                context
+            ) :
+            this.getOrHandle(
+                HateosResourceSelection.many(ids),
+                parameters,
+                path,
+                () -> this.handler.handleMany(
+                    ids,
+                    resource,
+                    parameters,
+                    path,
+                    context
+                )
+            );
+    }
+
+    @Override
+    public Optional<V> handleOne(final I id,
+                                 final Optional<V> resource,
+                                 final Map<HttpRequestAttribute<?>, Object> parameters,
+                                 final UrlPath path,
+                                 final X context) {
+        return resource.isPresent() ?
+            this.handler.handleOne(
+                id,
+                resource,
+                parameters,
+                path,
+                context
+            ) :
+            this.getOrHandle(
+                HateosResourceSelection.one(id),
+                parameters,
+                path,
+                () -> this.handler.handleOne(
+                    id,
+                    resource,
+                    parameters,
+                    path,
+                    context
+                )
+            );
+    }
+
+    /**
+     * Requests without any id are never cached.
+     */
+    @Override
+    public Optional<V> handleNone(final Optional<V> resource,
+                                  final Map<HttpRequestAttribute<?>, Object> parameters,
+                                  final UrlPath path,
+                                  final X context) {
+        return this.handler.handleNone(
+            resource,
+            parameters,
+            path,
+            context
+        );
+    }
+
+    @Override
+    public Optional<C> handleRange(final Range<I> range,
+                                   final Optional<C> resource,
+                                   final Map<HttpRequestAttribute<?>, Object> parameters,
+                                   final UrlPath path,
+                                   final X context) {
+        return resource.isPresent() ?
+            this.handler.handleRange(
+                range,
+                resource,
+                parameters,
+                path,
+                context
+            ) :
+            this.getOrHandle(
+                HateosResourceSelection.range(range),
+                parameters,
+                path,
+                () -> this.handler.handleRange(
+                    range,
+                    resource,
+                    parameters,
+                    path,
+                    context
+                )
+            );
+    }
+
+    /**
+     * Returns the cached result if one exists and has not expired, otherwise invokes the wrapped handler and caches
+     * its result. A hit never takes the lock. The wrapped handler is invoked without holding the lock, and its result
+     * is not cached if an invalidate happened while it was running, as the result may have been read before the
+     * invalidated change.
+     */
+    private <T> Optional<T> getOrHandle(final HateosResourceSelection<I> selection,
+                                        final Map<HttpRequestAttribute<?>, Object> parameters,
+                                        final UrlPath path,
+                                        final Supplier<Optional<T>> handler) {
+        final HateosResourceHandlerCacheKey key = HateosResourceHandlerCacheKey.with(
+            selection,
+            parameters,
+            path
+        );
+        final int counter = counter(key);
+
+        // read before the entry, so an invalidate that removes the entry also prevents caching a new result
+        final long generation = this.generation;
+
+        Optional<?> result = null;
+
+        final HateosResourceHandlerCacheEntry entry = this.keyToEntry.get(key);
+        if (null != entry) {
+            if (entry.expires > this.now.getAsLong()) {
+                entry.access();
+                result = entry.value;
+                this.hits[counter].incrementAndGet();
+                HateosResourceMappingsRouterHttpHandlerRequestParameters.cacheHit(parameters);
+            } else {
+                this.keyToEntry.remove(key, entry);
+            }
+        }
+
+        if (null == result) {
+            this.misses[counter].incrementAndGet();
+
+            result = handler.get();
+
+            this.put(
+                HateosResourceHandlerCacheEntry.with(
+                    key,
+                    result,
+                    this.now.getAsLong() + this.timeToLive
+                ),
+                generation
+            );
+        }
+
+        return Cast.to(result);
+    }
+
+    /**
+     * Adds the entry unless an invalidate happened since the given generation, first removing the eldest entries until
+     * there is room. Every cached entry is queued exactly once, while queued entries that were replaced, expired or
+     * invalidated are simply dropped when they reach the head.
+     */
+    private synchronized void put(final HateosResourceHandlerCacheEntry entry,
+                                  final long generation) {
+        if (generation == this.generation) {
+            final ArrayDeque<HateosResourceHandlerCacheEntry> queue = this.queue;
+            final boolean secondChance = HateosResourceSelectionCacheEviction.LEAST_RECENTLY_USED == this.eviction;
+
+            while (queue.size() >= this.maxSize) {
+                final HateosResourceHandlerCacheEntry eldest = queue.poll();
+
+                if (this.keyToEntry.get(eldest.key) == eldest) {
+                    if (secondChance && eldest.accessed) {
+                        eldest.accessed = false;
+                        queue.add(eldest);
+                    } else {
+                        this.keyToEntry.remove(
+                            eldest.key,
+                            eldest
+                        );
+                        this.evictions++;
+                    }
+                }
+            }
+
+            this.keyToEntry.put(
+                entry.key,
+                entry
+            );
+            queue.add(entry);
+        }
+    }
+
+    private final HateosResourceHandler<I, V, C, X> handler;
+
+    // invalidate.......................................................................................................
+
+    /**
+     * Removes all cached results that may include any of the ids in the given {@link HateosResourceSelection}. Results
+     * for {@link HateosResourceSelection#all()} are always removed, while a selection without ids removes everything.
+     */
+    public void invalidate(final HateosResourceSelection<I> selection) {
+        Objects.requireNonNull(selection, "selection");
+
+        if (selection.isOne()) {
+            this.invalidateIds(
+                Sets.of(
+                    selection(selection)
+                )
+            );
+        } else if (selection.isMany()) {
+            this.invalidateIds(
+                selection(selection)
+            );
+        } else {
+            this.invalidateAll();
+        }
+    }
+
+    private synchronized void invalidateIds(final Set<I> ids) {
+        this.generation++;
+
+        final Iterator<HateosResourceHandlerCacheEntry> entries = this.queue.iterator();
+
+        while (entries.hasNext()) {
+            final HateosResourceHandlerCacheEntry entry = entries.next();
+            if (isAffected(entry.key.selection, ids)) {
+                this.keyToEntry.remove(
+                    entry.key,
+                    entry
+                );
+                entries.remove();
+            }
+        }
+    }
+
+    private static <I extends Comparable<I>> boolean isAffected(final HateosResourceSelection<?> selection,
+                                                                final Set<I> ids) {
+        boolean affected;
+
+        if (selection.isOne()) {
+            affected = ids.contains(
+                selection(selection)
+            );
+        } else if (selection.isMany()) {
+            final Set<I> selected = selection(selection);
+
+            affected = false;
+            for (final I id : ids) {
+                if (selected.contains(id)) {
+                    affected = true;
+                    break;
+                }
+            }
+        } else if (selection.isRange()) {
+            final Range<I> range = selection(selection);
+
+            affected = false;
+            for (final I id : ids) {
+                if (range.test(id)) {
+                    affected = true;
+                    break;
+                }
+            }
+        } else {
+            affected = true; // all
+        }
+
+        return affected;
+    }
+
+    private static <T> T selection(final HateosResourceSelection<?> selection) {
+        return Cast.to(
+            ((HateosResourceSelectionValue<?, ?>) selection).value()
+        );
+    }
+
+    /**
+     * Removes all cached results.
+     */
+    public synchronized void invalidateAll() {
+        this.generation++;
+        this.keyToEntry.clear();
+        this.queue.clear();
+    }
+
+    /**
+     * Incremented by every invalidate, so a result loaded before an invalidate is never cached.
+     */
+    private volatile long generation;
+
+    // stats............................................................................................................
+
+    /**
+     * The number of reads answered from the cache.
+     */
+    public long hits() {
+        return sum(this.hits);
+    }
+
+    /**
+     * Hits spread by key over several counters, so concurrent hits for different keys rarely update the same counter.
+     */
+    private final AtomicLong[] hits;
+
+    /**
+     * The number of reads that invoked the wrapped handler.
+     */
+    public long misses() {
+        return sum(this.misses);
+    }
+
+    private final AtomicLong[] misses;
+
+    private static long sum(final AtomicLong[] counters) {
+        long sum = 0;
+        for (final AtomicLong counter : counters) {
+            sum += counter.get();
+        }
+        return sum;
+    }
+
+    /**
+     * Selects the hit and miss counter for the given key.
+     */
+    private static int counter(final HateosResourceHandlerCacheKey key) {
+        final int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (COUNTER_STRIPES - 1);
+    }
+
+    /**
+     * The number of hit and miss counters, which must be a power of two.
+     */
+    private final static int COUNTER_STRIPES = 16;
+
+    /**
+     * The number of results removed because the cache was full.
+     */
+    public synchronized long evictions() {
+        return this.evictions;
+    }
+
+    private long evictions;
+
+    /**
+     * The number of cached results, which may include expired results that have not been read.
+     */
+    public int size() {
+        return this.keyToEntry.size();
+    }
+
+    private final int maxSize;
+
+    private final long timeToLive;
+
+    private final HateosResourceSelectionCacheEviction eviction;
+
+    /**
+     * Provides the current time in milliseconds.
+     */
+    private final LongSupplier now;
+
+    private final Map<HateosResourceHandlerCacheKey, HateosResourceHandlerCacheEntry> keyToEntry = new ConcurrentHashMap<>();
+
+    /**
+     * Every cached entry in the order it was added or given a second chance, only accessed while synchronized.
+     */
+    private final ArrayDeque<HateosResourceHandlerCacheEntry> queue = new ArrayDeque<>();
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.handler + " " + this.maxSize + " " + this.timeToLive + "ms " + this.eviction;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import java.util.Optional;
+
+/**
+ * A single cached result within a {@link HateosResourceHandlerCache}, with the time in milliseconds when it expires.
+ */
+final class HateosResourceHandlerCacheEntry {
+
+    static HateosResourceHandlerCacheEntry with(final HateosResourceHandlerCacheKey key,
+                                                final Optional<?> value,
+                                                final long expires) {
+        return new HateosResourceHandlerCacheEntry(
+            key,
+            value,
+            expires
+        );
+    }
+
+    private HateosResourceHandlerCacheEntry(final HateosResourceHandlerCacheKey key,
+                                            final Optional<?> value,
+                                            final long expires) {
+        super();
+        this.key = key;
+        this.value = value;
+        this.expires = expires;
+    }
+
+    /**
+     * Marks this entry as read since it was last considered for eviction, only writing when the flag changes so
+     * repeated hits do not keep invalidating the cache line.
+     */
+    void access() {
+        if (false == this.accessed) {
+            this.accessed = true;
+        }
+    }
+
+    final HateosResourceHandlerCacheKey key;
+
+    final Optional<?> value;
+
+    final long expires;
+
+    /**
+     * Set by a hit and cleared when this entry is given a second chance, see {@link HateosResourceHandlerCache}.
+     */
+    volatile boolean accessed;
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.value + " " + this.expires;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.net.UrlPath;
+import walkingkooka.net.header.HttpHeaderName;
+import walkingkooka.net.http.server.HttpRequestAttribute;
+import walkingkooka.net.http.server.HttpRequestParameterName;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The key for a single cached result within a {@link HateosResourceHandlerCache}.
+ */
+final class HateosResourceHandlerCacheKey {
+
+    static HateosResourceHandlerCacheKey with(final HateosResourceSelection<?> selection,
+                                              final Map<HttpRequestAttribute<?>, Object> parameters,
+                                              final UrlPath path) {
+        return new HateosResourceHandlerCacheKey(
+            selection,
+            representation(parameters),
+            path
+        );
+    }
+
+    /**
+     * Returns only the query parameters and {@link #HEADERS} from the given parameters, so requests that differ only by
+     * incidental headers share the same key, and the key does not keep the request parameters alive.
+     */
+    static Map<HttpRequestAttribute<?>, Object> representation(final Map<HttpRequestAttribute<?>, Object> parameters) {
+        final Map<HttpRequestAttribute<?>, Object> representation = Maps.hash();
+
+        for (final Map.Entry<HttpRequestAttribute<?>, Object> parameterAndValue : parameters.entrySet()) {
+            final HttpRequestAttribute<?> parameter = parameterAndValue.getKey();
+            if (parameter instanceof HttpRequestParameterName || HEADERS.contains(parameter)) {
+                representation.put(
+                    parameter,
+                    parameterAndValue.getValue()
+                );
+            }
+        }
+
+        return representation;
+    }
+
+    /**
+     * The headers that may change the result of a {@link HateosResourceHandler}, all other headers are ignored.
+     */
+    final static Set<HttpHeaderName<?>> HEADERS = Sets.of(
+        HttpHeaderName.ACCEPT,
+        HttpHeaderName.ACCEPT_LANGUAGE,
+        HttpHeaderName.AUTHORIZATION
+    );
+
+    private HateosResourceHandlerCacheKey(final HateosResourceSelection<?> selection,
+                                          final Map<HttpRequestAttribute<?>, Object> parameters,
+                                          final UrlPath path) {
+        super();
+        this.selection = selection;
+        this.parameters = parameters;
+        this.path = path;
+    }
+
+    final HateosResourceSelection<?> selection;
+
+    private final Map<HttpRequestAttribute<?>, Object> parameters;
+
+    private final UrlPath path;
+
+    // Object...........................................................................................................
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+            this.selection,
+            this.parameters,
+            this.path
+        );
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other ||
+            other instanceof HateosResourceHandlerCacheKey && this.equals0((HateosResourceHandlerCacheKey) other);
+    }
+
+    private boolean equals0(final HateosResourceHandlerCacheKey other) {
+        return this.selection.equals(other.selection) &&
+            this.parameters.equals(other.parameters) &&
+            this.path.equals(other.path);
+    }
+
+    @Override
+    public String toString() {
+        return this.selection + " " + this.parameters + " " + this.path;
+    }
+}
@@ -19,8 +19,27 @@ package walkingkooka.net.http.server.hateos;
 
 import walkingkooka.reflect.PublicStaticHelper;
 
+import java.util.function.LongSupplier;
+
 public final class HateosResourceHandlers implements PublicStaticHelper {
 
+    /**
+     * {@see HateosResourceHandlerCache}
+     */
+    public static <I extends Comparable<I>, V, C, X extends HateosHandlerContext> HateosResourceHandlerCache<I, V, C, X> cache(final HateosResourceHandler<I, V, C, X> handler,
+                                                                                                                               final int maxSize,
+                                                                                                                               final long timeToLive,
+                                                                                                                               final HateosResourceSelectionCacheEviction eviction,
+                                                                                                                               final LongSupplier now) {
+        return HateosResourceHandlerCache.with(
+            handler,
+            maxSize,
+            timeToLive,
+            eviction,
+            now
+        );
+    }
+
     /**
      * {@see FakeHateosResourceHandler}
      */
@@ -17,12 +17,14 @@
 
 package walkingkooka.net.http.server.hateos;
 
+import walkingkooka.Cast;
 import walkingkooka.ToStringBuilder;
 import walkingkooka.ToStringBuilderOption;
 import walkingkooka.collect.Range;
 import walkingkooka.collect.map.Maps;
 import walkingkooka.net.UrlPath;
 import walkingkooka.net.UrlPathName;
+import walkingkooka.net.header.CacheControl;
 import walkingkooka.net.header.HttpHeaderName;
 import walkingkooka.net.header.LinkRelation;
 import walkingkooka.net.http.HttpMethod;
@@ -67,6 +69,25 @@ public final class HateosResourceMappings<I extends Comparable<I>, V, C, H exten
      */
     public final static HttpHeaderName<String> X_CONTENT_TYPE_NAME = HttpHeaderName.with("X-Content-Type-Name").stringValues();
 
+    /**
+     * This header appears in responses when {@link HateosResourceMappingsLinks#TEMPLATE} is active and contains a URI
+     * template for each {@link LinkRelation}, replacing the _links of every individual resource.
+     */
+    public final static HttpHeaderName<String> LINK_TEMPLATE = HttpHeaderName.with("Link-Template").stringValues();
+
+    /**
+     * This header appears in responses to requests rejected by a {@link HateosLimiter} and contains the number of
+     * seconds the client should wait before retrying.
+     */
+    public final static HttpHeaderName<String> RETRY_AFTER = HttpHeaderName.with("Retry-After").stringValues();
+
+    /**
+     * This header is added by a proxy or load balancer and contains the time since the epoch when the request was
+     * received, in milliseconds, microseconds or seconds with a fraction, optionally prefixed by <code>t=</code>, which a
+     * {@link HateosLimiter} may use to reject requests that have already waited too long.
+     */
+    public final static HttpHeaderName<String> X_REQUEST_START = HttpHeaderName.with("X-Request-Start").stringValues();
+
     /**
      * Creates a new {@link HateosResourceMappings}
      */
@@ -104,7 +125,12 @@ public final class HateosResourceMappings<I extends Comparable<I>, V, C, H exten
             valueType,
             collectionType,
             resourceType,
-            Maps.empty()
+            Maps.empty(),
+            null, // selectionCache
+            NO_RESPONSE_BODY_ENCODE_THRESHOLD,
+            HateosResourceMappingsLinks.RESOURCE,
+            false, // eTag
+            null // limiter
         );
     }
 
@@ -116,7 +142,12 @@ public final class HateosResourceMappings<I extends Comparable<I>, V, C, H exten
                                    final Class<V> valueType,
                                    final Class<C> collectionType,
                                    final Class<H> resourceType,
-                                   final Map<UrlPathName, HateosResourceMappingsMapping<I, V, C, H, X>> pathNameToMappings) {
+                                   final Map<UrlPathName, HateosResourceMappingsMapping<I, V, C, H, X>> pathNameToMappings,
+                                   final HateosResourceSelectionCache<I> selectionCache,
+                                   final int responseBodyEncodeThreshold,
+                                   final HateosResourceMappingsLinks links,
+                                   final boolean eTag,
+                                   final HateosLimiter limiter) {
         super();
         this.resourceName = resourceName;
         this.selection = selection;
@@ -125,6 +156,11 @@ public final class HateosResourceMappings<I extends Comparable<I>, V, C, H exten
         this.resourceType = resourceType;
 
         this.pathNameToMappings = pathNameToMappings;
+        this.selectionCache = selectionCache;
+        this.responseBodyEncodeThreshold = responseBodyEncodeThreshold;
+        this.links = links;
+        this.eTag = eTag;
+        this.limiter = limiter;
     }
 
     /**
@@ -137,37 +173,24 @@ public final class HateosResourceMappings<I extends Comparable<I>, V, C, H exten
         Objects.requireNonNull(method, "method");
         Objects.requireNonNull(handler, "handler");
 
-        final Map<UrlPathName, HateosResourceMappingsMapping<I, V, C, H, X>> pathNameToMappings = Maps.sorted();
-        pathNameToMappings.putAll(this.pathNameToMappings);
-
         final UrlPathName pathName = relation.toUrlPathName()
             .get();
 
-        HateosResourceMappingsMapping<I, V, C, H, X> mappingHandler = pathNameToMappings.get(pathName);
+        HateosResourceMappingsMapping<I, V, C, H, X> mappingHandler = this.pathNameToMappings.get(pathName);
         if (null == mappingHandler) {
             mappingHandler = HateosResourceMappingsMapping.empty(
                 relation,
                 null
             );
         }
-        pathNameToMappings.put(
+
+        return this.replaceMapping(
             pathName,
             mappingHandler.setHateosHttpEntityHandler(
                 method,
                 handler
             )
         );
-
-        return this.pathNameToMappings.equals(pathNameToMappings) ?
-            this :
-            new HateosResourceMappings<>(
-                this.resourceName,
-                this.selection,
-                this.valueType,
-                this.collectionType,
-                this.resourceType,
-                pathNameToMappings
-            );
     }
 
     /**
@@ -180,37 +203,54 @@ public final class HateosResourceMappings<I extends Comparable<I>, V, C, H exten
         Objects.requireNonNull(method, "method");
         Objects.requireNonNull(handler, "handler");
 
-        final Map<UrlPathName, HateosResourceMappingsMapping<I, V, C, H, X>> pathNameToMappings = Maps.sorted();
-        pathNameToMappings.putAll(this.pathNameToMappings);
-
         final UrlPathName pathName = relation.toUrlPathName()
             .get();
 
-        HateosResourceMappingsMapping<I, V, C, H, X> mappingHandler = pathNameToMappings.get(pathName);
+        HateosResourceMappingsMapping<I, V, C, H, X> mappingHandler = this.pathNameToMappings.get(pathName);
         if (null == mappingHandler) {
             mappingHandler = HateosResourceMappingsMapping.empty(
                 relation,
                 null
             );
         }
-        pathNameToMappings.put(
+
+        return this.replaceMapping(
             pathName,
             mappingHandler.setHateosResourceHandler(
                 method,
                 handler
             )
         );
+    }
 
-        return this.pathNameToMappings.equals(pathNameToMappings) ?
-            this :
-            new HateosResourceMappings<>(
-                this.resourceName,
-                this.selection,
-                this.valueType,
-                this.collectionType,
-                this.resourceType,
-                pathNameToMappings
+    /**
+     * Sets or replaces a {@link LinkRelation} and {@link HttpMethod} with a {@link HateosResourceStreamHandler}.
+     */
+    public HateosResourceMappings<I, V, C, H, X> setHateosResourceStreamHandler(final LinkRelation<?> relation,
+                                                                                final HttpMethod method,
+                                                                                final HateosResourceStreamHandler<I, V, X> handler) {
+        checkLinkRelation(relation);
+        Objects.requireNonNull(method, "method");
+        Objects.requireNonNull(handler, "handler");
+
+        final UrlPathName pathName = relation.toUrlPathName()
+            .get();
+
+        HateosResourceMappingsMapping<I, V, C, H, X> mappingHandler = this.pathNameToMappings.get(pathName);
+        if (null == mappingHandler) {
+            mappingHandler = HateosResourceMappingsMapping.empty(
+                relation,
+                null
             );
+        }
+
+        return this.replaceMapping(
+            pathName,
+            mappingHandler.setHateosResourceStreamHandler(
+                method,
+                handler
+            )
+        );
     }
 
     private static LinkRelation<?> checkLinkRelation(final LinkRelation<?> relation) {
@@ -221,6 +261,49 @@ public final class HateosResourceMappings<I extends Comparable<I>, V, C, H exten
         return relation;
     }
 
+    /**
+     * Returns the existing mapping for the {@link UrlPathName} of the given {@link LinkRelation}, failing if no
+     * handler was set.
+     */
+    private HateosResourceMappingsMapping<I, V, C, H, X> mappingOrFail(final UrlPathName pathName,
+                                                                       final LinkRelation<?> relation) {
+        final HateosResourceMappingsMapping<I, V, C, H, X> mapping = this.pathNameToMappings.get(pathName);
+        if (null == mapping) {
+            throw new IllegalArgumentException("Missing handler for link relation " + relation);
+        }
+        return mapping;
+    }
+
+    /**
+     * Returns a {@link HateosResourceMappings} with the mapping for the given {@link UrlPathName} replaced, or this if
+     * the mapping is unchanged.
+     */
+    private HateosResourceMappings<I, V, C, H, X> replaceMapping(final UrlPathName pathName,
+                                                                 final HateosResourceMappingsMapping<I, V, C, H, X> mapping) {
+        final Map<UrlPathName, HateosResourceMappingsMapping<I, V, C, H, X>> pathNameToMappings = Maps.sorted();
+        pathNameToMappings.putAll(this.pathNameToMappings);
+        pathNameToMappings.put(
+            pathName,
+            mapping
+        );
+
+        return this.pathNameToMappings.equals(pathNameToMappings) ?
+            this :
+            new HateosResourceMappings<>(
+                this.resourceName,
+                this.selection,
+                this.valueType,
+                this.collectionType,
+                this.resourceType,
+                pathNameToMappings,
+                this.selectionCache,
+                this.responseBodyEncodeThreshold,
+                this.links,
+                this.eTag,
+                this.limiter
+            );
+    }
+
     /**
      * Sets a {@link HttpHandler} to handle requests at the given relative {@link UrlPathName}.
      */
@@ -229,22 +312,280 @@ public final class HateosResourceMappings<I extends Comparable<I>, V, C, H exten
         Objects.requireNonNull(pathName, "pathName");
         Objects.requireNonNull(handler, "handler");
 
-        final Map<UrlPathName, HateosResourceMappingsMapping<I, V, C, H, X>> pathNameToMappings = Maps.sorted();
-        pathNameToMappings.putAll(this.pathNameToMappings);
-
-        HateosResourceMappingsMapping<I, V, C, H, X> mappingHandler = pathNameToMappings.get(pathName);
+        HateosResourceMappingsMapping<I, V, C, H, X> mappingHandler = this.pathNameToMappings.get(pathName);
         if (null == mappingHandler) {
             mappingHandler = HateosResourceMappingsMapping.empty(
                 null,
                 handler
             );
         }
-        pathNameToMappings.put(
+
+        return this.replaceMapping(
             pathName,
             mappingHandler.setHttpHandler(handler)
         );
+    }
 
-        return this.pathNameToMappings.equals(pathNameToMappings) ?
+    // cacheControl.....................................................................................................
+
+    /**
+     * Sets or replaces the {@link CacheControl} added to successful responses for the given {@link LinkRelation} and
+     * {@link HttpMethod}, eg <code>max-age=60, s-maxage=300, stale-while-revalidate=30, public</code>. A handler must
+     * already be set for the {@link LinkRelation}.
+     */
+    public HateosResourceMappings<I, V, C, H, X> setCacheControl(final LinkRelation<?> relation,
+                                                                 final HttpMethod method,
+                                                                 final CacheControl cacheControl) {
+        checkLinkRelation(relation);
+        Objects.requireNonNull(method, "method");
+        Objects.requireNonNull(cacheControl, "cacheControl");
+
+        final UrlPathName pathName = relation.toUrlPathName()
+            .get();
+
+        return this.replaceMapping(
+            pathName,
+            this.mappingOrFail(
+                pathName,
+                relation
+            ).setCacheControl(
+                method,
+                cacheControl
+            )
+        );
+    }
+
+    // singleFlight.....................................................................................................
+
+    /**
+     * Sets or replaces the {@link HateosSingleFlight} for the given {@link LinkRelation}, so identical concurrent GET
+     * and HEAD requests share a single handler invocation and response. A handler must already be set for the
+     * {@link LinkRelation}.
+     */
+    public HateosResourceMappings<I, V, C, H, X> setSingleFlight(final LinkRelation<?> relation,
+                                                                 final HateosSingleFlight singleFlight) {
+        checkLinkRelation(relation);
+        Objects.requireNonNull(singleFlight, "singleFlight");
+
+        final UrlPathName pathName = relation.toUrlPathName()
+            .get();
+
+        return this.replaceMapping(
+            pathName,
+            this.mappingOrFail(
+                pathName,
+                relation
+            ).setSingleFlight(singleFlight)
+        );
+    }
+
+    // selectionCache...................................................................................................
+
+    /**
+     * Enables caching of parsed {@link HateosResourceSelection} by their selection text, which requires the selection
+     * parser to be a {@link HateosResourceSelectionParser}, which declares that it does not use the {@link HateosHandlerContext}.
+     */
+    public HateosResourceMappings<I, V, C, H, X> setSelectionCache(final int maxSize,
+                                                                   final HateosResourceSelectionCacheEviction eviction) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Invalid maxSize " + maxSize + " <= 0");
+        }
+        Objects.requireNonNull(eviction, "eviction");
+
+        if (false == this.selection instanceof HateosResourceSelectionParser) {
+            throw new IllegalStateException("Selection cache requires a " + HateosResourceSelectionParser.class.getSimpleName());
+        }
+
+        return new HateosResourceMappings<>(
+            this.resourceName,
+            this.selection,
+            this.valueType,
+            this.collectionType,
+            this.resourceType,
+            this.pathNameToMappings,
+            HateosResourceSelectionCache.with(
+                maxSize,
+                eviction
+            ),
+            this.responseBodyEncodeThreshold,
+            this.links,
+            this.eTag,
+            this.limiter
+        );
+    }
+
+    /**
+     * The number of requests whose {@link HateosResourceSelection} was found in the selection cache.
+     */
+    public long selectionCacheHits() {
+        final HateosResourceSelectionCache<I> selectionCache = this.selectionCache;
+        return null != selectionCache ?
+            selectionCache.hits() :
+            0;
+    }
+
+    /**
+     * The number of requests whose {@link HateosResourceSelection} was parsed because it was absent from the selection cache.
+     */
+    public long selectionCacheMisses() {
+        final HateosResourceSelectionCache<I> selectionCache = this.selectionCache;
+        return null != selectionCache ?
+            selectionCache.misses() :
+            0;
+    }
+
+    /**
+     * Parses the selection text using the selection cache if one is present. Invalid text is reported by the returned
+     * {@link HateosResourceSelectionParserResult} for parsers from {@link HateosResourceSelectionParsers}, while other
+     * parsers report invalid text by throwing.
+     */
+    HateosResourceSelectionParserResult<I> parseSelection(final String text,
+                                                          final X context) {
+        final BiFunction<String, X, HateosResourceSelection<I>> selection = this.selection;
+        final HateosResourceSelectionCache<I> selectionCache = this.selectionCache;
+
+        final HateosResourceSelectionParserResult<I> result;
+        if (null != selectionCache) {
+            result = selectionCache.get(
+                text,
+                Cast.to(selection)
+            );
+        } else {
+            if (selection instanceof HateosResourceSelectionParserBasic) {
+                final HateosResourceSelectionParserBasic<I> basic = Cast.to(selection);
+                result = basic.tryParse(text);
+            } else {
+                result = HateosResourceSelectionParserResult.selection(
+                    selection.apply(
+                        text,
+                        context
+                    )
+                );
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * When present parsed {@link HateosResourceSelection} are cached.
+     */
+    private final HateosResourceSelectionCache<I> selectionCache;
+
+    // responseBodyEncodeThreshold......................................................................................
+
+    /**
+     * The default which keeps all response bodies as text.
+     */
+    private final static int NO_RESPONSE_BODY_ENCODE_THRESHOLD = -1;
+
+    /**
+     * Response body text with at least threshold characters is encoded once into bytes using the selected charset,
+     * and the text is released, rather than keeping the text within the response {@link walkingkooka.net.http.HttpEntity}
+     * until it is written. This is most useful for large collections returned by
+     * {@link HateosResourceHandler#handleAll(Optional, Map, UrlPath, HateosHandlerContext)} and
+     * {@link HateosResourceHandler#handleRange(Range, Optional, Map, UrlPath, HateosHandlerContext)}.
+     */
+    public HateosResourceMappings<I, V, C, H, X> setResponseBodyEncodeThreshold(final int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Invalid threshold " + threshold + " < 0");
+        }
+
+        return this.responseBodyEncodeThreshold == threshold ?
+            this :
+            new HateosResourceMappings<>(
+                this.resourceName,
+                this.selection,
+                this.valueType,
+                this.collectionType,
+                this.resourceType,
+                this.pathNameToMappings,
+                this.selectionCache,
+                threshold,
+                this.links,
+                this.eTag,
+                this.limiter
+            );
+    }
+
+    /**
+     * Tests if the response body text should be encoded into bytes.
+     */
+    boolean isResponseBodyEncoded(final String text) {
+        final int threshold = this.responseBodyEncodeThreshold;
+        return NO_RESPONSE_BODY_ENCODE_THRESHOLD != threshold &&
+            text.length() >= threshold;
+    }
+
+    private final int responseBodyEncodeThreshold;
+
+    // links............................................................................................................
+
+    /**
+     * Sets the default {@link HateosResourceMappingsLinks} for resources of this mapping, which a request may reduce
+     * using the {@link HateosResourceMappingsLinks#PARAMETER} query parameter.
+     */
+    public HateosResourceMappings<I, V, C, H, X> setLinks(final HateosResourceMappingsLinks links) {
+        Objects.requireNonNull(links, "links");
+
+        return this.links == links ?
+            this :
+            new HateosResourceMappings<>(
+                this.resourceName,
+                this.selection,
+                this.valueType,
+                this.collectionType,
+                this.resourceType,
+                this.pathNameToMappings,
+                this.selectionCache,
+                this.responseBodyEncodeThreshold,
+                links,
+                this.eTag,
+                this.limiter
+            );
+    }
+
+    final HateosResourceMappingsLinks links;
+
+    // eTag.............................................................................................................
+
+    /**
+     * When enabled successful responses to GET and HEAD requests include a weak {@link HttpHeaderName#E_TAG}, and a
+     * request with a matching {@link HttpHeaderName#IF_NONE_MATCH} receives a {@link walkingkooka.net.http.HttpStatusCode#NOT_MODIFIED}
+     * without a body. The ETag is computed from the response body, or from {@link HateosResource#hateosVersion()}
+     * when present, which avoids marshalling the response.
+     */
+    public HateosResourceMappings<I, V, C, H, X> setETag(final boolean eTag) {
+        return this.eTag == eTag ?
+            this :
+            new HateosResourceMappings<>(
+                this.resourceName,
+                this.selection,
+                this.valueType,
+                this.collectionType,
+                this.resourceType,
+                this.pathNameToMappings,
+                this.selectionCache,
+                this.responseBodyEncodeThreshold,
+                this.links,
+                eTag,
+                this.limiter
+            );
+    }
+
+    final boolean eTag;
+
+    // limiter..........................................................................................................
+
+    /**
+     * Sets or replaces the {@link HateosLimiter} that must be acquired by every request to this resource, before any
+     * {@link LinkRelation} {@link HateosLimiter}. Requests that are rejected receive a
+     * {@link walkingkooka.net.http.HttpStatusCode#SERVICE_UNAVAILABLE} with a Retry-After header.
+     */
+    public HateosResourceMappings<I, V, C, H, X> setLimiter(final HateosLimiter limiter) {
+        Objects.requireNonNull(limiter, "limiter");
+
+        return limiter.equals(this.limiter) ?
             this :
             new HateosResourceMappings<>(
                 this.resourceName,
@@ -252,20 +593,67 @@ public final class HateosResourceMappings<I extends Comparable<I>, V, C, H exten
                 this.valueType,
                 this.collectionType,
                 this.resourceType,
-                pathNameToMappings
+                this.pathNameToMappings,
+                this.selectionCache,
+                this.responseBodyEncodeThreshold,
+                this.links,
+                this.eTag,
+                limiter
             );
     }
 
+    /**
+     * Sets or replaces the {@link HateosLimiter} for the given {@link LinkRelation}, which may be shared with other
+     * {@link LinkRelation link relations}. A handler must already be set for the {@link LinkRelation}.
+     */
+    public HateosResourceMappings<I, V, C, H, X> setLimiter(final LinkRelation<?> relation,
+                                                            final HateosLimiter limiter) {
+        checkLinkRelation(relation);
+        Objects.requireNonNull(limiter, "limiter");
+
+        final UrlPathName pathName = relation.toUrlPathName()
+            .get();
+
+        return this.replaceMapping(
+            pathName,
+            this.mappingOrFail(
+                pathName,
+                relation
+            ).setLimiter(limiter)
+        );
+    }
+
+    /**
+     * When not null a permit must be acquired by every request to this resource.
+     */
+    final HateosLimiter limiter;
+
     // HateosResourceMappingsRouter.....................................................................................
 
     /**
-     * Creates a {@link Router} from the provided {@link HateosResourceMappings mappings}.
+     * Creates a {@link Router} from the provided {@link HateosResourceMappings mappings}, where bad requests caused by
+     * an exception have the stack trace in the response body.
      */
     public static <X extends HateosHandlerContext> Router<HttpRequestAttribute<?>, HttpHandler<X>> router(final UrlPath base,
                                                                                                           final Set<HateosResourceMappings<?, ?, ?, ?, X>> mappings) {
+        return router(
+            base,
+            mappings,
+            HateosResourceMappingsErrorReporters.stackTrace()
+        );
+    }
+
+    /**
+     * Creates a {@link Router} from the provided {@link HateosResourceMappings mappings}, using the given
+     * {@link HateosResourceMappingsErrorReporter} to create the response body for bad requests caused by an exception.
+     */
+    public static <X extends HateosHandlerContext> Router<HttpRequestAttribute<?>, HttpHandler<X>> router(final UrlPath base,
+                                                                                                          final Set<HateosResourceMappings<?, ?, ?, ?, X>> mappings,
+                                                                                                          final HateosResourceMappingsErrorReporter errorReporter) {
         return HateosResourceMappingsRouter.with(
             base,
-            mappings
+            mappings,
+            errorReporter
         );
     }
 
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.net.header.ETag;
+import walkingkooka.net.header.ETagValidator;
+
+import java.util.List;
+
+/**
+ * Computes weak {@link ETag} using the 64 bit FNV-1a hash, which is fast and not cryptographic, and tests them against
+ * an If-None-Match header. Weak ETags are used because the same hash is given to compressed and uncompressed bodies.
+ */
+final class HateosResourceMappingsETags {
+
+    private final static long OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private final static long PRIME = 0x100000001b3L;
+
+    /**
+     * Computes an {@link ETag} for the text of a response body.
+     */
+    static ETag text(final CharSequence text) {
+        long hash = OFFSET_BASIS;
+
+        final int length = text.length();
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+
+            hash ^= c & 0xff;
+            hash *= PRIME;
+            hash ^= c >>> 8;
+            hash *= PRIME;
+        }
+
+        return eTag(hash);
+    }
+
+    /**
+     * Computes an {@link ETag} for the bytes of a response body.
+     */
+    static ETag binary(final byte[] bytes) {
+        long hash = OFFSET_BASIS;
+
+        for (final byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= PRIME;
+        }
+
+        return eTag(hash);
+    }
+
+    /**
+     * Computes an {@link ETag} for a {@link HateosResource} with a {@link HateosResource#hateosVersion()}, returning
+     * null if the value is not a {@link HateosResource} or has no version.
+     */
+    static ETag version(final Object value) {
+        ETag eTag = null;
+
+        if (value instanceof HateosResource) {
+            final HateosResource<?> resource = (HateosResource<?>) value;
+            final String version = resource.hateosVersion()
+                .orElse(null);
+            if (null != version) {
+                eTag = text(
+                    resource.hateosLinkId() + '/' + version
+                );
+            }
+        }
+
+        return eTag;
+    }
+
+    private static ETag eTag(final long hash) {
+        final String hex = Long.toHexString(hash);
+
+        return ETag.with(
+            "0000000000000000".substring(hex.length()) + hex,
+            ETagValidator.WEAK
+        );
+    }
+
+    /**
+     * Tests if any of the If-None-Match {@link ETag} match using the weak comparison.
+     */
+    static boolean isMatch(final ETag eTag,
+                           final List<ETag> ifNoneMatch) {
+        boolean match = false;
+
+        for (final ETag possible : ifNoneMatch) {
+            if (possible.isWildcard() || possible.value().equals(eTag.value())) {
+                match = true;
+                break;
+            }
+        }
+
+        return match;
+    }
+
+    /**
+     * Stop creation
+     */
+    private HateosResourceMappingsETags() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.net.http.HttpEntity;
+import walkingkooka.route.Router;
+
+/**
+ * Renders the response {@link HttpEntity} for a bad request caused by a {@link Throwable}, such as an invalid
+ * selection or request body, within a {@link Router} created by {@link HateosResourceMappings#router}.
+ */
+public interface HateosResourceMappingsErrorReporter {
+
+    /**
+     * Returns the {@link HttpEntity} that will become the response body for a bad request with the given message
+     * and cause. The status and message have already been set upon the response.
+     */
+    HttpEntity badRequest(final String message,
+                          final Throwable cause);
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.net.header.MediaType;
+import walkingkooka.net.http.HttpEntity;
+
+/**
+ * A {@link HateosResourceMappingsErrorReporter} intended for production, which always returns the same small
+ * application/problem+json {@link HttpEntity}. The stack trace of the cause is never walked or formatted, and the
+ * message is only present in the status line.
+ */
+final class HateosResourceMappingsErrorReporterProblemJson implements HateosResourceMappingsErrorReporter {
+
+    /**
+     * Singleton
+     */
+    final static HateosResourceMappingsErrorReporterProblemJson INSTANCE = new HateosResourceMappingsErrorReporterProblemJson();
+
+    final static MediaType CONTENT_TYPE = MediaType.parse("application/problem+json");
+
+    /**
+     * The body is created once and shared by all bad requests.
+     */
+    private final static HttpEntity BAD_REQUEST = HttpEntity.EMPTY
+        .setContentType(CONTENT_TYPE)
+        .setBodyText("{\"status\":400,\"title\":\"Bad Request\"}")
+        .setContentLength();
+
+    private HateosResourceMappingsErrorReporterProblemJson() {
+        super();
+    }
+
+    @Override
+    public HttpEntity badRequest(final String message,
+                                 final Throwable cause) {
+        return BAD_REQUEST;
+    }
+
+    @Override
+    public String toString() {
+        return "problemJson";
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.net.http.HttpEntity;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * A {@link HateosResourceMappingsErrorReporter} which passes one in every {@link #every} causes to a logger, before
+ * always asking the wrapped {@link HateosResourceMappingsErrorReporter} for the response body.
+ */
+final class HateosResourceMappingsErrorReporterSampled implements HateosResourceMappingsErrorReporter {
+
+    static HateosResourceMappingsErrorReporterSampled with(final int every,
+                                                          final Consumer<Throwable> logger,
+                                                          final HateosResourceMappingsErrorReporter reporter) {
+        if (every <= 0) {
+            throw new IllegalArgumentException("Invalid every " + every + " <= 0");
+        }
+        Objects.requireNonNull(logger, "logger");
+        Objects.requireNonNull(reporter, "reporter");
+
+        return new HateosResourceMappingsErrorReporterSampled(
+            every,
+            logger,
+            reporter
+        );
+    }
+
+    private HateosResourceMappingsErrorReporterSampled(final int every,
+                                                       final Consumer<Throwable> logger,
+                                                       final HateosResourceMappingsErrorReporter reporter) {
+        super();
+        this.every = every;
+        this.logger = logger;
+        this.reporter = reporter;
+    }
+
+    @Override
+    public HttpEntity badRequest(final String message,
+                                 final Throwable cause) {
+        // mask the sign bit so the count remains positive after overflowing
+        if (0 == (this.count.getAndIncrement() & Integer.MAX_VALUE) % this.every) {
+            this.logger.accept(cause);
+        }
+        return this.reporter.badRequest(
+            message,
+            cause
+        );
+    }
+
+    private final int every;
+
+    private final Consumer<Throwable> logger;
+
+    private final HateosResourceMappingsErrorReporter reporter;
+
+    /**
+     * Counts all bad requests, the first and then every {@link #every} cause is logged.
+     */
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public String toString() {
+        return "sampled " + this.every + " " + this.logger + " " + this.reporter;
+    }
+}
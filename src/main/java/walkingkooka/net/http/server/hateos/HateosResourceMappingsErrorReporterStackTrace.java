@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.net.http.HttpEntity;
+
+/**
+ * A {@link HateosResourceMappingsErrorReporter} which fills the response body with the stack trace of the cause,
+ * with content-type=text/plain. This is the default and is most useful during development.
+ */
+final class HateosResourceMappingsErrorReporterStackTrace implements HateosResourceMappingsErrorReporter {
+
+    /**
+     * Singleton
+     */
+    final static HateosResourceMappingsErrorReporterStackTrace INSTANCE = new HateosResourceMappingsErrorReporterStackTrace();
+
+    private HateosResourceMappingsErrorReporterStackTrace() {
+        super();
+    }
+
+    @Override
+    public HttpEntity badRequest(final String message,
+                                 final Throwable cause) {
+        return HttpEntity.dumpStackTrace(cause);
+    }
+
+    @Override
+    public String toString() {
+        return "stackTrace";
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.reflect.PublicStaticHelper;
+
+import java.util.function.Consumer;
+
+/**
+ * A collection of {@link HateosResourceMappingsErrorReporter}.
+ */
+public final class HateosResourceMappingsErrorReporters implements PublicStaticHelper {
+
+    /**
+     * {@see HateosResourceMappingsErrorReporterProblemJson}
+     */
+    public static HateosResourceMappingsErrorReporter problemJson() {
+        return HateosResourceMappingsErrorReporterProblemJson.INSTANCE;
+    }
+
+    /**
+     * {@see HateosResourceMappingsErrorReporterSampled}
+     */
+    public static HateosResourceMappingsErrorReporter sampled(final int every,
+                                                              final Consumer<Throwable> logger,
+                                                              final HateosResourceMappingsErrorReporter reporter) {
+        return HateosResourceMappingsErrorReporterSampled.with(
+            every,
+            logger,
+            reporter
+        );
+    }
+
+    /**
+     * {@see HateosResourceMappingsErrorReporterStackTrace}
+     */
+    public static HateosResourceMappingsErrorReporter stackTrace() {
+        return HateosResourceMappingsErrorReporterStackTrace.INSTANCE;
+    }
+
+    /**
+     * Stop creation
+     */
+    private HateosResourceMappingsErrorReporters() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -28,7 +28,9 @@ import walkingkooka.tree.json.marshall.JsonNodeMarshallContexts;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A {@link JsonNodeMarshallContextObjectPostProcessor} that adds links for types, and can be used by {@link JsonNodeMarshallContexts#basic}
@@ -41,6 +43,11 @@ final class HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessor<X e
         final Map<String, HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMapping> typeToMappings = Maps.ordered();
 
         for (final HateosResourceMappings<?, ?, ?, ?, X> mapping : mappings) {
+            // resources without links are not registered and never visited again
+            if (HateosResourceMappingsLinks.RESOURCE != mapping.links) {
+                continue;
+            }
+
             final HateosResourceName resourceName = mapping.resourceName;
             final Map<LinkRelation<?>, Collection<HttpMethod>> linkRelationToMethods = Maps.ordered();
 
@@ -82,23 +89,54 @@ final class HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessor<X e
     @Override
     public JsonObject apply(final Object value,
                             final JsonObject object) {
-        Class<?> type = value.getClass();
+        final HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMapping mapping = this.mapping(value.getClass());
+
+        return null != mapping ?
+            mapping.addLinks(Cast.to(value), object, this.base, this.context) :
+            object;
+    }
+
+    /**
+     * Returns the mapping for the given {@link Class} or null, caching the result including the absence of a mapping,
+     * so the superclasses of a type are only walked once.
+     */
+    HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMapping mapping(final Class<?> type) {
+        Optional<HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMapping> mapping = this.classToMapping.get(type);
+        if (null == mapping) {
+            mapping = Optional.ofNullable(
+                this.findMapping(type)
+            );
+            this.classToMapping.put(
+                type,
+                mapping
+            );
+        }
+        return mapping.orElse(null);
+    }
+
+    private HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMapping findMapping(final Class<?> type) {
+        Class<?> possible = type;
         HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMapping mapping;
 
         do {
-            mapping = this.typeToMappings.get(type.getName());
+            mapping = this.typeToMappings.get(possible.getName());
             if (null != mapping) {
                 break;
             }
-            type = type.getSuperclass();
-        } while (null != type && Object.class != type);
+            possible = possible.getSuperclass();
+        } while (null != possible && Object.class != possible);
 
-        return null != mapping ?
-            mapping.addLinks(Cast.to(value), object, this.base, this.context) :
-            object;
+        return mapping;
     }
 
     private final Map<String, HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMapping> typeToMappings;
+
+    /**
+     * A cache of resolved {@link #typeToMappings} for every marshalled {@link Class}, with an empty {@link Optional}
+     * recording types without a mapping.
+     */
+    private final Map<Class<?>, Optional<HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMapping>> classToMapping = new ConcurrentHashMap<>();
+
     private final AbsoluteUrl base;
     private final HateosHandlerContext context;
 
@@ -56,14 +56,91 @@ final class HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMapp
         this.linkRelationToMethods = linkRelationToMethods;
     }
 
+    /**
+     * Adds the links for the given {@link HateosResource}, substituting its id into links marshalled once for the base
+     * and context, only building and marshalling every {@link Link} when the id cannot be safely substituted.
+     */
     JsonObject addLinks(final HateosResource<?> resource,
                         final JsonObject object,
                         final AbsoluteUrl base,
                         final HateosHandlerContext context) {
+        final String id = resource.hateosLinkId();
+
+        JsonNode links = null;
+        if (HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks.canSubstitute(id)) {
+            final HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks templates = this.templates(
+                base,
+                context
+            );
+            if (null != templates) {
+                links = templates.links(id);
+            }
+        }
+
+        return object.set(
+            LINKS,
+            null != links ?
+                links :
+                JsonNode.array()
+                    .setChildren(
+                        this.links(
+                            id,
+                            base,
+                            context
+                        )
+                    )
+        );
+    }
+
+    /**
+     * Returns the links marshalled with a placeholder id for the given base and context, creating them if the base or
+     * context changed, which only happens in tests. Null is returned if the links cannot be used as templates.
+     */
+    private HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks templates(final AbsoluteUrl base,
+                                                                                                   final HateosHandlerContext context) {
+        HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks templates = this.templates;
+
+        if (null == templates || false == templates.isFor(base, context)) {
+            if (this.templatesUnavailable) {
+                templates = null;
+            } else {
+                templates = HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks.with(
+                    this.links(
+                        HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks.PLACEHOLDER,
+                        base,
+                        context
+                    ),
+                    base,
+                    context
+                );
+                if (null != templates) {
+                    this.templates = templates;
+                } else {
+                    this.templatesUnavailable = true;
+                }
+            }
+        }
+
+        return templates;
+    }
+
+    /**
+     * Racing threads may both create the templates, which is harmless as they are equal.
+     */
+    private volatile HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks templates;
+
+    private volatile boolean templatesUnavailable;
+
+    /**
+     * Builds and marshals a {@link Link} for every {@link LinkRelation} and {@link HttpMethod}.
+     */
+    private List<JsonNode> links(final String id,
+                                 final AbsoluteUrl base,
+                                 final HateosHandlerContext context) {
         // base + resource name.
         final UrlPath pathAndResourceNameAndId = base.path()
             .append(this.name.toUrlPathName())
-            .append(UrlPathName.with(resource.hateosLinkId()));
+            .append(UrlPathName.with(id));
         final List<JsonNode> links = Lists.array();
 
         for (final Entry<LinkRelation<?>, Collection<HttpMethod>> linkRelationToMethods : this.linkRelationToMethods.entrySet()) {
@@ -95,17 +172,13 @@ final class HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMapp
             }
         }
 
-        return object.set(
-            LINKS,
-            JsonNode.array()
-                .setChildren(links)
-        );
+        return links;
     }
 
     /**
      * The property that receives the actual links.
      */
-    private final static JsonPropertyName LINKS = JsonPropertyName.with("_links");
+    final static JsonPropertyName LINKS = JsonPropertyName.with("_links");
 
     /**
      * The HateosResourceName as a path name component.
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.net.AbsoluteUrl;
+import walkingkooka.tree.json.JsonNode;
+import walkingkooka.tree.json.JsonObject;
+import walkingkooka.tree.json.JsonPropertyName;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The marshalled links for a {@link HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMapping}, with
+ * each link marshalled once using a placeholder id. Links for a resource are created by replacing the href property
+ * with the placeholder substituted by the actual id.
+ */
+final class HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks {
+
+    /**
+     * A path name that will never appear in a base {@link AbsoluteUrl}, {@link HateosResourceName} or link relation.
+     */
+    final static String PLACEHOLDER = "HATEOS-LINK-ID-PLACEHOLDER";
+
+    /**
+     * Splits each link around the {@link #PLACEHOLDER}, returning null if any link does not contain the placeholder
+     * within a single string property.
+     */
+    static HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks with(final List<JsonNode> links,
+                                                                                             final AbsoluteUrl base,
+                                                                                             final HateosHandlerContext context) {
+        final int count = links.size();
+
+        final JsonObject[] templates = new JsonObject[count];
+        final JsonPropertyName[] properties = new JsonPropertyName[count];
+        final String[] prefixes = new String[count];
+        final String[] suffixes = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            final JsonNode link = links.get(i);
+            if (false == link.isObject()) {
+                return null;
+            }
+
+            for (final JsonNode property : link.children()) {
+                if (property.isString()) {
+                    final String text = property.stringOrFail();
+                    final int placeholder = text.indexOf(PLACEHOLDER);
+                    if (-1 != placeholder) {
+                        if (null != properties[i] || -1 != text.indexOf(PLACEHOLDER, placeholder + 1)) {
+                            return null;
+                        }
+                        properties[i] = property.name();
+                        prefixes[i] = text.substring(0, placeholder);
+                        suffixes[i] = text.substring(placeholder + PLACEHOLDER.length());
+                    }
+                }
+            }
+
+            if (null == properties[i]) {
+                return null;
+            }
+            templates[i] = link.objectOrFail();
+        }
+
+        return new HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks(
+            base,
+            context,
+            templates,
+            properties,
+            prefixes,
+            suffixes
+        );
+    }
+
+    /**
+     * Only ids with characters that are never percent encoded and are not a relative path may be substituted.
+     */
+    static boolean canSubstitute(final String id) {
+        final int length = id.length();
+
+        boolean dots = true;
+        for (int i = 0; i < length; i++) {
+            final char c = id.charAt(i);
+            if (false == ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || '-' == c || '.' == c || '_' == c || '~' == c)) {
+                return false;
+            }
+            dots &= '.' == c;
+        }
+
+        return false == dots; // empty, "." and ".."
+    }
+
+    private HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks(final AbsoluteUrl base,
+                                                                                         final HateosHandlerContext context,
+                                                                                         final JsonObject[] templates,
+                                                                                         final JsonPropertyName[] properties,
+                                                                                         final String[] prefixes,
+                                                                                         final String[] suffixes) {
+        super();
+        this.base = base;
+        this.context = context;
+        this.templates = templates;
+        this.properties = properties;
+        this.prefixes = prefixes;
+        this.suffixes = suffixes;
+    }
+
+    /**
+     * Tests if these links were created for the given base and context.
+     */
+    boolean isFor(final AbsoluteUrl base,
+                  final HateosHandlerContext context) {
+        return this.context == context &&
+            this.base.equals(base);
+    }
+
+    private final AbsoluteUrl base;
+
+    private final HateosHandlerContext context;
+
+    /**
+     * Creates the links array for the given id, which must satisfy {@link #canSubstitute(String)}.
+     */
+    JsonNode links(final String id) {
+        final JsonObject[] templates = this.templates;
+        final int count = templates.length;
+
+        final JsonNode[] links = new JsonNode[count];
+        for (int i = 0; i < count; i++) {
+            links[i] = templates[i].set(
+                this.properties[i],
+                JsonNode.string(
+                    this.prefixes[i] + id + this.suffixes[i]
+                )
+            );
+        }
+
+        return JsonNode.array()
+            .setChildren(
+                Arrays.asList(links)
+            );
+    }
+
+    private final JsonObject[] templates;
+
+    private final JsonPropertyName[] properties;
+
+    private final String[] prefixes;
+
+    private final String[] suffixes;
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.templates);
+    }
+}
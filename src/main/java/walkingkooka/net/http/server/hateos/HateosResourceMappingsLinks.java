@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.net.http.server.HttpRequestParameterName;
+import walkingkooka.text.CharSequences;
+
+/**
+ * Controls the links added to marshalled {@link HateosResource resources}. The default is set with
+ * {@link HateosResourceMappings#setLinks(HateosResourceMappingsLinks)}, and a request may reduce the links using the
+ * {@link #PARAMETER} query parameter, eg <code>?links=none</code>.
+ */
+public enum HateosResourceMappingsLinks {
+
+    /**
+     * Every resource has a _links array with a link for each relation and method.
+     */
+    RESOURCE,
+
+    /**
+     * Resources have no _links. Instead responses have a single Link-Template header, with a URI template for each
+     * relation.
+     */
+    TEMPLATE,
+
+    /**
+     * Resources have no links.
+     */
+    NONE;
+
+    /**
+     * The query parameter that may hold the links for a single request.
+     */
+    public final static HttpRequestParameterName PARAMETER = HttpRequestParameterName.with("links");
+
+    /**
+     * Parses the text ignoring case into a {@link HateosResourceMappingsLinks}.
+     */
+    public static HateosResourceMappingsLinks parse(final String text) {
+        for (final HateosResourceMappingsLinks links : values()) {
+            if (links.name().equalsIgnoreCase(text)) {
+                return links;
+            }
+        }
+
+        throw new IllegalArgumentException("Invalid links " + CharSequences.quoteAndEscape(text));
+    }
+
+    /**
+     * Returns the requested links unless this emits fewer links, as links that were never added cannot be restored.
+     */
+    HateosResourceMappingsLinks reduce(final HateosResourceMappingsLinks requested) {
+        return requested.ordinal() > this.ordinal() ?
+            requested :
+            this;
+    }
+}
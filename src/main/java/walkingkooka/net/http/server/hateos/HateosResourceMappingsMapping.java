@@ -17,11 +17,13 @@
 
 package walkingkooka.net.http.server.hateos;
 
+import walkingkooka.Cast;
 import walkingkooka.ToStringBuilder;
 import walkingkooka.collect.list.Lists;
 import walkingkooka.collect.map.Maps;
 import walkingkooka.net.UrlPath;
 import walkingkooka.net.UrlPathName;
+import walkingkooka.net.header.CacheControl;
 import walkingkooka.net.header.LinkRelation;
 import walkingkooka.net.http.HttpMethod;
 import walkingkooka.net.http.server.HttpHandler;
@@ -49,17 +51,45 @@ final class HateosResourceMappingsMapping<I extends Comparable<I>, V, C, H exten
         return new HateosResourceMappingsMapping<>(
             linkRelation,
             null, // Map<HttpMethod, HateosResourceMappingsMappingHandler<?>>
-            httpHandler
+            httpHandler,
+            Maps.empty(), // methodToCacheControl
+            null, // singleFlight
+            null // limiter
         );
     }
 
     private HateosResourceMappingsMapping(final LinkRelation<?> linkRelation,
                                           final Map<HttpMethod, HateosResourceMappingsMappingHandler<I, V, C, H, X>> methodToHandlers,
-                                          final HttpHandler<X> httpHandler) {
+                                          final HttpHandler<X> httpHandler,
+                                          final Map<HttpMethod, CacheControl> methodToCacheControl,
+                                          final HateosSingleFlight singleFlight,
+                                          final HateosLimiter limiter) {
         super();
         this.linkRelation = linkRelation;
         this.methodToHandlers = methodToHandlers;
         this.httpHandler = httpHandler;
+        this.methodToCacheControl = methodToCacheControl;
+        this.singleFlight = singleFlight;
+        this.limiter = limiter;
+
+        if (null != methodToHandlers) {
+            final int count = methodToHandlers.size();
+            final HttpMethod[] methods = new HttpMethod[count];
+            final HateosResourceMappingsMappingHandler<?, ?, ?, ?, ?>[] handlers = new HateosResourceMappingsMappingHandler<?, ?, ?, ?, ?>[count];
+
+            int i = 0;
+            for (final Entry<HttpMethod, HateosResourceMappingsMappingHandler<I, V, C, H, X>> methodAndHandler : methodToHandlers.entrySet()) {
+                methods[i] = methodAndHandler.getKey();
+                handlers[i] = methodAndHandler.getValue();
+                i++;
+            }
+
+            this.methods = methods;
+            this.handlers = handlers;
+        } else {
+            this.methods = null;
+            this.handlers = null;
+        }
     }
 
     final LinkRelation<?> linkRelation;
@@ -87,7 +117,10 @@ final class HateosResourceMappingsMapping<I extends Comparable<I>, V, C, H exten
             new HateosResourceMappingsMapping<>(
                 this.linkRelation,
                 methodToHandlers,
-                null // HttpHandler
+                null, // HttpHandler
+                this.methodToCacheControl,
+                this.singleFlight,
+                this.limiter
             );
     }
 
@@ -117,7 +150,43 @@ final class HateosResourceMappingsMapping<I extends Comparable<I>, V, C, H exten
             new HateosResourceMappingsMapping<>(
                 this.linkRelation,
                 methodToHandlers,
-                null // HttpHandler
+                null, // HttpHandler
+                this.methodToCacheControl,
+                this.singleFlight,
+                this.limiter
+            );
+    }
+
+    /**
+     * Sets or replaces a {@link LinkRelation} and {@link HttpMethod} with a {@link HateosResourceStreamHandler}.
+     */
+    HateosResourceMappingsMapping<I, V, C, H, X> setHateosResourceStreamHandler(final HttpMethod method,
+                                                                                final HateosResourceStreamHandler<I, V, X> handler) {
+        Objects.requireNonNull(method, "method");
+        Objects.requireNonNull(handler, "handler");
+
+        this.httpHandlerCheck();
+
+        final Map<HttpMethod, HateosResourceMappingsMappingHandler<I, V, C, H, X>> methodToHandlers = Maps.sorted();
+
+        Map<HttpMethod, HateosResourceMappingsMappingHandler<I, V, C, H, X>> previous = this.methodToHandlers;
+        if (null != previous) {
+            methodToHandlers.putAll(previous);
+        }
+        methodToHandlers.put(
+            method,
+            HateosResourceMappingsMappingHandler.hateosResourceStreamHandler(handler)
+        );
+
+        return methodToHandlers.equals(previous) ?
+            this :
+            new HateosResourceMappingsMapping<>(
+                this.linkRelation,
+                methodToHandlers,
+                null, // HttpHandler
+                this.methodToCacheControl,
+                this.singleFlight,
+                this.limiter
             );
     }
 
@@ -134,10 +203,95 @@ final class HateosResourceMappingsMapping<I extends Comparable<I>, V, C, H exten
         return new HateosResourceMappingsMapping<>(
             this.linkRelation,
             this.methodToHandlers,
-            handler
+            handler,
+            this.methodToCacheControl,
+            this.singleFlight,
+            this.limiter
         );
     }
 
+    /**
+     * Sets or replaces the {@link CacheControl} added to successful responses for the given {@link HttpMethod}.
+     */
+    HateosResourceMappingsMapping<I, V, C, H, X> setCacheControl(final HttpMethod method,
+                                                                 final CacheControl cacheControl) {
+        Objects.requireNonNull(method, "method");
+        Objects.requireNonNull(cacheControl, "cacheControl");
+
+        final Map<HttpMethod, CacheControl> methodToCacheControl = Maps.sorted();
+        methodToCacheControl.putAll(this.methodToCacheControl);
+        methodToCacheControl.put(
+            method,
+            cacheControl
+        );
+
+        return methodToCacheControl.equals(this.methodToCacheControl) ?
+            this :
+            new HateosResourceMappingsMapping<>(
+                this.linkRelation,
+                this.methodToHandlers,
+                this.httpHandler,
+                methodToCacheControl,
+                this.singleFlight,
+                this.limiter
+            );
+    }
+
+    /**
+     * Returns the {@link CacheControl} for the given {@link HttpMethod} or null if none was set.
+     */
+    CacheControl cacheControl(final HttpMethod method) {
+        return this.methodToCacheControl.get(method);
+    }
+
+    private final Map<HttpMethod, CacheControl> methodToCacheControl;
+
+    /**
+     * Sets or replaces the {@link HateosSingleFlight} that coalesces identical concurrent GET and HEAD requests.
+     */
+    HateosResourceMappingsMapping<I, V, C, H, X> setSingleFlight(final HateosSingleFlight singleFlight) {
+        Objects.requireNonNull(singleFlight, "singleFlight");
+
+        return singleFlight.equals(this.singleFlight) ?
+            this :
+            new HateosResourceMappingsMapping<>(
+                this.linkRelation,
+                this.methodToHandlers,
+                this.httpHandler,
+                this.methodToCacheControl,
+                singleFlight,
+                this.limiter
+            );
+    }
+
+    /**
+     * When not null identical concurrent GET and HEAD requests share a single {@link #handle} and its response.
+     */
+    final HateosSingleFlight singleFlight;
+
+    /**
+     * Sets or replaces the {@link HateosLimiter} that limits concurrent requests to this mapping.
+     */
+    HateosResourceMappingsMapping<I, V, C, H, X> setLimiter(final HateosLimiter limiter) {
+        Objects.requireNonNull(limiter, "limiter");
+
+        return limiter.equals(this.limiter) ?
+            this :
+            new HateosResourceMappingsMapping<>(
+                this.linkRelation,
+                this.methodToHandlers,
+                this.httpHandler,
+                this.methodToCacheControl,
+                this.singleFlight,
+                limiter
+            );
+    }
+
+    /**
+     * When not null a permit must be acquired before {@link #handle} is invoked.
+     */
+    final HateosLimiter limiter;
+
     private void httpHandlerCheck() {
         if (null != this.httpHandler) {
             throw new IllegalStateException("Clash with existing " + HttpHandler.class.getSimpleName());
@@ -161,8 +315,7 @@ final class HateosResourceMappingsMapping<I extends Comparable<I>, V, C, H exten
             );
         } else {
 
-            final HttpMethod method = httpRequest.method();
-            final HateosResourceMappingsMappingHandler<I, V, C, H, X> handler = this.methodToHandlers.get(method);
+            final HateosResourceMappingsMappingHandler<I, V, C, H, X> handler = this.handler(httpRequest.method());
             if (null != handler) {
                 handler.handle(
                     request,
@@ -183,8 +336,53 @@ final class HateosResourceMappingsMapping<I extends Comparable<I>, V, C, H exten
         }
     }
 
+    /**
+     * Finds the {@link HateosResourceMappingsMappingHandler} for the given {@link HttpMethod} using the arrays compiled
+     * by the constructor, rather than walking {@link #methodToHandlers}, returning null if none exists.
+     */
+    private HateosResourceMappingsMappingHandler<I, V, C, H, X> handler(final HttpMethod method) {
+        final HttpMethod[] methods = this.methods;
+
+        HateosResourceMappingsMappingHandler<I, V, C, H, X> handler = null;
+        if (null != methods) {
+            final int count = methods.length;
+            for (int i = 0; i < count; i++) {
+                final HttpMethod possible = methods[i];
+                if (possible == method || possible.equals(method)) {
+                    handler = Cast.to(this.handlers[i]);
+                    break;
+                }
+            }
+        }
+        return handler;
+    }
+
+    /**
+     * Adds any {@link HateosResourceHandlerCache} handlers not already present to the given {@link List}.
+     */
+    void caches(final List<HateosResourceHandlerCache<?, ?, ?, ?>> caches) {
+        final HateosResourceMappingsMappingHandler<?, ?, ?, ?, ?>[] handlers = this.handlers;
+        if (null != handlers) {
+            for (final HateosResourceMappingsMappingHandler<?, ?, ?, ?, ?> handler : handlers) {
+                final Object possible = handler.handler();
+                if (possible instanceof HateosResourceHandlerCache && false == caches.contains(possible)) {
+                    caches.add(
+                        Cast.to(possible)
+                    );
+                }
+            }
+        }
+    }
+
     private final Map<HttpMethod, HateosResourceMappingsMappingHandler<I, V, C, H, X>> methodToHandlers;
 
+    /**
+     * The keys of {@link #methodToHandlers} in the same order as {@link #handlers}.
+     */
+    private final HttpMethod[] methods;
+
+    private final HateosResourceMappingsMappingHandler<?, ?, ?, ?, ?>[] handlers;
+
     private final HttpHandler<X> httpHandler;
 
     List<HttpMethod> allowedMethods() {
@@ -202,7 +400,10 @@ final class HateosResourceMappingsMapping<I extends Comparable<I>, V, C, H exten
 
     @Override
     public int hashCode() {
-        return Objects.hash(this.methodToHandlers);
+        return Objects.hash(
+            this.methodToHandlers,
+            this.methodToCacheControl
+        );
     }
 
     @Override
@@ -219,7 +420,15 @@ final class HateosResourceMappingsMapping<I extends Comparable<I>, V, C, H exten
         ) && Objects.equals(
             this.httpHandler,
             other.httpHandler
-        );
+        ) && this.methodToCacheControl.equals(other.methodToCacheControl) &&
+            Objects.equals(
+                this.singleFlight,
+                other.singleFlight
+            ) &&
+            Objects.equals(
+                this.limiter,
+                other.limiter
+            );
     }
 
     @Override
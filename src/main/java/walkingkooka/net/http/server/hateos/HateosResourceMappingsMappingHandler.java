@@ -21,7 +21,7 @@ import walkingkooka.net.UrlPath;
 import walkingkooka.net.http.server.HttpHandler;
 
 /**
- * A simple wrapper to hold either a {@link HateosHttpEntityHandler} or {@link HateosResourceHandler}
+ * A simple wrapper to hold either a {@link HateosHttpEntityHandler}, {@link HateosResourceHandler} or {@link HateosResourceStreamHandler}
  */
 abstract class HateosResourceMappingsMappingHandler<I extends Comparable<I>, V, C, H extends HateosResource<I>, X extends HateosHandlerContext> {
 
@@ -40,6 +40,13 @@ abstract class HateosResourceMappingsMappingHandler<I extends Comparable<I>, V,
         return HateosResourceMappingsMappingHandlerHateosResourceHandler.with(handler);
     }
 
+    /**
+     * {@see HateosResourceMappingsMappingHandlerHateosResourceStreamHandler}
+     */
+    static <I extends Comparable<I>, V, C, H extends HateosResource<I>, X extends HateosHandlerContext> HateosResourceMappingsMappingHandlerHateosResourceStreamHandler<I, V, C, H, X> hateosResourceStreamHandler(final HateosResourceStreamHandler<I, V, X> handler) {
+        return HateosResourceMappingsMappingHandlerHateosResourceStreamHandler.with(handler);
+    }
+
     /**
      * {@see HateosResourceMappingsMappingHandlerHttpHandler}
      */
@@ -34,38 +34,72 @@ import java.util.Set;
 
 /**
  * A {@link Router} that dispatches to the given {@link HateosResourceMappings mappings}.
- * Note that any exceptions that are thrown, will have their stack trace in the response body with content-type=text/plain
+ * Note that the response body for any exceptions that are thrown, is created by the {@link HateosResourceMappingsErrorReporter}.
  */
 final class HateosResourceMappingsRouter<C extends HateosHandlerContext> implements Router<HttpRequestAttribute<?>, HttpHandler<C>> {
 
     static <C extends HateosHandlerContext> HateosResourceMappingsRouter<C> with(final UrlPath base,
-                                                                                 final Set<HateosResourceMappings<?, ?, ?, ?, C>> mappings) {
+                                                                                 final Set<HateosResourceMappings<?, ?, ?, ?, C>> mappings,
+                                                                                 final HateosResourceMappingsErrorReporter errorReporter) {
         Objects.requireNonNull(base, "base");
         Objects.requireNonNull(mappings, "mappings");
+        Objects.requireNonNull(errorReporter, "errorReporter");
 
         return new HateosResourceMappingsRouter<>(
             base,
-            mappings
+            mappings,
+            errorReporter
         );
     }
 
     private HateosResourceMappingsRouter(final UrlPath base,
-                                         final Set<HateosResourceMappings<?, ?, ?, ?, C>> mappings) {
+                                         final Set<HateosResourceMappings<?, ?, ?, ?, C>> mappings,
+                                         final HateosResourceMappingsErrorReporter errorReporter) {
         super();
         this.base = base.normalize();
-        Map<HateosResourceName, HateosResourceMappings<?, ?, ?, ?, C>> resourceNameToMapping = Maps.sorted();
+        this.errorReporter = errorReporter;
+        final Map<HateosResourceName, HateosResourceMappings<?, ?, ?, ?, C>> resourceNameToMapping = Maps.sorted();
+        final Map<String, HateosResourceMappingsRouterResource<C>> resourceNameToResource = Maps.hash();
 
         for (final HateosResourceMappings<?, ?, ?, ?, C> mappingsMappings : mappings) {
+            final HateosResourceName resourceName = mappingsMappings.resourceName;
+
             resourceNameToMapping.put(
-                mappingsMappings.resourceName,
+                resourceName,
                 mappingsMappings
             );
+            resourceNameToResource.put(
+                resourceName.value(),
+                HateosResourceMappingsRouterResource.with(
+                    this.base,
+                    mappingsMappings
+                )
+            );
         }
 
         this.resourceNameToMapping = resourceNameToMapping;
+        this.resourceNameToResource = resourceNameToResource;
+
+        this.httpHandler = Optional.of(
+            HateosResourceMappingsRouterHttpHandler.with(this)
+        );
+    }
+
+    /**
+     * Sorted by {@link HateosResourceName} and only used by {@link #toString()}.
+     */
+    private final Map<HateosResourceName, HateosResourceMappings<?, ?, ?, ?, C>> resourceNameToMapping;
+
+    /**
+     * The dispatch table compiled once from all {@link HateosResourceMappings}, used to resolve each request.
+     * The key is the raw text of the {@link HateosResourceName}, which is case sensitive, so a request path component
+     * may be resolved to the registered {@link HateosResourceName} without creating and validating a new instance.
+     */
+    HateosResourceMappingsRouterResource<C> resource(final String resourceName) {
+        return this.resourceNameToResource.get(resourceName);
     }
 
-    final Map<HateosResourceName, HateosResourceMappings<?, ?, ?, ?, C>> resourceNameToMapping;
+    private final Map<String, HateosResourceMappingsRouterResource<C>> resourceNameToResource;
 
     // Router...........................................................................................................
 
@@ -74,15 +108,16 @@ final class HateosResourceMappingsRouter<C extends HateosHandlerContext> impleme
         Objects.requireNonNull(parameters, "parameters");
 
         // a handler will be returned if the request path matches the #base path
-        return Optional.ofNullable(
-            -1 != this.consumeBasePath(parameters) ?
-                HateosResourceMappingsRouterHttpHandler.with(
-                    this
-                ) :
-                null
-        );
+        return -1 != this.consumeBasePath(parameters) ?
+            this.httpHandler :
+            Optional.empty();
     }
 
+    /**
+     * The stateless {@link HttpHandler} is shared by all routed requests, avoiding an allocation per {@link #route(Map)}.
+     */
+    private final Optional<HttpHandler<C>> httpHandler;
+
     /**
      * Attempts to consume the {@link #base} completely returning the index to the {@link HateosResourceName} component within the path or -1.
      */
@@ -100,6 +135,11 @@ final class HateosResourceMappingsRouter<C extends HateosHandlerContext> impleme
 
     private final UrlPath base;
 
+    /**
+     * Creates the response body for bad requests caused by an exception.
+     */
+    final HateosResourceMappingsErrorReporter errorReporter;
+
     // toString.........................................................................................................
 
     @Override
@@ -21,16 +21,24 @@ import walkingkooka.Binary;
 import walkingkooka.Cast;
 import walkingkooka.ToStringBuilder;
 import walkingkooka.ToStringBuilderOption;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
 import walkingkooka.net.UrlPath;
 import walkingkooka.net.UrlPathName;
 import walkingkooka.net.header.Accept;
 import walkingkooka.net.header.AcceptCharset;
+import walkingkooka.net.header.AcceptEncoding;
+import walkingkooka.net.header.CacheControl;
 import walkingkooka.net.header.CharsetName;
+import walkingkooka.net.header.ContentEncoding;
+import walkingkooka.net.header.ETag;
 import walkingkooka.net.header.HttpHeaderName;
 import walkingkooka.net.header.LinkRelation;
 import walkingkooka.net.header.MediaType;
+import walkingkooka.net.header.MediaTypeParameterName;
 import walkingkooka.net.header.NotAcceptableHeaderException;
 import walkingkooka.net.http.HttpEntity;
+import walkingkooka.net.http.HttpMethod;
 import walkingkooka.net.http.HttpStatus;
 import walkingkooka.net.http.HttpStatusCode;
 import walkingkooka.net.http.server.HttpRequest;
@@ -39,8 +47,13 @@ import walkingkooka.net.http.server.HttpRequestAttributes;
 import walkingkooka.net.http.server.HttpResponse;
 import walkingkooka.text.CharSequences;
 import walkingkooka.tree.json.JsonNode;
+import walkingkooka.tree.json.JsonObject;
+import walkingkooka.tree.json.JsonPropertyName;
 
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -71,7 +84,9 @@ final class HateosResourceMappingsRouterHttpHandlerRequest<X extends HateosHandl
         this.router = router;
         this.context = context;
 
-        this.parameters = this.request.routerParameters();
+        this.parameters = HateosResourceMappingsRouterHttpHandlerRequestParameters.with(
+            this.request.routerParameters()
+        );
     }
 
     /**
@@ -91,35 +106,38 @@ final class HateosResourceMappingsRouterHttpHandlerRequest<X extends HateosHandl
         }
     }
 
+    /**
+     * Resolves the resource name path component against the registered {@link HateosResourceName names}, only
+     * creating and validating a {@link HateosResourceName} when the name is unknown.
+     */
     private void extractResourceNameOrBadRequest(final int pathIndex) {
         final String resourceNameString = this.pathComponent(pathIndex, null);
 
         if (CharSequences.isNullOrEmpty(resourceNameString)) {
             this.badRequest("Missing resource name");
         } else {
-            HateosResourceName resourceName = null;
-            try {
-                resourceName = HateosResourceName.with(resourceNameString);
-            } catch (final RuntimeException invalid) {
-                // Invalid resource name "InvalidResourceHere"
-                this.badRequest("Invalid resource name " + CharSequences.quoteAndEscape(resourceNameString), invalid);
-            }
-            if (null != resourceName) {
-                this.handleResourceNameOrNotFound(resourceName, pathIndex + 1);
+            final HateosResourceMappingsRouterResource<X> resource = this.router.resource(resourceNameString);
+            if (null != resource) {
+                this.parseSelectionOrBadRequest(
+                    resource,
+                    pathIndex + 1
+                );
+            } else {
+                this.invalidResourceNameOrNotFound(resourceNameString);
             }
         }
     }
 
-    private void handleResourceNameOrNotFound(final HateosResourceName resourceName,
-                                              final int pathIndex) {
-        final HateosResourceMappings<?, ?, ?, ?, X> mappings = this.router.resourceNameToMapping.get(resourceName);
-        if (null == mappings) {
+    private void invalidResourceNameOrNotFound(final String resourceNameString) {
+        HateosResourceName resourceName = null;
+        try {
+            resourceName = HateosResourceName.with(resourceNameString);
+        } catch (final RuntimeException invalid) {
+            // Invalid resource name "InvalidResourceHere"
+            this.badRequest("Invalid resource name " + CharSequences.quoteAndEscape(resourceNameString), invalid);
+        }
+        if (null != resourceName) {
             this.notFound(resourceName);
-        } else {
-            this.parseSelectionOrBadRequest(
-                mappings,
-                pathIndex
-            );
         }
     }
 
@@ -130,47 +148,51 @@ final class HateosResourceMappingsRouterHttpHandlerRequest<X extends HateosHandl
     /**
      * Attempts to parse the selection which may be missing, id, range, list or all.
      */
-    private void parseSelectionOrBadRequest(final HateosResourceMappings<?, ?, ?, ?, X> mappings,
+    private void parseSelectionOrBadRequest(final HateosResourceMappingsRouterResource<X> resource,
                                             final int pathIndex) {
         final String selectionString = this.pathComponent(pathIndex, "");
 
-        HateosResourceSelection<?> selection;
+        HateosResourceSelectionParserResult<?> result;
         try {
-            selection = mappings.selection.apply(
+            result = resource.mappings.parseSelection(
                 null == selectionString ?
                     "" :
                     selectionString,
                 this.context
             );
         } catch (final RuntimeException invalid) {
-            selection = null;
+            result = null;
             this.badRequest(invalid.getMessage(), invalid);
         }
 
-        if (null != selection) {
-            this.dispatchHandlerOrBadRequest(
-                mappings,
-                selection,
-                pathIndex + 1
-            );
+        if (null != result) {
+            final HateosResourceSelection<?> selection = result.selection;
+            if (null != selection) {
+                this.dispatchHandlerOrBadRequest(
+                    resource,
+                    selection,
+                    pathIndex + 1
+                );
+            } else {
+                // invalid selection reported without an exception
+                this.badRequest(result.message);
+            }
         }
     }
 
     /**
      * Extracts the link relation or defaults to {@link LinkRelation#SELF}.
      */
-    private void dispatchHandlerOrBadRequest(final HateosResourceMappings<?, ?, ?, ?, X> mappings,
+    private void dispatchHandlerOrBadRequest(final HateosResourceMappingsRouterResource<X> resource,
                                              final HateosResourceSelection<?> selection,
                                              final int pathIndex) {
-        final UrlPathName pathNameOrLinkRelation = HttpRequestAttributes.pathComponent(pathIndex)
-            .parameterValue(this.parameters)
-            .orElse(null);
+        final UrlPathName pathNameOrLinkRelation = this.pathName(pathIndex);
 
         final UrlPathName pathNameOrLinkRelationNotNull = null == pathNameOrLinkRelation ?
             SELF :
             pathNameOrLinkRelation;
 
-        final HateosResourceMappingsMapping<?, ?, ?, ?, X> mapping = mappings.pathNameToMappings.get(pathNameOrLinkRelationNotNull);
+        final HateosResourceMappingsMapping<?, ?, ?, ?, X> mapping = resource.mapping(pathNameOrLinkRelationNotNull);
         if (null == mapping) {
             final String linkRelation = pathNameOrLinkRelationNotNull.value();
 
@@ -187,12 +209,306 @@ final class HateosResourceMappingsRouterHttpHandlerRequest<X extends HateosHandl
                     CharSequences.quoteAndEscape(linkRelation)
             );
         } else {
-            int stop = null != pathNameOrLinkRelation && pathNameOrLinkRelation.value().isEmpty() ?
-                pathIndex - 1 :
-                pathIndex;
+            this.limitAndHandle(
+                resource.mappings.limiter,
+                () -> this.limitAndHandle(
+                    mapping.limiter,
+                    () -> this.handle(
+                        mapping,
+                        resource,
+                        selection,
+                        pathNameOrLinkRelation,
+                        pathIndex
+                    )
+                )
+            );
+        }
+    }
+
+    /**
+     * Acquires a permit from the given {@link HateosLimiter} as soon as the request is routed, before the request body
+     * is read or the query parameters are parsed, and then runs the handle, responding with
+     * {@link HttpStatusCode#SERVICE_UNAVAILABLE} and a {@link HateosResourceMappings#RETRY_AFTER} if one is refused.
+     * A null {@link HateosLimiter} always runs the handle.
+     */
+    private void limitAndHandle(final HateosLimiter limiter,
+                                final Runnable handle) {
+        if (null == limiter) {
+            handle.run();
+        } else {
+            final HttpRequest request = this.request;
+
+            if (limiter.tryAcquire(request)) {
+                final long start = System.nanoTime();
+                try {
+                    handle.run();
+                } finally {
+                    limiter.release(
+                        request,
+                        System.nanoTime() - start,
+                        this.isSampled()
+                    );
+                }
+            } else {
+                this.serviceUnavailable(limiter);
+            }
+        }
+    }
+
+    /**
+     * Returns true if the latency of this request should be sampled by a {@link HateosLimiter}. Requests that never
+     * reached a handler, were answered by a {@link HateosResourceHandlerCache}, copied the response of a
+     * {@link HateosSingleFlight} leader, were bad requests or not modified are not sampled, as their latencies are
+     * close to zero. Handlers that failed, by throwing or with a server error, are sampled, as slow failures are a sign
+     * of overload.
+     */
+    private boolean isSampled() {
+        return this.handlerInvoked &&
+            false == this.parameters.cacheHit &&
+            this.response.status()
+                .map(s -> {
+                    final int code = s.value()
+                        .code();
+                    return HttpStatusCode.NOT_MODIFIED.code() != code && (code < 400 || code >= 500);
+                }).orElse(true); // handler threw
+    }
+
+    /**
+     * Set before a handler is invoked, but never for a {@link HateosSingleFlight} follower, which copies the response
+     * of its leader.
+     */
+    private boolean handlerInvoked;
+
+    private void serviceUnavailable(final HateosLimiter limiter) {
+        this.setStatus(
+            HttpStatusCode.SERVICE_UNAVAILABLE.status()
+        );
+        this.response.setEntity(
+            HttpEntity.EMPTY.addHeader(
+                HateosResourceMappings.RETRY_AFTER,
+                String.valueOf(
+                    limiter.retryAfter()
+                )
+            )
+        );
+    }
+
+    private void handle(final HateosResourceMappingsMapping<?, ?, ?, ?, X> mapping,
+                        final HateosResourceMappingsRouterResource<X> resource,
+                        final HateosResourceSelection<?> selection,
+                        final UrlPathName pathNameOrLinkRelation,
+                        final int pathIndex) {
+        int stop = null != pathNameOrLinkRelation && pathNameOrLinkRelation.value().isEmpty() ?
+            pathIndex - 1 :
+            pathIndex;
+
+        final UrlPath extraPath = this.extraPath(stop);
+
+        final HateosResourceMappingsLinks mappingLinks = resource.mappings.links;
+        final HateosResourceMappingsLinks links = this.linksOrBadRequest(mappingLinks);
+        if (null != links) {
+            // only resources of a RESOURCE mapping were given _links during marshalling
+            this.removeLinks = HateosResourceMappingsLinks.RESOURCE == mappingLinks &&
+                HateosResourceMappingsLinks.RESOURCE != links;
+            this.linkTemplate = HateosResourceMappingsLinks.TEMPLATE == links ?
+                resource.linkTemplate :
+                null;
+            this.cacheControl = mapping.cacheControl(
+                this.request.method()
+            );
+
+            this.handle(
+                mapping,
+                resource,
+                selection,
+                extraPath
+            );
+        }
+    }
+
+    private void handle(final HateosResourceMappingsMapping<?, ?, ?, ?, X> mapping,
+                        final HateosResourceMappingsRouterResource<X> resource,
+                        final HateosResourceSelection<?> selection,
+                        final UrlPath extraPath) {
+        try {
+            final HateosSingleFlight singleFlight = mapping.singleFlight;
+            if (null != singleFlight && isSingleFlight(this.request.method())) {
+                this.handleSingleFlight(
+                    singleFlight,
+                    mapping,
+                    resource,
+                    selection,
+                    extraPath
+                );
+            } else {
+                this.handlerInvoked = true;
+                mapping.handle(
+                    this,
+                    Cast.to(resource.mappings),
+                    selection,
+                    extraPath,
+                    this.context
+                );
+            }
+        } finally {
+            if (false == isSafe(this.request.method())) {
+                resource.invalidate(selection);
+            }
+        }
+    }
+
+    /**
+     * Only GET and HEAD requests are coalesced by a {@link HateosSingleFlight}.
+     */
+    private static boolean isSingleFlight(final HttpMethod method) {
+        return HttpMethod.GET.equals(method) ||
+            HttpMethod.HEAD.equals(method);
+    }
+
+    /**
+     * Executes the {@link HateosResourceMappingsMapping} with a {@link HateosSingleFlight} keyed by the
+     * {@link #singleFlightKey()}. Requests that join a leader copy its status and entity to their own response.
+     */
+    private void handleSingleFlight(final HateosSingleFlight singleFlight,
+                                    final HateosResourceMappingsMapping<?, ?, ?, ?, X> mapping,
+                                    final HateosResourceMappingsRouterResource<X> resource,
+                                    final HateosResourceSelection<?> selection,
+                                    final UrlPath extraPath) {
+        final HttpResponse response = this.response;
+        final HttpResponse leaderResponse = singleFlight.execute(
+            this.singleFlightKey(),
+            () -> {
+                this.handlerInvoked = true;
+                mapping.handle(
+                    this,
+                    Cast.to(resource.mappings),
+                    selection,
+                    extraPath,
+                    this.context
+                );
+                return response;
+            }
+        );
+
+        if (response != leaderResponse) {
+            response.setVersion(
+                this.request.protocolVersion()
+            );
+            leaderResponse.status()
+                .ifPresent(response::setStatus);
+            response.setEntity(
+                leaderResponse.entity()
+            );
+        }
+    }
 
-            UrlPath extraPath = UrlPath.EMPTY;
+    /**
+     * The key for a {@link HateosSingleFlight} holding the method, path, query parameters and only the
+     * {@link #SINGLE_FLIGHT_HEADERS}, so requests that differ only by incidental headers such as User-Agent are
+     * coalesced, while requests whose responses may differ are not.
+     */
+    private List<?> singleFlightKey() {
+        final HttpRequest request = this.request;
+        final Map<HttpHeaderName<?>, List<?>> requestHeaders = request.headers();
+
+        final Map<HttpHeaderName<?>, List<?>> headers = Maps.hash();
+        for (final HttpHeaderName<?> header : SINGLE_FLIGHT_HEADERS) {
+            final List<?> values = requestHeaders.get(header);
+            if (null != values) {
+                headers.put(
+                    header,
+                    values
+                );
+            }
+        }
 
+        return Lists.of(
+            request.method(),
+            request.url()
+                .path(),
+            request.parameters(),
+            headers
+        );
+    }
+
+    /**
+     * The request headers that may change the response and are therefore part of the {@link #singleFlightKey()}.
+     */
+    private final static List<HttpHeaderName<?>> SINGLE_FLIGHT_HEADERS = Lists.of(
+        HttpHeaderName.ACCEPT,
+        HttpHeaderName.ACCEPT_ENCODING,
+        HttpHeaderName.ACCEPT_CHARSET,
+        HttpHeaderName.IF_NONE_MATCH,
+        HttpHeaderName.AUTHORIZATION
+    );
+
+    /**
+     * Safe methods never modify resources and therefore never invalidate a {@link HateosResourceHandlerCache}.
+     */
+    private static boolean isSafe(final HttpMethod method) {
+        return HttpMethod.GET.equals(method) ||
+            HttpMethod.HEAD.equals(method) ||
+            HttpMethod.OPTIONS.equals(method) ||
+            HttpMethod.TRACE.equals(method);
+    }
+
+    /**
+     * Reduces the {@link HateosResourceMappingsLinks} of the {@link HateosResourceMappings} using any
+     * {@link HateosResourceMappingsLinks#PARAMETER} present in the request, reporting a bad request and returning
+     * null if the parameter is invalid.
+     */
+    private HateosResourceMappingsLinks linksOrBadRequest(final HateosResourceMappingsLinks links) {
+        HateosResourceMappingsLinks reduced = links;
+
+        for (final String value : this.request.parameterValues(HateosResourceMappingsLinks.PARAMETER)) {
+            try {
+                reduced = reduced.reduce(
+                    HateosResourceMappingsLinks.parse(value)
+                );
+            } catch (final IllegalArgumentException invalid) {
+                this.badRequest(
+                    invalid.getMessage(),
+                    invalid
+                );
+                reduced = null;
+                break;
+            }
+        }
+
+        return reduced;
+    }
+
+    /**
+     * When true the {@link HateosResourceMappingsLinks#PARAMETER} reduced the {@link HateosResourceMappingsLinks#RESOURCE}
+     * of the mapping, and the _links added to marshalled resources must be removed.
+     */
+    private boolean removeLinks;
+
+    /**
+     * When not null a Link-Template header with this value is added to the response.
+     */
+    private String linkTemplate;
+
+    /**
+     * When not null this {@link CacheControl} is added to successful responses.
+     */
+    private CacheControl cacheControl;
+
+    /**
+     * True when the response {@link MediaType} selected from the {@link HttpHeaderName#ACCEPT} could have been a
+     * {@link HateosContentCodec} or {@link HateosHandlerContext#HATEOS_NDJSON_CONTENT_TYPE}, so caches must also key
+     * responses by the {@link HttpHeaderName#ACCEPT}.
+     */
+    private boolean varyAccept;
+
+    /**
+     * Returns the remaining path after the given path index, only normalizing the request {@link UrlPath} when more
+     * path components are actually present.
+     */
+    private UrlPath extraPath(final int stop) {
+        UrlPath extraPath = UrlPath.EMPTY;
+
+        if (null != this.pathName(stop)) {
             int i = 0;
             final UrlPath path = this.request.url().path().normalize();
             for (final UrlPathName pathName : path) {
@@ -202,15 +518,9 @@ final class HateosResourceMappingsRouterHttpHandlerRequest<X extends HateosHandl
                 }
                 i++;
             }
-
-            mapping.handle(
-                this,
-                Cast.to(mappings),
-                selection,
-                extraPath,
-                this.context
-            );
         }
+
+        return extraPath;
     }
 
     private final static UrlPathName SELF = LinkRelation.SELF.toUrlPathName()
@@ -253,6 +563,107 @@ final class HateosResourceMappingsRouterHttpHandlerRequest<X extends HateosHandl
         );
     }
 
+    // HateosResourceStreamHandler......................................................................................
+
+    /**
+     * Dispatches to the {@link HateosResourceStreamHandler}, marshalling each value as it is returned by the
+     * {@link Iterator}, so only a single value and its {@link JsonNode} are reachable at any time. The request body is
+     * ignored. A {@link HateosResourceStreamHandler} only streams all, many or a range, so a selection of none or one
+     * is a bad request and the handler is never invoked.
+     */
+    void handleHateosResourceStreamHandler(final HateosResourceStreamHandler<?, ?, X> handler,
+                                           final HateosResourceMappings<?, ?, ?, ?, X> mappings,
+                                           final HateosResourceSelection<?> selection,
+                                           final UrlPath path,
+                                           final HateosHandlerContext context) {
+        final MediaType contentType = selection.isNone() || selection.isOne() ?
+            this.invalidStreamSelection(selection) :
+            this.contentTypeOrBadRequest(
+                selection,
+                false // codecs require the complete JsonNode
+            );
+        if (null != contentType) {
+            final Iterator<?> values = selection.handleHateosResourceStreamHandler(
+                Cast.to(handler),
+                this.parameters,
+                path,
+                context
+            );
+
+            this.setStatusAndBody(
+                selection,
+                contentType,
+                isNdjson(contentType) ?
+                    this.toNdjsonText(
+                        values,
+                        context
+                    ) :
+                    this.toJsonArrayText(
+                        values,
+                        context
+                    ),
+                selection.resourceType(mappings),
+                mappings,
+                null // eTag
+            );
+        }
+    }
+
+    /**
+     * Reports a bad request for a selection of none or one, returning null so no content type is selected.
+     */
+    private MediaType invalidStreamSelection(final HateosResourceSelection<?> selection) {
+        this.badRequest(
+            "Invalid selection " + CharSequences.quoteAndEscape(selection.toString()) + " for stream"
+        );
+        return null;
+    }
+
+    /**
+     * Marshals each value to text, joining them into a JSON array.
+     */
+    private String toJsonArrayText(final Iterator<?> values,
+                                   final HateosHandlerContext context) {
+        final StringBuilder b = new StringBuilder();
+        b.append('[');
+
+        String separator = "";
+        while (values.hasNext()) {
+            b.append(separator);
+            b.append(
+                this.toText(
+                    values.next(),
+                    context
+                )
+            );
+            separator = ",";
+        }
+
+        b.append(']');
+        return b.toString();
+    }
+
+    /**
+     * Marshals each value to a single line of JSON.
+     */
+    private String toNdjsonText(final Iterator<?> values,
+                                final HateosHandlerContext context) {
+        final StringBuilder b = new StringBuilder();
+
+        while (values.hasNext()) {
+            appendNdjsonLine(
+                this.marshall(
+                    values.next(),
+                    context
+                ),
+                context,
+                b
+            );
+        }
+
+        return b.toString();
+    }
+
     // HateosResourceHandler............................................................................................
 
     void handleHateosResourceHandler(final HateosResourceHandler<?, ?, ?, X> handler,
@@ -262,8 +673,11 @@ final class HateosResourceMappingsRouterHttpHandlerRequest<X extends HateosHandl
                                      final HateosHandlerContext context) {
         final Optional<?> resource = this.parseBodyOrBadRequest(mappings, selection);
         if (null != resource) {
-            final Accept accept = this.acceptCompatibleOrBadRequest();
-            if (null != accept) {
+            final MediaType contentType = this.contentTypeOrBadRequest(
+                selection,
+                true // codecs
+            );
+            if (null != contentType) {
                 final Optional<?> maybeResponseResource = selection.handleHateosResourceHandler(
                     Cast.to(handler),
                     resource,
@@ -271,22 +685,83 @@ final class HateosResourceMappingsRouterHttpHandlerRequest<X extends HateosHandl
                     path,
                     context
                 );
-                String responseText = null;
 
-                if (maybeResponseResource.isPresent()) {
-                    final Object responseResource = maybeResponseResource.get();
-                    responseText = this.toText(
-                        responseResource,
+                final Class<?> contentValueType = selection.resourceType(mappings);
+
+                // a version ETag is checked before marshalling
+                final ETag eTag = maybeResponseResource.isPresent() && this.isETag(mappings) ?
+                    HateosResourceMappingsETags.version(
+                        maybeResponseResource.get()
+                    ) :
+                    null;
+
+                if (null == eTag || false == this.setNotModifiedIfMatch(eTag, contentValueType)) {
+                    this.setStatusAndResource(
+                        selection,
+                        contentType,
+                        maybeResponseResource,
+                        contentValueType,
+                        mappings,
+                        eTag,
                         context
                     );
                 }
+            }
+        }
+    }
 
-                this.setStatusAndBody(
-                    selection,
-                    responseText,
-                    selection.resourceType(mappings)
-                );
+    /**
+     * Marshalls the response resource if present, encoding it with any {@link HateosContentCodec} for the content type,
+     * and sets the response.
+     */
+    private void setStatusAndResource(final HateosResourceSelection<?> selection,
+                                      final MediaType contentType,
+                                      final Optional<?> maybeResponseResource,
+                                      final Class<?> contentValueType,
+                                      final HateosResourceMappings<?, ?, ?, ?, X> mappings,
+                                      final ETag eTag,
+                                      final HateosHandlerContext context) {
+        final HateosContentCodec codec = this.codec(contentType);
+        if (null != codec) {
+            this.setStatusAndBinary(
+                selection,
+                contentType,
+                maybeResponseResource.isPresent() ?
+                    codec.encode(
+                        this.marshall(
+                            maybeResponseResource.get(),
+                            context
+                        )
+                    ) :
+                    null,
+                contentValueType,
+                mappings,
+                eTag
+            );
+        } else {
+            String responseText = null;
+
+            if (maybeResponseResource.isPresent()) {
+                final Object responseResource = maybeResponseResource.get();
+                responseText = isNdjson(contentType) ?
+                    this.toNdjsonText(
+                        responseResource,
+                        context
+                    ) :
+                    this.toText(
+                        responseResource,
+                        context
+                    );
             }
+
+            this.setStatusAndBody(
+                selection,
+                contentType,
+                responseText,
+                contentValueType,
+                mappings,
+                eTag
+            );
         }
     }
 
@@ -297,142 +772,450 @@ final class HateosResourceMappingsRouterHttpHandlerRequest<X extends HateosHandl
                                               final HateosResourceSelection<?> selection) {
         Optional<?> resource = null;
 
-        final String bodyText = this.resourceTextOrBadRequest();
-        if (null != bodyText) {
-            resource = this.resourceOrBadRequest(
-                bodyText,
-                mappings,
-                selection
-            );
+        // the body text is only reachable within #jsonOrBadRequest, and may be collected before unmarshalling
+        final Optional<JsonNode> json = this.jsonOrBadRequest();
+        if (null != json) {
+            resource = json.isPresent() ?
+                this.resourceOrBadRequest(
+                    json.get(),
+                    mappings,
+                    selection
+                ) :
+                Optional.empty();
         }
 
         return resource;
     }
 
     /**
-     * Reads and returns the body as text, with null signifying an error occurred and a bad request response.
+     * Verifies the body length and then reads and parses the body into a {@link JsonNode}. Bodies with a
+     * {@link HttpHeaderName#CONTENT_ENCODING} are decompressed first, while bodies with a {@link HttpHeaderName#CONTENT_TYPE}
+     * matching a {@link HateosContentCodec} are decoded from the body bytes without creating any text. An empty
+     * {@link Optional} is returned if the body is empty, with null signifying an error occurred and a bad request response.
      */
-    private String resourceTextOrBadRequest() {
-        final HttpRequest request = this.request;
+    private Optional<JsonNode> jsonOrBadRequest() {
+        Optional<JsonNode> json = null;
+
+        final long bodyLength = this.bodyLengthOrBadRequest();
+        if (0 == bodyLength) {
+            json = Optional.empty();
+        } else {
+            if (bodyLength > 0) {
+                final HateosContentCodec codec = this.requestCodec();
+                final ContentEncoding contentEncoding = this.contentEncodingOrNull();
+
+                if (null != contentEncoding) {
+                    final byte[] decoded = this.decodeBodyOrBadRequest(contentEncoding);
+                    if (null != decoded) {
+                        json = this.jsonOrBadRequest(
+                            decoded,
+                            codec
+                        );
+                    }
+                } else if (null != codec) {
+                    json = this.jsonOrBadRequest(
+                        this.request.body(),
+                        codec
+                    );
+                } else {
+                    final String bodyText = this.bodyTextOrBadRequest();
+                    if (null != bodyText) {
+                        try {
+                            json = Optional.of(
+                                JsonNode.parse(bodyText)
+                            );
+                        } catch (final RuntimeException cause) {
+                            this.invalidResource(cause);
+                        }
+                    }
+                }
+            }
+        }
+
+        return json;
+    }
+
+    /**
+     * Returns the request {@link HttpHeaderName#CONTENT_ENCODING}, or null if it is absent, empty or identity, which
+     * means the body is not encoded whatever {@link HateosHandlerContext#contentEncodings()} are configured.
+     */
+    private ContentEncoding contentEncodingOrNull() {
+        ContentEncoding contentEncoding = HttpHeaderName.CONTENT_ENCODING.header(this.request)
+            .orElse(null);
+
+        if (null != contentEncoding) {
+            final String text = contentEncoding.toHeaderText()
+                .trim();
+            if (text.isEmpty() || IDENTITY.equalsIgnoreCase(text)) {
+                contentEncoding = null;
+            }
+        }
+
+        return contentEncoding;
+    }
+
+    private final static String IDENTITY = "identity";
+
+    /**
+     * Decompresses the request body using the {@link HateosContentEncoding} matching the {@link ContentEncoding}, with
+     * null signifying the encoding is unsupported or the body invalid or too large.
+     */
+    private byte[] decodeBodyOrBadRequest(final ContentEncoding contentEncoding) {
+        byte[] decoded = null;
+
+        HateosContentEncoding hateosContentEncoding = null;
+        for (final HateosContentEncoding possible : this.context.contentEncodings()) {
+            if (contentEncoding.equals(possible.contentEncoding())) {
+                hateosContentEncoding = possible;
+                break;
+            }
+        }
+
+        if (null == hateosContentEncoding) {
+            // Unsupported Content-Encoding: br
+            this.setStatus(
+                HttpStatusCode.UNSUPPORTED_MEDIA_TYPE,
+                "Unsupported " + HttpHeaderName.CONTENT_ENCODING + ": " + contentEncoding
+            );
+        } else {
+            try {
+                decoded = hateosContentEncoding.decode(
+                    this.request.body(),
+                    this.context.contentEncodingMaxDecodedLength()
+                );
+            } catch (final RuntimeException cause) {
+                this.badRequest(
+                    "Invalid content: " +
+                        cause.getMessage(),
+                    cause
+                );
+            }
+        }
+
+        return decoded;
+    }
+
+    /**
+     * Parses the body bytes using the {@link HateosContentCodec} if present or as text in the request charset.
+     */
+    private Optional<JsonNode> jsonOrBadRequest(final byte[] body,
+                                                final HateosContentCodec codec) {
+        Optional<JsonNode> json = null;
 
-        String bodyText;
         try {
-            bodyText = request.bodyText();
+            json = Optional.of(
+                null != codec ?
+                    codec.decode(body) :
+                    JsonNode.parse(
+                        new String(
+                            body,
+                            this.requestCharset()
+                        )
+                    )
+            );
         } catch (final RuntimeException cause) {
-            this.badRequest(
-                "Invalid content: " +
-                    cause.getMessage(),
+            this.invalidResource(
+                null != codec ?
+                    codec.contentType() :
+                    this.context.contentType(),
                 cause
             );
-            bodyText = null;
         }
 
-        if (null != bodyText) {
-            final Long contentLength = HttpHeaderName.CONTENT_LENGTH.header(request).orElse(null);
-            if (bodyText.isEmpty()) {
-                if (null != contentLength && contentLength.longValue() != request.bodyLength()) {
-                    // Body absent with ContentLength: 123
-                    this.badRequest(
-                        "Body absent with " +
-                            HttpHeaderName.CONTENT_LENGTH +
-                            ": " +
-                            contentLength
-                    );
-                    bodyText = null;
-                } else {
-                    bodyText = "";
+        return json;
+    }
+
+    /**
+     * Returns the charset parameter of the request {@link HttpHeaderName#CONTENT_TYPE} defaulting to UTF-8.
+     */
+    private Charset requestCharset() {
+        final CharsetName charsetName = HttpHeaderName.CONTENT_TYPE.header(this.request)
+            .flatMap(MediaTypeParameterName.CHARSET::parameterValue)
+            .orElse(null);
+
+        return null != charsetName ?
+            charsetName.charset()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported charset " + charsetName)) :
+            StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Returns the {@link HateosContentCodec} matching the request {@link HttpHeaderName#CONTENT_TYPE} or null if the
+     * body should be read as JSON text.
+     */
+    private HateosContentCodec requestCodec() {
+        HateosContentCodec codec = null;
+
+        final List<HateosContentCodec> codecs = this.context.codecs();
+        if (false == codecs.isEmpty()) {
+            final MediaType contentType = HttpHeaderName.CONTENT_TYPE.header(this.request)
+                .orElse(null);
+            if (null != contentType) {
+                for (final HateosContentCodec possible : codecs) {
+                    if (possible.contentType().accept().test(contentType)) {
+                        codec = possible;
+                        break;
+                    }
                 }
+            }
+        }
 
+        return codec;
+    }
+
+    /**
+     * Verifies the {@link HttpHeaderName#CONTENT_LENGTH} against the body length, before the body is read as text, so
+     * invalid requests are rejected without decoding the body. A negative value signifies an error occurred and a
+     * bad request response.
+     */
+    private long bodyLengthOrBadRequest() {
+        final HttpRequest request = this.request;
+
+        final Long contentLength = HttpHeaderName.CONTENT_LENGTH.header(request).orElse(null);
+        final long bodyLength = request.bodyLength();
+
+        long length = bodyLength;
+
+        if (0 == bodyLength) {
+            if (null != contentLength && contentLength.longValue() != bodyLength) {
+                // Body absent with ContentLength: 123
+                this.badRequest(
+                    "Body absent with " +
+                        HttpHeaderName.CONTENT_LENGTH +
+                        ": " +
+                        contentLength
+                );
+                length = -1;
+            }
+        } else {
+            if (null == contentLength) {
+                this.setStatus(HttpStatusCode.LENGTH_REQUIRED.status());
+                length = -1;
             } else {
-                if (null == contentLength) {
-                    this.setStatus(HttpStatusCode.LENGTH_REQUIRED.status());
-                    bodyText = null;
-                } else {
-                    final long bodyLength = request.bodyLength();
-                    final long contentLengthLong = contentLength.longValue();
-                    if (bodyLength != contentLengthLong) {
-                        // ContentLength: 123 != body length 456 mismatch
-                        this.badRequest(
-                            HttpHeaderName.CONTENT_LENGTH +
-                                ": " +
-                                contentLengthLong +
-                                " != body length=" +
-                                bodyLength +
-                                " mismatch"
-                        );
-                        bodyText = null;
-                    }
+                final long contentLengthLong = contentLength.longValue();
+                if (bodyLength != contentLengthLong) {
+                    // ContentLength: 123 != body length 456 mismatch
+                    this.badRequest(
+                        HttpHeaderName.CONTENT_LENGTH +
+                            ": " +
+                            contentLengthLong +
+                            " != body length=" +
+                            bodyLength +
+                            " mismatch"
+                    );
+                    length = -1;
                 }
             }
         }
 
+        return length;
+    }
+
+    /**
+     * Reads and returns the body as text, with null signifying an error occurred and a bad request response.
+     */
+    private String bodyTextOrBadRequest() {
+        String bodyText;
+        try {
+            bodyText = this.request.bodyText();
+        } catch (final RuntimeException cause) {
+            this.badRequest(
+                "Invalid content: " +
+                    cause.getMessage(),
+                cause
+            );
+            bodyText = null;
+        }
+
         return bodyText;
     }
 
     /**
-     * Using the given request resource text (request body) read that into an {@link Optional optional} {@link HateosResource resource}.
+     * Using the given request {@link JsonNode} read that into an {@link Optional optional} {@link HateosResource resource}.
      */
-    private Optional<?> resourceOrBadRequest(final String requestText,
+    private Optional<?> resourceOrBadRequest(final JsonNode json,
                                              final HateosResourceMappings<?, ?, ?, ?, X> mappings,
                                              final HateosResourceSelection<?> selection) {
         Optional<?> resource;
 
-        if (requestText.isEmpty()) {
-            resource = Optional.empty();
-        } else {
-            final Class<?> type = selection.resourceType(mappings);
-            final HateosHandlerContext context = this.context;
-            try {
-                resource = Optional.of(
-                    context.unmarshall(
-                        JsonNode.parse(requestText),
-                        type
-                    )
-                );
-            } catch (final Exception cause) {
-                // Invalid bad/type: Message here...
-                this.badRequest(
-                    "Invalid " +
-                        context.contentType() +
-                        ": " +
-                        cause.getMessage(),
-                    cause
-                );
-                resource = null;
-            }
+        final Class<?> type = selection.resourceType(mappings);
+        try {
+            resource = Optional.of(
+                this.context.unmarshall(
+                    json,
+                    type
+                )
+            );
+        } catch (final Exception cause) {
+            this.invalidResource(cause);
+            resource = null;
         }
         return resource;
     }
 
-    private Accept acceptCompatibleOrBadRequest() {
+    private void invalidResource(final Exception cause) {
+        this.invalidResource(
+            this.context.contentType(),
+            cause
+        );
+    }
+
+    private void invalidResource(final MediaType contentType,
+                                 final Exception cause) {
+        // Invalid bad/type: Message here...
+        this.badRequest(
+            "Invalid " +
+                contentType +
+                ": " +
+                cause.getMessage(),
+            cause
+        );
+    }
+
+    /**
+     * Selects the response {@link MediaType} using the {@link HttpHeaderName#ACCEPT}. The {@link HateosHandlerContext#contentType()}
+     * is preferred, followed by any {@link HateosHandlerContext#codecs()} when requested, with
+     * {@link HateosHandlerContext#HATEOS_NDJSON_CONTENT_TYPE} only selected for collection selections when none of the
+     * former are accepted. Null is returned if a bad request was reported.
+     */
+    private MediaType contentTypeOrBadRequest(final HateosResourceSelection<?> selection,
+                                              final boolean codecs) {
         final HttpHeaderName<Accept> header = HttpHeaderName.ACCEPT;
 
-        Accept accept = header.header(this.request)
+        this.varyAccept = (codecs && false == this.context.codecs().isEmpty()) ||
+            false == (selection.isNone() || selection.isOne());
+
+        MediaType contentType = null;
+
+        final Accept accept = header.header(this.request)
             .orElse(null);
         if (null == accept) {
             this.badRequest("Missing " + HttpHeaderName.ACCEPT);
         } else {
-            final MediaType contentType = this.context.contentType();
-            if (false == accept.test(contentType)) {
+            final MediaType defaultContentType = this.context.contentType();
+
+            contentType = defaultContentType;
+            float contentTypeQuality = quality(
+                accept,
+                defaultContentType
+            );
+
+            if (codecs) {
+                for (final HateosContentCodec codec : this.context.codecs()) {
+                    final MediaType codecContentType = codec.contentType();
+                    final float codecQuality = quality(
+                        accept,
+                        codecContentType
+                    );
+                    if (codecQuality > contentTypeQuality) {
+                        contentType = codecContentType;
+                        contentTypeQuality = codecQuality;
+                    }
+                }
+            }
+
+            if (false == (selection.isNone() || selection.isOne())) {
+                final float ndjsonQuality = quality(
+                    accept,
+                    HateosHandlerContext.HATEOS_NDJSON_CONTENT_TYPE
+                );
+                if (ndjsonQuality > contentTypeQuality) {
+                    contentType = HateosHandlerContext.HATEOS_NDJSON_CONTENT_TYPE;
+                    contentTypeQuality = ndjsonQuality;
+                }
+            }
+
+            if (contentTypeQuality <= 0) {
+                contentType = null;
                 this.badRequest(
-                    accept.requireIncompatibleMessage(contentType)
+                    accept.requireIncompatibleMessage(defaultContentType)
                 );
-                accept = null;
             }
         }
 
-        return accept;
+        return contentType;
     }
 
     /**
-     * Fetches the path component at the path index or returns null.
+     * Returns the quality factor of the most specific media range in the {@link Accept} that matches the content type,
+     * or zero if none match. Ranges are matched by type and sub type, ignoring any other parameters.
+     */
+    private static float quality(final Accept accept,
+                                 final MediaType contentType) {
+        int specificity = -1;
+        float quality = 0;
+
+        for (final MediaType range : accept.value()) {
+            final int rangeSpecificity = specificity(
+                range,
+                contentType
+            );
+            if (rangeSpecificity > specificity) {
+                specificity = rangeSpecificity;
+                quality = range.qualityFactorOrDefault();
+            } else {
+                if (rangeSpecificity == specificity && -1 != rangeSpecificity) {
+                    quality = Math.max(
+                        quality,
+                        range.qualityFactorOrDefault()
+                    );
+                }
+            }
+        }
+
+        return quality;
+    }
+
+    /**
+     * Returns 2 if the range is the content type, 1 for a type/* range, 0 for a *&#47;* range and -1 if the range does
+     * not match.
+     */
+    private static int specificity(final MediaType range,
+                                   final MediaType contentType) {
+        final String type = range.type();
+        final String subType = range.subType();
+
+        final int specificity;
+        if (WILDCARD.equals(type)) {
+            specificity = 0;
+        } else {
+            if (type.equalsIgnoreCase(contentType.type())) {
+                specificity = WILDCARD.equals(subType) ?
+                    1 :
+                    subType.equalsIgnoreCase(contentType.subType()) ?
+                        2 :
+                        -1;
+            } else {
+                specificity = -1;
+            }
+        }
+
+        return specificity;
+    }
+
+    private final static String WILDCARD = "*";
+
+    /**
+     * Fetches the path component at the path index or returns the missing value.
      */
     private String pathComponent(final int pathIndex,
                                  final String missing) {
-        return HttpRequestAttributes.pathComponent(pathIndex)
-            .parameterValue(this.parameters)
-            .map(UrlPathName::value)
-            .orElse(missing);
+        final UrlPathName pathName = this.pathName(pathIndex);
+        return null != pathName ?
+            pathName.value() :
+            missing;
+    }
+
+    /**
+     * Fetches the {@link UrlPathName} at the path index or returns null, reading the parameters directly rather than
+     * creating an {@link Optional} for every path component.
+     */
+    private UrlPathName pathName(final int pathIndex) {
+        return Cast.to(
+            this.parameters.get(
+                HttpRequestAttributes.pathComponent(pathIndex)
+            )
+        );
     }
 
     /**
@@ -441,10 +1224,182 @@ final class HateosResourceMappingsRouterHttpHandlerRequest<X extends HateosHandl
     private String toText(final Object body,
                           final HateosHandlerContext context) {
         return context.toJsonText(
-            context.marshall(body)
+            this.marshall(
+                body,
+                context
+            )
         );
     }
 
+    /**
+     * Marshalls the given response, removing the _links of every resource, including those nested within other
+     * resources or collections, when {@link #removeLinks} is true.
+     */
+    private JsonNode marshall(final Object body,
+                              final HateosHandlerContext context) {
+        final JsonNode json = context.marshall(body);
+
+        return this.removeLinks ?
+            removeLinks(json) :
+            json;
+    }
+
+    /**
+     * Removes the _links added to resources from the given node and then from all its descendants, returning the
+     * original node when nothing was removed. The children are only copied once a descendant actually changed.
+     */
+    private static JsonNode removeLinks(final JsonNode json) {
+        JsonNode removed = json;
+
+        if (json.isObject()) {
+            final JsonObject object = json.objectOrFail();
+            final JsonNode links = object.get(HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMapping.LINKS)
+                .orElse(null);
+            if (null != links && isResourceLinks(links)) {
+                removed = object.remove(HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMapping.LINKS);
+            }
+        }
+
+        if (removed.isObject() || removed.isArray()) {
+            final List<JsonNode> children = removed.children();
+            final int count = children.size();
+            List<JsonNode> changed = null;
+
+            for (int i = 0; i < count; i++) {
+                final JsonNode child = children.get(i);
+                final JsonNode childWithoutLinks = removeLinks(child);
+
+                if (child != childWithoutLinks) {
+                    if (null == changed) {
+                        changed = Lists.array();
+                        changed.addAll(
+                            children.subList(0, i)
+                        );
+                    }
+                }
+                if (null != changed) {
+                    changed.add(childWithoutLinks);
+                }
+            }
+
+            if (null != changed) {
+                removed = removed.setChildren(changed);
+            }
+        }
+
+        return removed;
+    }
+
+    /**
+     * Tests if the given _links value was added to a {@link HateosResource}, which is always an array of marshalled
+     * links each with a href, so a user property with the same name is kept.
+     */
+    private static boolean isResourceLinks(final JsonNode links) {
+        boolean resource = links.isArray();
+
+        if (resource) {
+            for (final JsonNode link : links.children()) {
+                resource = link.isObject() &&
+                    link.objectOrFail()
+                        .get(HREF)
+                        .isPresent();
+                if (false == resource) {
+                    break;
+                }
+            }
+        }
+
+        return resource;
+    }
+
+    private final static JsonPropertyName HREF = JsonPropertyName.with("href");
+
+    /**
+     * Returns the {@link HateosContentCodec} for a response {@link MediaType} selected by {@link #contentTypeOrBadRequest(HateosResourceSelection, boolean)}
+     * or null if the response is text.
+     */
+    private HateosContentCodec codec(final MediaType contentType) {
+        HateosContentCodec codec = null;
+
+        for (final HateosContentCodec possible : this.context.codecs()) {
+            if (possible.contentType().equals(contentType)) {
+                codec = possible;
+                break;
+            }
+        }
+
+        return codec;
+    }
+
+    private static boolean isNdjson(final MediaType contentType) {
+        return HateosHandlerContext.HATEOS_NDJSON_CONTENT_TYPE.equals(contentType);
+    }
+
+    /**
+     * Marshals the given response, writing each element of a JSON array on its own line, or any other JSON as a
+     * single line.
+     */
+    private String toNdjsonText(final Object body,
+                                final HateosHandlerContext context) {
+        final StringBuilder b = new StringBuilder();
+
+        final JsonNode json = this.marshall(
+            body,
+            context
+        );
+        if (json.isArray()) {
+            for (final JsonNode element : json.children()) {
+                appendNdjsonLine(
+                    element,
+                    context,
+                    b
+                );
+            }
+        } else {
+            appendNdjsonLine(
+                json,
+                context,
+                b
+            );
+        }
+
+        return b.toString();
+    }
+
+    /**
+     * Appends the JSON as a single line followed by a new line. Line endings only appear between tokens, because they
+     * are always escaped within strings, so they and any following indentation may be safely dropped.
+     */
+    private static void appendNdjsonLine(final JsonNode json,
+                                         final HateosHandlerContext context,
+                                         final StringBuilder b) {
+        final String text = context.toJsonText(json);
+        final int length = text.length();
+
+        boolean lineStart = false;
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            switch (c) {
+                case '\r':
+                case '\n':
+                    lineStart = true;
+                    break;
+                case ' ':
+                case '\t':
+                    if (false == lineStart) {
+                        b.append(c);
+                    }
+                    break;
+                default:
+                    lineStart = false;
+                    b.append(c);
+                    break;
+            }
+        }
+
+        b.append('\n');
+    }
+
     // error reporting..................................................................................................
 
     void badRequest(final String message) {
@@ -468,55 +1423,262 @@ final class HateosResourceMappingsRouterHttpHandlerRequest<X extends HateosHandl
     }
 
     /**
-     * Reports a bad request with the body filled with the stack trace of the provided {@link Throwable}.
+     * Reports a bad request with the body created by the {@link HateosResourceMappingsErrorReporter}, which by default
+     * is the stack trace of the provided {@link Throwable}.
      */
     void badRequest(final String message,
                     final Throwable cause) {
         this.badRequest(message);
         this.response.setEntity(
-            HttpEntity.dumpStackTrace(cause)
+            this.router.errorReporter.badRequest(
+                message,
+                cause
+            )
         );
     }
 
     /**
-     * Sets the status and message to match the content.
+     * Sets the status and message to match the content. Content that is long enough or will be compressed is encoded
+     * into a binary body, so the text may be released before the response is written. When ETags are enabled and the
+     * given {@link ETag} is null, one is computed from the content.
      */
     void setStatusAndBody(final HateosResourceSelection<?> selection,
+                          final MediaType contentType,
                           final String content,
-                          final Class<?> contentValueType) {
+                          final Class<?> contentValueType,
+                          final HateosResourceMappings<?, ?, ?, ?, X> mappings,
+                          final ETag eTag) {
+        // a given ETag has already been tested against If-None-Match
+        final ETag responseETag = null == eTag && null != content && this.isETag(mappings) ?
+            HateosResourceMappingsETags.text(content) :
+            eTag;
+
+        if (eTag == responseETag || false == this.setNotModifiedIfMatch(responseETag, contentValueType)) {
+            HttpEntity entity = null;
+
+            if (null != content) {
+                final Charset charset = this.selectCharset();
+
+                final MediaType contentTypeWithCharset = contentType.setCharset(
+                    CharsetName.with(charset.name())
+                );
 
-        final HttpStatusCode statusCode;
+                final HateosContentEncoding contentEncoding = this.contentEncoding();
+
+                entity = null != contentEncoding || mappings.isResponseBodyEncoded(content) ?
+                    this.binaryEntity(
+                        contentTypeWithCharset,
+                        content.getBytes(charset),
+                        contentEncoding
+                    ) :
+                    HttpEntity.EMPTY.setContentType(contentTypeWithCharset)
+                        .setBodyText(content)
+                        .setContentLength();
+            }
 
-        final HttpEntity entity;
-        if (null != content) {
-            // CREATED if HateosResourceSuccess.none and OK for others
-            statusCode = selection.successStatusCode();
+            this.setStatusAndEntity(
+                selection,
+                entity,
+                contentValueType,
+                responseETag
+            );
+        }
+    }
 
-            final CharsetName charsetName = this.selectCharsetName();
-            final MediaType contentType = this.context.contentType();
+    /**
+     * Sets the status and the bytes encoded by a {@link HateosContentCodec}, which have no charset.
+     */
+    private void setStatusAndBinary(final HateosResourceSelection<?> selection,
+                                    final MediaType contentType,
+                                    final byte[] content,
+                                    final Class<?> contentValueType,
+                                    final HateosResourceMappings<?, ?, ?, ?, X> mappings,
+                                    final ETag eTag) {
+        // a given ETag has already been tested against If-None-Match
+        final ETag responseETag = null == eTag && null != content && this.isETag(mappings) ?
+            HateosResourceMappingsETags.binary(content) :
+            eTag;
+
+        if (eTag == responseETag || false == this.setNotModifiedIfMatch(responseETag, contentValueType)) {
+            this.setStatusAndEntity(
+                selection,
+                null != content ?
+                    this.binaryEntity(
+                        contentType,
+                        content,
+                        this.contentEncoding()
+                    ) :
+                    null,
+                contentValueType,
+                responseETag
+            );
+        }
+    }
 
-            entity = HttpEntity.EMPTY
-                .setContentType(contentType.setCharset(charsetName))
-                .setBodyText(content)
-                .setContentLength();
-        } else {
-            statusCode = HttpStatusCode.NO_CONTENT;
-            entity = HttpEntity.EMPTY;
+    /**
+     * ETags are only added to responses for GET and HEAD requests for {@link HateosResourceMappings} with ETags enabled.
+     */
+    private boolean isETag(final HateosResourceMappings<?, ?, ?, ?, X> mappings) {
+        final HttpMethod method = this.request.method();
+
+        return mappings.eTag &&
+            (HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method));
+    }
+
+    /**
+     * If the request {@link HttpHeaderName#IF_NONE_MATCH} matches the given {@link ETag}, sets a
+     * {@link HttpStatusCode#NOT_MODIFIED} response without a body and returns true.
+     */
+    private boolean setNotModifiedIfMatch(final ETag eTag,
+                                          final Class<?> contentValueType) {
+        final boolean match = HateosResourceMappingsETags.isMatch(
+            eTag,
+            HttpHeaderName.IF_NONE_MATCH.header(this.request)
+                .orElse(Lists.empty())
+        );
+
+        if (match) {
+            this.setStatus(
+                HttpStatusCode.NOT_MODIFIED.status()
+            );
+            this.response.setEntity(
+                this.addHeaders(
+                    HttpEntity.EMPTY.addHeader(
+                        HttpHeaderName.E_TAG,
+                        eTag
+                    ),
+                    contentValueType
+                )
+            );
+        }
+
+        return match;
+    }
+
+    /**
+     * Creates an {@link HttpEntity} with the given bytes, compressing them with the {@link HateosContentEncoding} if
+     * present and they are at least {@link HateosHandlerContext#contentEncodingMinimumLength()} long.
+     */
+    private HttpEntity binaryEntity(final MediaType contentType,
+                                    final byte[] content,
+                                    final HateosContentEncoding contentEncoding) {
+        HttpEntity entity = HttpEntity.EMPTY.setContentType(contentType);
+        byte[] body = content;
+
+        if (null != contentEncoding && content.length >= this.context.contentEncodingMinimumLength()) {
+            body = contentEncoding.encode(content);
+            entity = entity.addHeader(
+                HttpHeaderName.CONTENT_ENCODING,
+                contentEncoding.contentEncoding()
+            );
+        }
+
+        return entity.setBody(
+            Binary.with(body)
+        ).setContentLength();
+    }
+
+    /**
+     * Selects the first {@link HateosHandlerContext#contentEncodings()} accepted by the request
+     * {@link HttpHeaderName#ACCEPT_ENCODING}, returning null if the response should not be compressed.
+     */
+    private HateosContentEncoding contentEncoding() {
+        HateosContentEncoding contentEncoding = null;
+
+        final List<HateosContentEncoding> contentEncodings = this.context.contentEncodings();
+        if (false == contentEncodings.isEmpty()) {
+            final AcceptEncoding acceptEncoding = HttpHeaderName.ACCEPT_ENCODING.header(this.request)
+                .orElse(null);
+            if (null != acceptEncoding) {
+                for (final HateosContentEncoding possible : contentEncodings) {
+                    if (acceptEncoding.test(possible.contentEncoding())) {
+                        contentEncoding = possible;
+                        break;
+                    }
+                }
+            }
         }
 
+        return contentEncoding;
+    }
+
+    /**
+     * Sets the status to match the presence of the {@link HttpEntity} which may be null, adding the
+     * {@link HateosResourceMappings#X_CONTENT_TYPE_NAME} header and the {@link ETag} if present.
+     */
+    private void setStatusAndEntity(final HateosResourceSelection<?> selection,
+                                    final HttpEntity entity,
+                                    final Class<?> contentValueType,
+                                    final ETag eTag) {
+        final HttpStatusCode statusCode = null != entity ?
+            selection.successStatusCode() : // CREATED if HateosResourceSuccess.none and OK for others
+            HttpStatusCode.NO_CONTENT;
+
         this.setStatus(statusCode.status());
 
+        HttpEntity responseEntity = this.addHeaders(
+            null != entity ? entity : HttpEntity.EMPTY,
+            contentValueType
+        );
+
+        final String linkTemplate = this.linkTemplate;
+        if (null != linkTemplate && null != entity) {
+            responseEntity = responseEntity.addHeader(
+                HateosResourceMappings.LINK_TEMPLATE,
+                linkTemplate
+            );
+        }
+
+        if (null != eTag && null != entity) {
+            responseEntity = responseEntity.addHeader(
+                HttpHeaderName.E_TAG,
+                eTag
+            );
+        }
+
+        this.response.setEntity(responseEntity);
+    }
+
+    /**
+     * Adds the headers that are present in all successful responses including {@link HttpStatusCode#NOT_MODIFIED}.
+     */
+    private HttpEntity addHeaders(final HttpEntity entity,
+                                  final Class<?> contentValueType) {
         // This header is used to dispatch FetcherWatcher#onXXX.
         // Even NO_CONTENT responses require this header so the web app will be aware of successful DELETEs(which reply with NO_CONTENT).
-        this.response.setEntity(
-            entity.addHeader(
-                HateosResourceMappings.X_CONTENT_TYPE_NAME,
-                contentValueType.getSimpleName()
-            )
+        HttpEntity responseEntity = entity.addHeader(
+            HateosResourceMappings.X_CONTENT_TYPE_NAME,
+            contentValueType.getSimpleName()
         );
+
+        // caches must key responses by Accept when another content type could have been selected and by
+        // Accept-Encoding whenever they may be compressed
+        final List<HttpHeaderName<?>> vary = Lists.array();
+        if (this.varyAccept) {
+            vary.add(HttpHeaderName.ACCEPT);
+        }
+        if (false == this.context.contentEncodings().isEmpty()) {
+            vary.add(HttpHeaderName.ACCEPT_ENCODING);
+        }
+        if (false == vary.isEmpty()) {
+            responseEntity = responseEntity.addHeader(
+                HttpHeaderName.VARY,
+                vary
+            );
+        }
+
+        final CacheControl cacheControl = this.cacheControl;
+        if (null != cacheControl) {
+            responseEntity = responseEntity.addHeader(
+                HttpHeaderName.CACHE_CONTROL,
+                cacheControl
+            );
+        }
+
+        return responseEntity;
     }
 
-    private CharsetName selectCharsetName() {
+    private Charset selectCharset() {
         final AcceptCharset acceptCharset = HttpHeaderName.ACCEPT_CHARSET.header(this.request)
             .orElse(AcceptCharset.UTF_8);
         final Optional<Charset> charset = acceptCharset.charset();
@@ -524,7 +1686,7 @@ final class HateosResourceMappingsRouterHttpHandlerRequest<X extends HateosHandl
             // AcceptCharset Hello contains unsupported charset
             throw new NotAcceptableHeaderException("AcceptCharset " + acceptCharset + " contain unsupported charset");
         }
-        return CharsetName.with(charset.get().name());
+        return charset.get();
     }
 
     private void setStatus(final HttpStatusCode statusCode,
@@ -550,7 +1712,7 @@ final class HateosResourceMappingsRouterHttpHandlerRequest<X extends HateosHandl
     /**
      * Only setHateosResourceHandler when a valid request is dispatched.
      */
-    final Map<HttpRequestAttribute<?>, Object> parameters;
+    final HateosResourceMappingsRouterHttpHandlerRequestParameters parameters;
 
     @Override
     public String toString() {
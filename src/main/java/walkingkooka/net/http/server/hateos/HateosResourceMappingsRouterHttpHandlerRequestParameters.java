@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.net.http.server.HttpRequestAttribute;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A read only view of the router parameters of a single request, which is given to handlers and also carries state
+ * that handler decorators report back to the router, such as a {@link HateosResourceHandlerCache} answering from its
+ * cache. Decorators that pass the parameters unchanged to the handler they wrap therefore keep reporting.
+ */
+final class HateosResourceMappingsRouterHttpHandlerRequestParameters extends AbstractMap<HttpRequestAttribute<?>, Object> {
+
+    static HateosResourceMappingsRouterHttpHandlerRequestParameters with(final Map<HttpRequestAttribute<?>, Object> parameters) {
+        return new HateosResourceMappingsRouterHttpHandlerRequestParameters(parameters);
+    }
+
+    /**
+     * Records a cache hit if the given parameters belong to a request being handled by a router.
+     */
+    static void cacheHit(final Map<HttpRequestAttribute<?>, Object> parameters) {
+        if (parameters instanceof HateosResourceMappingsRouterHttpHandlerRequestParameters) {
+            ((HateosResourceMappingsRouterHttpHandlerRequestParameters) parameters).cacheHit = true;
+        }
+    }
+
+    private HateosResourceMappingsRouterHttpHandlerRequestParameters(final Map<HttpRequestAttribute<?>, Object> parameters) {
+        super();
+        this.parameters = parameters;
+    }
+
+    @Override
+    public Object get(final Object key) {
+        return this.parameters.get(key);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return this.parameters.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return this.parameters.size();
+    }
+
+    @Override
+    public Set<Entry<HttpRequestAttribute<?>, Object>> entrySet() {
+        return this.parameters.entrySet();
+    }
+
+    private final Map<HttpRequestAttribute<?>, Object> parameters;
+
+    /**
+     * Set when a {@link HateosResourceHandlerCache} answered the request without invoking its handler.
+     */
+    boolean cacheHit;
+}
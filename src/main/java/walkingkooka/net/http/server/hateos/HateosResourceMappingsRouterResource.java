@@ -0,0 +1,147 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.Cast;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.net.UrlPath;
+import walkingkooka.net.UrlPathName;
+import walkingkooka.net.header.LinkRelation;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single precompiled entry within the {@link HateosResourceMappingsRouter} dispatch table, holding the
+ * {@link HateosResourceMappings} for a {@link HateosResourceName} and a hashed lookup of its individual
+ * {@link HateosResourceMappingsMapping mappings}. The sorted maps within {@link HateosResourceMappings} are retained
+ * for printing, while requests are resolved using these hash lookups.
+ */
+final class HateosResourceMappingsRouterResource<X extends HateosHandlerContext> {
+
+    static <X extends HateosHandlerContext> HateosResourceMappingsRouterResource<X> with(final UrlPath base,
+                                                                                          final HateosResourceMappings<?, ?, ?, ?, X> mappings) {
+        final Map<UrlPathName, HateosResourceMappingsMapping<?, ?, ?, ?, X>> pathNameToMapping = Maps.hash();
+        pathNameToMapping.putAll(mappings.pathNameToMappings);
+
+        final List<HateosResourceHandlerCache<?, ?, ?, ?>> caches = Lists.array();
+        for (final HateosResourceMappingsMapping<?, ?, ?, ?, X> mapping : pathNameToMapping.values()) {
+            mapping.caches(caches);
+        }
+
+        return new HateosResourceMappingsRouterResource<>(
+            mappings,
+            pathNameToMapping,
+            linkTemplate(
+                base,
+                mappings
+            ),
+            caches.isEmpty() ?
+                Lists.empty() :
+                caches
+        );
+    }
+
+    /**
+     * Builds the Link-Template header text with a URI template for each {@link LinkRelation}, eg
+     * <pre>
+     * &lt;/api/resource/{id}&gt;; rel="self", &lt;/api/resource/{id}/contents&gt;; rel="contents"
+     * </pre>
+     */
+    private static String linkTemplate(final UrlPath base,
+                                       final HateosResourceMappings<?, ?, ?, ?, ?> mappings) {
+        final String resourcePath = base.append(mappings.resourceName.toUrlPathName())
+            .value();
+
+        final StringBuilder b = new StringBuilder();
+        String separator = "";
+
+        for (final HateosResourceMappingsMapping<?, ?, ?, ?, ?> mapping : mappings.pathNameToMappings.values()) {
+            final LinkRelation<?> relation = mapping.linkRelation;
+            if (null != relation) {
+                final UrlPathName relationPathName = relation.toUrlPathName()
+                    .orElse(UrlPathName.EMPTY);
+
+                b.append(separator)
+                    .append('<')
+                    .append(resourcePath)
+                    .append("/{id}");
+                if (false == relationPathName.isEmpty()) {
+                    b.append('/')
+                        .append(relationPathName.value());
+                }
+                b.append(">; rel=\"")
+                    .append(relation)
+                    .append('"');
+
+                separator = ", ";
+            }
+        }
+
+        return b.toString();
+    }
+
+    private HateosResourceMappingsRouterResource(final HateosResourceMappings<?, ?, ?, ?, X> mappings,
+                                                 final Map<UrlPathName, HateosResourceMappingsMapping<?, ?, ?, ?, X>> pathNameToMapping,
+                                                 final String linkTemplate,
+                                                 final List<HateosResourceHandlerCache<?, ?, ?, ?>> caches) {
+        super();
+        this.mappings = mappings;
+        this.pathNameToMapping = pathNameToMapping;
+        this.linkTemplate = linkTemplate;
+        this.caches = caches;
+    }
+
+    /**
+     * Returns the {@link HateosResourceMappingsMapping} for the given {@link UrlPathName} or null if none exists.
+     */
+    HateosResourceMappingsMapping<?, ?, ?, ?, X> mapping(final UrlPathName pathName) {
+        return this.pathNameToMapping.get(pathName);
+    }
+
+    final HateosResourceMappings<?, ?, ?, ?, X> mappings;
+
+    private final Map<UrlPathName, HateosResourceMappingsMapping<?, ?, ?, ?, X>> pathNameToMapping;
+
+    /**
+     * The Link-Template header value for responses with {@link HateosResourceMappingsLinks#TEMPLATE}.
+     */
+    final String linkTemplate;
+
+    /**
+     * Invalidates the given {@link HateosResourceSelection} within every {@link HateosResourceHandlerCache} registered
+     * with the {@link HateosResourceMappings}, and is called after any request that may modify resources.
+     */
+    void invalidate(final HateosResourceSelection<?> selection) {
+        for (final HateosResourceHandlerCache<?, ?, ?, ?> cache : this.caches) {
+            cache.invalidate(
+                Cast.to(selection)
+            );
+        }
+    }
+
+    private final List<HateosResourceHandlerCache<?, ?, ?, ?>> caches;
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.mappings.toString();
+    }
+}
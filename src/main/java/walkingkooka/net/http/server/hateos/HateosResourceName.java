@@ -109,5 +109,5 @@ public final class HateosResourceName implements Name, Comparable<HateosResource
         return CASE_SENSITIVITY;
     }
 
-    private final CaseSensitivity CASE_SENSITIVITY = CaseSensitivity.SENSITIVE;
+    private final static CaseSensitivity CASE_SENSITIVITY = CaseSensitivity.SENSITIVE;
 }
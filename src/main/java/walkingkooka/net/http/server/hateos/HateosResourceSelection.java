@@ -23,6 +23,7 @@ import walkingkooka.net.http.HttpEntity;
 import walkingkooka.net.http.HttpStatusCode;
 import walkingkooka.net.http.server.HttpRequestAttribute;
 
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -149,6 +150,11 @@ public abstract class HateosResourceSelection<I extends Comparable<I>> {
                                                      final UrlPath path,
                                                      final HateosHandlerContext context);
 
+    abstract Iterator<?> handleHateosResourceStreamHandler(final HateosResourceStreamHandler<I, ?, ?> handler,
+                                                           final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                           final UrlPath path,
+                                                           final HateosHandlerContext context);
+
     @Override
     abstract public String toString();
 }
@@ -22,6 +22,7 @@ import walkingkooka.net.UrlPath;
 import walkingkooka.net.http.HttpEntity;
 import walkingkooka.net.http.server.HttpRequestAttribute;
 
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
 
@@ -65,6 +66,18 @@ final class HateosResourceSelectionAll<I extends Comparable<I>> extends HateosRe
         );
     }
 
+    @Override
+    Iterator<?> handleHateosResourceStreamHandler(final HateosResourceStreamHandler<I, ?, ?> handler,
+                                                  final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                  final UrlPath path,
+                                                  final HateosHandlerContext context) {
+        return handler.handleAll(
+            parameters,
+            path,
+            Cast.to(context)
+        );
+    }
+
     @Override
     public String toString() {
         return ALL;
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.Cast;
+
+/**
+ * A bounded cache of selection text to {@link HateosResourceSelection}, shared by all requests for a single
+ * {@link HateosResourceMappings}. Invalid selection text is never cached.
+ * <br>
+ * Text is spread by its hash code over a number of {@link HateosResourceSelectionCacheStripe stripes}, each an ordered
+ * map guarded by its own lock that evicts its eldest entry in constant time, so concurrent requests rarely share a
+ * lock. Small caches have a single stripe and evict exactly, larger caches evict the eldest entry of a stripe, which
+ * approximates the {@link HateosResourceSelectionCacheEviction} across the whole cache. Text is parsed without holding
+ * a lock.
+ */
+final class HateosResourceSelectionCache<I extends Comparable<I>> {
+
+    /**
+     * The most stripes a cache is split into.
+     */
+    private final static int MAX_STRIPES = 16;
+
+    /**
+     * The smallest number of entries held by each stripe, caches smaller than twice this have a single stripe.
+     */
+    private final static int MIN_STRIPE_SIZE = 64;
+
+    static <I extends Comparable<I>> HateosResourceSelectionCache<I> with(final int maxSize,
+                                                                          final HateosResourceSelectionCacheEviction eviction) {
+        return new HateosResourceSelectionCache<>(
+            maxSize,
+            eviction
+        );
+    }
+
+    private HateosResourceSelectionCache(final int maxSize,
+                                         final HateosResourceSelectionCacheEviction eviction) {
+        super();
+        this.maxSize = maxSize;
+        this.eviction = eviction;
+
+        int stripeCount = 1;
+        while (stripeCount < MAX_STRIPES && maxSize / (stripeCount * 2) >= MIN_STRIPE_SIZE) {
+            stripeCount *= 2;
+        }
+
+        final HateosResourceSelectionCacheStripe<?>[] stripes = new HateosResourceSelectionCacheStripe<?>[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = HateosResourceSelectionCacheStripe.with(
+                maxSize / stripeCount,
+                eviction
+            );
+        }
+        this.stripes = stripes;
+    }
+
+    /**
+     * Returns the cached {@link HateosResourceSelection} for the given text, parsing and caching it if absent.
+     */
+    HateosResourceSelectionParserResult<I> get(final String text,
+                                               final HateosResourceSelectionParser<I, ?> parser) {
+        final HateosResourceSelectionCacheStripe<I> stripe = this.stripe(text);
+
+        HateosResourceSelectionParserResult<I> result = stripe.get(text);
+        if (null == result) {
+            if (parser instanceof HateosResourceSelectionParserBasic) {
+                final HateosResourceSelectionParserBasic<I> basic = Cast.to(parser);
+                result = basic.tryParse(text);
+            } else {
+                result = HateosResourceSelectionParserResult.selection(
+                    parser.parse(text)
+                );
+            }
+
+            if (null != result.selection) {
+                stripe.put(
+                    text,
+                    result
+                );
+            }
+        }
+
+        return result;
+    }
+
+    private HateosResourceSelectionCacheStripe<I> stripe(final String text) {
+        final HateosResourceSelectionCacheStripe<?>[] stripes = this.stripes;
+        final int hash = text.hashCode();
+
+        return Cast.to(
+            stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)]
+        );
+    }
+
+    long hits() {
+        long hits = 0;
+        for (final HateosResourceSelectionCacheStripe<?> stripe : this.stripes) {
+            hits += stripe.hits();
+        }
+        return hits;
+    }
+
+    long misses() {
+        long misses = 0;
+        for (final HateosResourceSelectionCacheStripe<?> stripe : this.stripes) {
+            misses += stripe.misses();
+        }
+        return misses;
+    }
+
+    private final int maxSize;
+
+    private final HateosResourceSelectionCacheEviction eviction;
+
+    /**
+     * The number of stripes is always a power of two, so a stripe is selected by masking the hash code.
+     */
+    private final HateosResourceSelectionCacheStripe<?>[] stripes;
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.maxSize + " " + this.eviction;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+/**
+ * Controls which cached {@link HateosResourceSelection} is removed when a selection cache is full.
+ */
+public enum HateosResourceSelectionCacheEviction {
+
+    /**
+     * The selection that has not been read for the longest time is removed.
+     */
+    LEAST_RECENTLY_USED,
+
+    /**
+     * The oldest selection is removed, reads do not change the order.
+     */
+    FIRST_IN_FIRST_OUT
+}
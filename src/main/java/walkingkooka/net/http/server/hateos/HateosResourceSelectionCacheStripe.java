@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One stripe of a {@link HateosResourceSelectionCache}, holding an access or insertion ordered {@link LinkedHashMap}
+ * which removes its eldest entry in constant time once it grows beyond its maximum size. All access is guarded by the
+ * stripe itself, along with its hit and miss counts.
+ */
+final class HateosResourceSelectionCacheStripe<I extends Comparable<I>> {
+
+    static <I extends Comparable<I>> HateosResourceSelectionCacheStripe<I> with(final int maxSize,
+                                                                                final HateosResourceSelectionCacheEviction eviction) {
+        return new HateosResourceSelectionCacheStripe<>(
+            maxSize,
+            eviction
+        );
+    }
+
+    private HateosResourceSelectionCacheStripe(final int maxSize,
+                                               final HateosResourceSelectionCacheEviction eviction) {
+        super();
+        this.textToResult = new LinkedHashMap<String, HateosResourceSelectionParserResult<I>>(
+            16,
+            0.75f,
+            HateosResourceSelectionCacheEviction.LEAST_RECENTLY_USED == eviction
+        ) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, HateosResourceSelectionParserResult<I>> eldest) {
+                return this.size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result or null, counting the hit or miss.
+     */
+    synchronized HateosResourceSelectionParserResult<I> get(final String text) {
+        final HateosResourceSelectionParserResult<I> result = this.textToResult.get(text);
+        if (null != result) {
+            this.hits++;
+        } else {
+            this.misses++;
+        }
+        return result;
+    }
+
+    synchronized void put(final String text,
+                          final HateosResourceSelectionParserResult<I> result) {
+        this.textToResult.put(
+            text,
+            result
+        );
+    }
+
+    synchronized long hits() {
+        return this.hits;
+    }
+
+    private long hits;
+
+    synchronized long misses() {
+        return this.misses;
+    }
+
+    private long misses;
+
+    private final Map<String, HateosResourceSelectionParserResult<I>> textToResult;
+
+    // Object...........................................................................................................
+
+    @Override
+    public synchronized String toString() {
+        return this.textToResult.toString();
+    }
+}
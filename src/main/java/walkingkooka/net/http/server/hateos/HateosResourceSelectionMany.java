@@ -22,6 +22,7 @@ import walkingkooka.net.UrlPath;
 import walkingkooka.net.http.HttpEntity;
 import walkingkooka.net.http.server.HttpRequestAttribute;
 
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -67,4 +68,17 @@ final class HateosResourceSelectionMany<I extends Comparable<I>> extends HateosR
             Cast.to(context)
         );
     }
+
+    @Override
+    Iterator<?> handleHateosResourceStreamHandler(final HateosResourceStreamHandler<I, ?, ?> handler,
+                                                  final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                  final UrlPath path,
+                                                  final HateosHandlerContext context) {
+        return handler.handleMany(
+            this.value(),
+            parameters,
+            path,
+            Cast.to(context)
+        );
+    }
 }
@@ -22,6 +22,7 @@ import walkingkooka.net.UrlPath;
 import walkingkooka.net.http.HttpEntity;
 import walkingkooka.net.http.server.HttpRequestAttribute;
 
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
 
@@ -65,6 +66,14 @@ final class HateosResourceSelectionNone<I extends Comparable<I>> extends HateosR
         );
     }
 
+    @Override
+    Iterator<?> handleHateosResourceStreamHandler(final HateosResourceStreamHandler<I, ?, ?> handler,
+                                                  final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                  final UrlPath path,
+                                                  final HateosHandlerContext context) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public String toString() {
         return NONE;
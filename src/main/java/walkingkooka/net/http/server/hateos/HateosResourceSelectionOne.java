@@ -22,6 +22,7 @@ import walkingkooka.net.UrlPath;
 import walkingkooka.net.http.HttpEntity;
 import walkingkooka.net.http.server.HttpRequestAttribute;
 
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -66,4 +67,12 @@ final class HateosResourceSelectionOne<I extends Comparable<I>> extends HateosRe
             Cast.to(context)
         );
     }
+
+    @Override
+    Iterator<?> handleHateosResourceStreamHandler(final HateosResourceStreamHandler<I, ?, ?> handler,
+                                                  final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                  final UrlPath path,
+                                                  final HateosHandlerContext context) {
+        throw new UnsupportedOperationException();
+    }
 }
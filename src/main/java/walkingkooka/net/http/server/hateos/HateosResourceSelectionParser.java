@@ -0,0 +1,43 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import java.util.function.BiFunction;
+
+/**
+ * A selection parser that only requires the selection text from the url path, and ignores the {@link HateosHandlerContext}.
+ * Because the result depends only on the text, the {@link HateosResourceSelection} may be cached, see
+ * {@link HateosResourceMappings#setSelectionCache(int, HateosResourceSelectionCacheEviction)}.
+ */
+public interface HateosResourceSelectionParser<I extends Comparable<I>, X extends HateosHandlerContext> extends BiFunction<String, X, HateosResourceSelection<I>> {
+
+    /**
+     * Parses the selection text into a {@link HateosResourceSelection}, throwing an {@link IllegalArgumentException}
+     * if the text is invalid.
+     */
+    HateosResourceSelection<I> parse(final String text);
+
+    /**
+     * Ignores the {@link HateosHandlerContext} and calls {@link #parse(String)}.
+     */
+    @Override
+    default HateosResourceSelection<I> apply(final String text,
+                                             final X context) {
+        return this.parse(text);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.collect.Range;
+import walkingkooka.collect.set.SortedSets;
+import walkingkooka.text.CharSequences;
+
+import java.util.Set;
+
+/**
+ * Base class for the {@link HateosResourceSelectionParser} returned by {@link HateosResourceSelectionParsers}, which
+ * understand the following selection text, and report invalid text with a {@link HateosResourceSelectionParserResult}
+ * rather than throwing.
+ * <ul>
+ * <li>empty text - {@link HateosResourceSelection#none()}</li>
+ * <li>* - {@link HateosResourceSelection#all()}</li>
+ * <li>1,2,3 - {@link HateosResourceSelection#many(Set)}</li>
+ * <li>1-3 - {@link HateosResourceSelection#range(Range)}</li>
+ * <li>1 - {@link HateosResourceSelection#one(Comparable)}</li>
+ * </ul>
+ * Because of the above ids may not contain a comma or {@link HateosResource#HATEOS_LINK_RANGE_SEPARATOR}.
+ */
+abstract class HateosResourceSelectionParserBasic<I extends Comparable<I>> implements HateosResourceSelectionParser<I, HateosHandlerContext> {
+
+    private final static char MANY_SEPARATOR = ',';
+
+    HateosResourceSelectionParserBasic() {
+        super();
+    }
+
+    @Override
+    public final HateosResourceSelection<I> parse(final String text) {
+        final HateosResourceSelectionParserResult<I> result = this.tryParse(text);
+
+        final HateosResourceSelection<I> selection = result.selection;
+        if (null == selection) {
+            throw new IllegalArgumentException(result.message);
+        }
+        return selection;
+    }
+
+    /**
+     * Parses the text, returning a {@link HateosResourceSelectionParserResult} holding the selection or a message if the
+     * text is invalid.
+     */
+    final HateosResourceSelectionParserResult<I> tryParse(final String text) {
+        final HateosResourceSelectionParserResult<I> result;
+
+        final int length = text.length();
+        if (0 == length) {
+            result = HateosResourceSelectionParserResult.selection(
+                HateosResourceSelection.none()
+            );
+        } else {
+            if (1 == length && HateosResourceSelection.ALL.charAt(0) == text.charAt(0)) {
+                result = HateosResourceSelectionParserResult.selection(
+                    HateosResourceSelection.all()
+                );
+            } else {
+                final int many = text.indexOf(MANY_SEPARATOR);
+                if (-1 != many) {
+                    result = this.many(text);
+                } else {
+                    final int range = text.indexOf(HateosResource.HATEOS_LINK_RANGE_SEPARATOR);
+                    if (-1 != range) {
+                        result = this.range(
+                            text,
+                            range
+                        );
+                    } else {
+                        result = this.one(text);
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private HateosResourceSelectionParserResult<I> many(final String text) {
+        final Set<I> ids = SortedSets.tree();
+
+        final int length = text.length();
+        int start = 0;
+        boolean failed = false;
+
+        while (start <= length) {
+            int end = text.indexOf(MANY_SEPARATOR, start);
+            if (-1 == end) {
+                end = length;
+            }
+
+            final I id = start < end ?
+                this.parseId(text, start, end) :
+                null;
+            if (null == id) {
+                failed = true;
+                break;
+            }
+            ids.add(id);
+            start = end + 1;
+        }
+
+        return failed ?
+            invalid("list", text) :
+            HateosResourceSelectionParserResult.selection(
+                HateosResourceSelection.many(ids)
+            );
+    }
+
+    private HateosResourceSelectionParserResult<I> range(final String text,
+                                                         final int separator) {
+        final int length = text.length();
+
+        final I lower = 0 < separator ?
+            this.parseId(text, 0, separator) :
+            null;
+        final I upper = null != lower && separator + 1 < length && -1 == text.indexOf(HateosResource.HATEOS_LINK_RANGE_SEPARATOR, separator + 1) ?
+            this.parseId(text, separator + 1, length) :
+            null;
+
+        return null == upper || lower.compareTo(upper) > 0 ?
+            invalid("range", text) :
+            HateosResourceSelectionParserResult.selection(
+                HateosResourceSelection.range(
+                    Range.greaterThanEquals(lower)
+                        .and(
+                            Range.lessThanEquals(upper)
+                        )
+                )
+            );
+    }
+
+    private HateosResourceSelectionParserResult<I> one(final String text) {
+        final I id = this.parseId(text, 0, text.length());
+        return null == id ?
+            invalid("id", text) :
+            HateosResourceSelectionParserResult.selection(
+                HateosResourceSelection.one(id)
+            );
+    }
+
+    private static <I extends Comparable<I>> HateosResourceSelectionParserResult<I> invalid(final String label,
+                                                                                           final String text) {
+        // Invalid id "abc"
+        return HateosResourceSelectionParserResult.invalid(
+            "Invalid " + label + " " + CharSequences.quoteAndEscape(text)
+        );
+    }
+
+    /**
+     * Parses the characters between start and end which will never be empty into an id, returning null if they are invalid.
+     */
+    abstract I parseId(final String text,
+                       final int start,
+                       final int end);
+}
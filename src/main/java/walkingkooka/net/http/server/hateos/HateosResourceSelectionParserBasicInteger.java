@@ -0,0 +1,59 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+/**
+ * A {@link HateosResourceSelectionParserBasic} for non negative decimal {@link Integer} ids.
+ */
+final class HateosResourceSelectionParserBasicInteger extends HateosResourceSelectionParserBasic<Integer> {
+
+    /**
+     * Singleton
+     */
+    final static HateosResourceSelectionParserBasicInteger INSTANCE = new HateosResourceSelectionParserBasicInteger();
+
+    private HateosResourceSelectionParserBasicInteger() {
+        super();
+    }
+
+    @Override
+    Integer parseId(final String text,
+                    final int start,
+                    final int end) {
+        int value = 0;
+        boolean invalid = false;
+
+        for (int i = start; i < end; i++) {
+            final int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value > (Integer.MAX_VALUE - digit) / 10) {
+                invalid = true;
+                break;
+            }
+            value = value * 10 + digit;
+        }
+
+        return invalid ?
+            null :
+            Integer.valueOf(value);
+    }
+
+    @Override
+    public String toString() {
+        return Integer.class.getSimpleName();
+    }
+}
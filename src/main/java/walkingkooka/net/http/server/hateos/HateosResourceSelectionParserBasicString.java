@@ -0,0 +1,62 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+/**
+ * A {@link HateosResourceSelectionParserBasic} for {@link String} ids, where any non empty text without a comma or
+ * {@link HateosResource#HATEOS_LINK_RANGE_SEPARATOR} is a valid id.
+ */
+final class HateosResourceSelectionParserBasicString extends HateosResourceSelectionParserBasic<String> {
+
+    /**
+     * Singleton
+     */
+    final static HateosResourceSelectionParserBasicString INSTANCE = new HateosResourceSelectionParserBasicString();
+
+    private HateosResourceSelectionParserBasicString() {
+        super();
+    }
+
+    /**
+     * Ids within a list are only split at commas, so an id that contains a range separator is rejected, rather than
+     * silently becoming an id for a list like <code>a,b-c</code>.
+     */
+    @Override
+    String parseId(final String text,
+                   final int start,
+                   final int end) {
+        final int range = text.indexOf(
+            HateosResource.HATEOS_LINK_RANGE_SEPARATOR,
+            start
+        );
+
+        return -1 != range && range < end ?
+            null :
+            0 == start && text.length() == end ?
+                text :
+                text.substring(
+                    start,
+                    end
+                );
+    }
+
+    @Override
+    public String toString() {
+        return String.class.getSimpleName();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+/**
+ * The result of parsing selection text, holding either the {@link HateosResourceSelection} or a message describing
+ * why the text is invalid. This allows invalid selections to be reported without creating and throwing an exception.
+ */
+final class HateosResourceSelectionParserResult<I extends Comparable<I>> {
+
+    static <I extends Comparable<I>> HateosResourceSelectionParserResult<I> selection(final HateosResourceSelection<I> selection) {
+        return new HateosResourceSelectionParserResult<>(
+            selection,
+            null
+        );
+    }
+
+    static <I extends Comparable<I>> HateosResourceSelectionParserResult<I> invalid(final String message) {
+        return new HateosResourceSelectionParserResult<>(
+            null,
+            message
+        );
+    }
+
+    private HateosResourceSelectionParserResult(final HateosResourceSelection<I> selection,
+                                                final String message) {
+        super();
+        this.selection = selection;
+        this.message = message;
+    }
+
+    /**
+     * The parsed selection or null if the text was invalid.
+     */
+    final HateosResourceSelection<I> selection;
+
+    /**
+     * The message when the text was invalid, or null if a {@link #selection} is present.
+     */
+    final String message;
+
+    @Override
+    public String toString() {
+        return null != this.selection ?
+            this.selection.toString() :
+            this.message;
+    }
+}
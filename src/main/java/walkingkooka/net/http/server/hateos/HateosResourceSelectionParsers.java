@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.Cast;
+import walkingkooka.reflect.PublicStaticHelper;
+
+/**
+ * A collection of {@link HateosResourceSelectionParser} for common id types, which may be passed to
+ * {@link HateosResourceMappings#with}. Invalid selection text is reported as a bad request without an exception
+ * being created or thrown.
+ */
+public final class HateosResourceSelectionParsers implements PublicStaticHelper {
+
+    /**
+     * {@see HateosResourceSelectionParserBasicInteger}
+     */
+    public static <X extends HateosHandlerContext> HateosResourceSelectionParser<Integer, X> integers() {
+        return Cast.to(HateosResourceSelectionParserBasicInteger.INSTANCE);
+    }
+
+    /**
+     * {@see HateosResourceSelectionParserBasicLong}
+     */
+    public static <X extends HateosHandlerContext> HateosResourceSelectionParser<Long, X> longs() {
+        return Cast.to(HateosResourceSelectionParserBasicLong.INSTANCE);
+    }
+
+    /**
+     * {@see HateosResourceSelectionParserBasicString}
+     */
+    public static <X extends HateosHandlerContext> HateosResourceSelectionParser<String, X> strings() {
+        return Cast.to(HateosResourceSelectionParserBasicString.INSTANCE);
+    }
+
+    /**
+     * Stop creation
+     */
+    private HateosResourceSelectionParsers() {
+        throw new UnsupportedOperationException();
+    }
+}
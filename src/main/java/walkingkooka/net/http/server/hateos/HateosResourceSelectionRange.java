@@ -23,6 +23,7 @@ import walkingkooka.net.UrlPath;
 import walkingkooka.net.http.HttpEntity;
 import walkingkooka.net.http.server.HttpRequestAttribute;
 
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -67,4 +68,17 @@ final class HateosResourceSelectionRange<I extends Comparable<I>> extends Hateos
             Cast.to(context)
         );
     }
+
+    @Override
+    Iterator<?> handleHateosResourceStreamHandler(final HateosResourceStreamHandler<I, ?, ?> handler,
+                                                  final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                  final UrlPath path,
+                                                  final HateosHandlerContext context) {
+        return handler.handleRange(
+            this.value(),
+            parameters,
+            path,
+            Cast.to(context)
+        );
+    }
 }
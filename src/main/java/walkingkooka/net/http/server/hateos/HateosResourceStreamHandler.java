@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.collect.Range;
+import walkingkooka.net.UrlPath;
+import walkingkooka.net.http.server.HttpRequestAttribute;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Handles a HATEOS request for a collection of resources, returning an {@link Iterator} which is consumed lazily,
+ * one value at a time, as the response body is written. This allows very large collections to be served without
+ * first loading every value into memory.
+ * <br>
+ * The response body is a JSON array holding each marshalled value, and the request body is ignored.
+ * {@link HateosResourceSelection#none()} and {@link HateosResourceSelection#one(Comparable)} are not supported
+ * and fail with {@link UnsupportedOperationException}.
+ */
+public interface HateosResourceStreamHandler<I extends Comparable<I>, V, X extends HateosHandlerContext> {
+
+    /**
+     * Handles a request for all resources
+     * <pre>
+     * /resource/*
+     * </pre>>
+     */
+    Iterator<V> handleAll(final Map<HttpRequestAttribute<?>, Object> parameters,
+                          final UrlPath path,
+                          final X context);
+
+    /**
+     * Handles a collection of resources identified by the given Ids
+     * <pre>
+     * /resource/1,20,300
+     * </pre>>
+     */
+    Iterator<V> handleMany(final Set<I> ids,
+                           final Map<HttpRequestAttribute<?>, Object> parameters,
+                           final UrlPath path,
+                           final X context);
+
+    /**
+     * Handles a collection of resources identified by the given Ids
+     * <pre>
+     * /resource/12-34
+     * </pre>>
+     */
+    Iterator<V> handleRange(final Range<I> range,
+                            final Map<HttpRequestAttribute<?>, Object> parameters,
+                            final UrlPath path,
+                            final X context);
+}
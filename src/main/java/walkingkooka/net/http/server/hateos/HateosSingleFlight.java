@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent requests so only the first, the leader, executes, while the others wait for and share
+ * its result. Single flights are enabled for a {@link walkingkooka.net.header.LinkRelation} with
+ * {@link HateosResourceMappings#setSingleFlight(walkingkooka.net.header.LinkRelation, HateosSingleFlight)} and only GET
+ * and HEAD requests are coalesced.
+ */
+public interface HateosSingleFlight {
+
+    /**
+     * Executes the {@link Supplier} unless another execution with an equal key is in progress, in which case its
+     * result is returned or its exception thrown once it completes.
+     */
+    <T> T execute(final Object key,
+                  final Supplier<T> supplier);
+
+    /**
+     * The number of executions that invoked their {@link Supplier}.
+     */
+    long leaders();
+
+    /**
+     * The number of executions that shared the result of a leader.
+     */
+    long coalesced();
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import walkingkooka.Cast;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A {@link HateosSingleFlight} that records each leader as a {@link CompletableFuture} which waiting executions join.
+ * The leader is removed once it completes, so later executions run again rather than reusing a stale result.
+ */
+final class HateosSingleFlightBasic implements HateosSingleFlight {
+
+    static HateosSingleFlightBasic empty() {
+        return new HateosSingleFlightBasic();
+    }
+
+    private HateosSingleFlightBasic() {
+        super();
+    }
+
+    @Override
+    public <T> T execute(final Object key,
+                         final Supplier<T> supplier) {
+        final CompletableFuture<Object> flight = new CompletableFuture<>();
+        final CompletableFuture<Object> leader = this.keyToFlight.putIfAbsent(
+            key,
+            flight
+        );
+
+        return null == leader ?
+            this.lead(
+                key,
+                flight,
+                supplier
+            ) :
+            this.join(leader);
+    }
+
+    private <T> T lead(final Object key,
+                       final CompletableFuture<Object> flight,
+                       final Supplier<T> supplier) {
+        this.leaders.incrementAndGet();
+
+        try {
+            final T result = supplier.get();
+            flight.complete(result);
+            return result;
+        } catch (final RuntimeException | Error cause) {
+            flight.completeExceptionally(cause);
+            throw cause;
+        } finally {
+            this.keyToFlight.remove(
+                key,
+                flight
+            );
+        }
+    }
+
+    private <T> T join(final CompletableFuture<Object> leader) {
+        this.coalesced.incrementAndGet();
+
+        try {
+            return Cast.to(leader.join());
+        } catch (final CompletionException cause) {
+            final Throwable leaderCause = cause.getCause();
+            if (leaderCause instanceof RuntimeException) {
+                throw (RuntimeException) leaderCause;
+            }
+            if (leaderCause instanceof Error) {
+                throw (Error) leaderCause;
+            }
+            throw cause;
+        }
+    }
+
+    private final Map<Object, CompletableFuture<Object>> keyToFlight = new ConcurrentHashMap<>();
+
+    @Override
+    public long leaders() {
+        return this.leaders.get();
+    }
+
+    private final AtomicLong leaders = new AtomicLong();
+
+    @Override
+    public long coalesced() {
+        return this.coalesced.get();
+    }
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * The number of leaders currently executing.
+     */
+    int inFlight() {
+        return this.keyToFlight.size();
+    }
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return "leaders: " + this.leaders + " coalesced: " + this.coalesced;
+    }
+}
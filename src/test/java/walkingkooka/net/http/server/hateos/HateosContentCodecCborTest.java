@@ -0,0 +1,299 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.net.header.MediaType;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.json.JsonNode;
+import walkingkooka.tree.json.JsonObject;
+import walkingkooka.tree.json.JsonPropertyName;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class HateosContentCodecCborTest implements ClassTesting2<HateosContentCodecCbor>,
+    ToStringTesting<HateosContentCodecCbor> {
+
+    @Test
+    public void testContentType() {
+        this.checkEquals(
+            MediaType.parse("application/cbor"),
+            HateosContentCodecCbor.INSTANCE.contentType()
+        );
+    }
+
+    // encode...........................................................................................................
+
+    @Test
+    public void testEncodeWithNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> HateosContentCodecCbor.INSTANCE.encode(null)
+        );
+    }
+
+    @Test
+    public void testEncodeObject() {
+        this.encodeAndCheck(
+            "{\"a\": 1}",
+            0xa1, 0x61, 'a', 0x01
+        );
+    }
+
+    @Test
+    public void testEncodeArray() {
+        this.encodeAndCheck(
+            "[1, -1, \"x\", true, false, null]",
+            0x86, 0x01, 0x20, 0x61, 'x', 0xf5, 0xf4, 0xf6
+        );
+    }
+
+    @Test
+    public void testEncodeIntegerTwoBytes() {
+        this.encodeAndCheck(
+            "500",
+            0x19, 0x01, 0xf4
+        );
+    }
+
+    @Test
+    public void testEncodeNegativeIntegerOneByte() {
+        this.encodeAndCheck(
+            "-100",
+            0x38, 0x63
+        );
+    }
+
+    @Test
+    public void testEncodeDouble() {
+        this.encodeAndCheck(
+            "1.5",
+            0xfb, 0x3f, 0xf8, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00
+        );
+    }
+
+    @Test
+    public void testEncodeUtf8String() {
+        this.encodeAndCheck(
+            "\"\u00fc\"",
+            0x62, 0xc3, 0xbc
+        );
+    }
+
+    private void encodeAndCheck(final String json,
+                                final int... expected) {
+        this.checkEquals(
+            Arrays.toString(bytes(expected)),
+            Arrays.toString(
+                HateosContentCodecCbor.INSTANCE.encode(
+                    JsonNode.parse(json)
+                )
+            ),
+            json
+        );
+    }
+
+    // decode...........................................................................................................
+
+    @Test
+    public void testDecodeWithNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> HateosContentCodecCbor.INSTANCE.decode(null)
+        );
+    }
+
+    @Test
+    public void testDecodeObject() {
+        this.decodeAndCheck(
+            "{\"a\": 1}",
+            0xa1, 0x61, 'a', 0x01
+        );
+    }
+
+    @Test
+    public void testDecodeFloat16() {
+        this.decodeAndCheck(
+            "-2.5",
+            0xf9, 0xc1, 0x00
+        );
+    }
+
+    @Test
+    public void testDecodeFloat32() {
+        this.decodeAndCheck(
+            "0.5",
+            0xfa, 0x3f, 0x00, 0x00, 0x00
+        );
+    }
+
+    @Test
+    public void testDecodeEmptyFails() {
+        this.decodeFails(
+            "Invalid CBOR, unexpected end at 0"
+        );
+    }
+
+    @Test
+    public void testDecodeTrailingByteFails() {
+        this.decodeFails(
+            "Invalid CBOR, unexpected byte at 1",
+            0x01, 0x01
+        );
+    }
+
+    @Test
+    public void testDecodeIndefiniteLengthFails() {
+        this.decodeFails(
+            "Invalid CBOR, indefinite length or reserved value at 0",
+            0x9f, 0xff
+        );
+    }
+
+    @Test
+    public void testDecodeByteStringFails() {
+        this.decodeFails(
+            "Invalid CBOR, unsupported initial byte 0x40 at 0",
+            0x40
+        );
+    }
+
+    @Test
+    public void testDecodeMapNonTextKeyFails() {
+        this.decodeFails(
+            "Invalid CBOR, map key must be a text string at 1",
+            0xa1, 0x01, 0x01
+        );
+    }
+
+    @Test
+    public void testDecodeLengthExceedsRemainingFails() {
+        this.decodeFails(
+            "Invalid CBOR, length 2 exceeds remaining bytes at 1",
+            0x62, 'a'
+        );
+    }
+
+    @Test
+    public void testDecodeLargeArrayLengthFails() {
+        this.decodeFails(
+            "Invalid CBOR, length 4294967295 exceeds remaining bytes at 5",
+            0x9a, 0xff, 0xff, 0xff, 0xff
+        );
+    }
+
+    @Test
+    public void testDecodeTooDeepFails() {
+        final int[] bytes = new int[600];
+        Arrays.fill(bytes, 0x81);
+
+        this.decodeFails(
+            "Invalid CBOR, nesting deeper than 512",
+            bytes
+        );
+    }
+
+    private void decodeAndCheck(final String json,
+                                final int... bytes) {
+        this.checkEquals(
+            JsonNode.parse(json),
+            HateosContentCodecCbor.INSTANCE.decode(bytes(bytes))
+        );
+    }
+
+    private void decodeFails(final String message,
+                             final int... bytes) {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> HateosContentCodecCbor.INSTANCE.decode(bytes(bytes))
+        );
+        this.checkEquals(
+            message,
+            thrown.getMessage()
+        );
+    }
+
+    // roundtrip........................................................................................................
+
+    @Test
+    public void testRoundtrip() {
+        final JsonNode json = JsonNode.parse(
+            "{\"id\": 123, \"name\": \"Hello\", \"values\": [1.25, -9007199254740993, {}, []], \"empty\": null, \"flag\": true}"
+        );
+
+        this.checkEquals(
+            json,
+            HateosContentCodecCbor.INSTANCE.decode(
+                HateosContentCodecCbor.INSTANCE.encode(json)
+            )
+        );
+    }
+
+    @Test
+    public void testRoundtripObjectManyProperties() {
+        JsonObject json = JsonNode.object();
+        for (int i = 0; i < 1000; i++) {
+            json = json.set(
+                JsonPropertyName.with("p" + i),
+                JsonNode.number(i)
+            );
+        }
+
+        this.checkEquals(
+            json,
+            HateosContentCodecCbor.INSTANCE.decode(
+                HateosContentCodecCbor.INSTANCE.encode(json)
+            )
+        );
+    }
+
+    private static byte[] bytes(final int... values) {
+        final byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            HateosContentCodecCbor.INSTANCE,
+            "application/cbor"
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<HateosContentCodecCbor> type() {
+        return HateosContentCodecCbor.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.net.header.ContentEncoding;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class HateosContentEncodingZipTest implements ClassTesting2<HateosContentEncodingZip>,
+    ToStringTesting<HateosContentEncodingZip> {
+
+    private final static String TEXT = "{\"id\": 1, \"name\": \"Hello\"}".repeat(100);
+
+    @Test
+    public void testEncodeWithNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> HateosContentEncodingZip.GZIP.encode(null)
+        );
+    }
+
+    @Test
+    public void testContentEncodingDeflate() {
+        this.checkEquals(
+            ContentEncoding.DEFLATE,
+            HateosContentEncodingZip.DEFLATE.contentEncoding()
+        );
+    }
+
+    @Test
+    public void testContentEncodingGzip() {
+        this.checkEquals(
+            ContentEncoding.GZIP,
+            HateosContentEncodingZip.GZIP.contentEncoding()
+        );
+    }
+
+    @Test
+    public void testEncodeGzip() throws IOException {
+        final byte[] encoded = HateosContentEncodingZip.GZIP.encode(
+            TEXT.getBytes(StandardCharsets.UTF_8)
+        );
+
+        this.checkEquals(
+            TEXT,
+            read(
+                new GZIPInputStream(
+                    new ByteArrayInputStream(encoded)
+                )
+            )
+        );
+        this.checkEquals(
+            true,
+            encoded.length < TEXT.length(),
+            () -> "compressed " + encoded.length
+        );
+    }
+
+    @Test
+    public void testEncodeGzipEmpty() throws IOException {
+        this.checkEquals(
+            "",
+            read(
+                new GZIPInputStream(
+                    new ByteArrayInputStream(
+                        HateosContentEncodingZip.GZIP.encode(new byte[0])
+                    )
+                )
+            )
+        );
+    }
+
+    @Test
+    public void testEncodeDeflate() throws IOException {
+        this.checkEquals(
+            TEXT,
+            read(
+                new InflaterInputStream(
+                    new ByteArrayInputStream(
+                        HateosContentEncodingZip.DEFLATE.encode(
+                            TEXT.getBytes(StandardCharsets.UTF_8)
+                        )
+                    )
+                )
+            )
+        );
+    }
+
+    @Test
+    public void testEncodeReusesDeflater() throws IOException {
+        final HateosContentEncodingZip encoding = HateosContentEncodingZip.with(
+            ContentEncoding.GZIP,
+            true,
+            1
+        );
+
+        for (int i = 0; i < 3; i++) {
+            final String text = TEXT + i;
+
+            this.checkEquals(
+                text,
+                read(
+                    new GZIPInputStream(
+                        new ByteArrayInputStream(
+                            encoding.encode(
+                                text.getBytes(StandardCharsets.UTF_8)
+                            )
+                        )
+                    )
+                )
+            );
+            this.checkEquals(
+                1,
+                encoding.idleCount(),
+                "idleCount"
+            );
+        }
+    }
+
+    // decode...........................................................................................................
+
+    @Test
+    public void testDecodeWithNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> HateosContentEncodingZip.GZIP.decode(
+                null,
+                1
+            )
+        );
+    }
+
+    @Test
+    public void testDecodeWithNegativeMaxLengthFails() {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> HateosContentEncodingZip.GZIP.decode(
+                new byte[0],
+                -1
+            )
+        );
+        this.checkEquals(
+            "Invalid maxLength -1 < 0",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testDecodeGzip() {
+        this.decodeAndCheck(HateosContentEncodingZip.GZIP);
+    }
+
+    @Test
+    public void testDecodeDeflate() {
+        this.decodeAndCheck(HateosContentEncodingZip.DEFLATE);
+    }
+
+    private void decodeAndCheck(final HateosContentEncodingZip encoding) {
+        final byte[] bytes = TEXT.getBytes(StandardCharsets.UTF_8);
+
+        this.checkEquals(
+            TEXT,
+            new String(
+                encoding.decode(
+                    encoding.encode(bytes),
+                    bytes.length
+                ),
+                StandardCharsets.UTF_8
+            )
+        );
+    }
+
+    @Test
+    public void testDecodeExceedsMaxLengthFails() {
+        final byte[] bytes = new byte[1024 * 1024];
+
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> HateosContentEncodingZip.GZIP.decode(
+                HateosContentEncodingZip.GZIP.encode(bytes),
+                bytes.length - 1
+            )
+        );
+        this.checkEquals(
+            "Decoded content exceeds 1048575 bytes",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testDecodeInvalidFails() {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> HateosContentEncodingZip.GZIP.decode(
+                TEXT.getBytes(StandardCharsets.UTF_8),
+                TEXT.length()
+            )
+        );
+        this.checkEquals(
+            "Invalid gzip: Not in GZIP format",
+            thrown.getMessage()
+        );
+    }
+
+    private static String read(final InputStream input) throws IOException {
+        try (final InputStream closing = input) {
+            return new String(
+                closing.readAllBytes(),
+                StandardCharsets.UTF_8
+            );
+        }
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            HateosContentEncodingZip.GZIP,
+            ContentEncoding.GZIP.toString()
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<HateosContentEncodingZip> type() {
+        return HateosContentEncodingZip.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.net.http.HttpMethod;
+import walkingkooka.net.http.server.FakeHttpRequest;
+import walkingkooka.net.http.server.HttpRequest;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class HateosLimiterAdaptiveTest implements ClassTesting2<HateosLimiterAdaptive>,
+    ToStringTesting<HateosLimiterAdaptive> {
+
+    private final static HttpRequest GET = request(HttpMethod.GET);
+
+    private final static HttpRequest POST = request(HttpMethod.POST);
+
+    private static HttpRequest request(final HttpMethod method) {
+        return new FakeHttpRequest() {
+            @Override
+            public HttpMethod method() {
+                return method;
+            }
+        };
+    }
+
+    private final static long RETRY_AFTER = 5;
+
+    // with.............................................................................................................
+
+    @Test
+    public void testWithInvalidMinLimitFails() {
+        this.withFails(
+            1,
+            0,
+            1,
+            RETRY_AFTER,
+            "Invalid minLimit 0 <= 0"
+        );
+    }
+
+    @Test
+    public void testWithInvalidMaxLimitFails() {
+        this.withFails(
+            2,
+            2,
+            1,
+            RETRY_AFTER,
+            "Invalid maxLimit 1 < 2"
+        );
+    }
+
+    @Test
+    public void testWithInvalidInitialLimitFails() {
+        this.withFails(
+            11,
+            1,
+            10,
+            RETRY_AFTER,
+            "Invalid initialLimit 11 not between 1 and 10"
+        );
+    }
+
+    @Test
+    public void testWithInvalidRetryAfterFails() {
+        this.withFails(
+            1,
+            1,
+            1,
+            -1,
+            "Invalid retryAfter -1 < 0"
+        );
+    }
+
+    private void withFails(final int initialLimit,
+                           final int minLimit,
+                           final int maxLimit,
+                           final long retryAfter,
+                           final String message) {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> HateosLimiterAdaptive.with(
+                initialLimit,
+                minLimit,
+                maxLimit,
+                retryAfter
+            )
+        );
+        this.checkEquals(
+            message,
+            thrown.getMessage()
+        );
+    }
+
+    // tryAcquire.......................................................................................................
+
+    @Test
+    public void testTryAcquireOverLimitRejected() {
+        final HateosLimiterAdaptive limiter = HateosLimiterAdaptive.with(
+            2,
+            1,
+            10,
+            RETRY_AFTER
+        );
+
+        this.checkEquals(true, limiter.tryAcquire(GET), "tryAcquire");
+        this.checkEquals(true, limiter.tryAcquire(GET), "tryAcquire");
+        this.checkEquals(false, limiter.tryAcquire(GET), "tryAcquire");
+
+        this.checkEquals(2, limiter.inFlight(), "inFlight");
+        this.checkEquals(1L, limiter.rejected(), "rejected");
+        this.checkEquals(0L, limiter.queueNanos(), "queueNanos");
+    }
+
+    @Test
+    public void testTryAcquireMethodsLimitedSeparately() {
+        final HateosLimiterAdaptive limiter = HateosLimiterAdaptive.with(
+            1,
+            1,
+            10,
+            RETRY_AFTER
+        );
+
+        this.checkEquals(true, limiter.tryAcquire(GET), "tryAcquire GET");
+        this.checkEquals(true, limiter.tryAcquire(POST), "tryAcquire POST");
+        this.checkEquals(false, limiter.tryAcquire(GET), "tryAcquire GET");
+
+        this.checkEquals(2, limiter.inFlight(), "inFlight");
+    }
+
+    // release..........................................................................................................
+
+    @Test
+    public void testReleaseSteadyLatencyGrowsLimit() {
+        final HateosLimiterAdaptive limiter = HateosLimiterAdaptive.with(
+            4,
+            1,
+            100,
+            RETRY_AFTER
+        );
+
+        for (int i = 0; i < 20; i++) {
+            acquireAndReleaseAll(limiter, 1000);
+        }
+
+        this.checkEquals(
+            true,
+            limiter.limit(HttpMethod.GET).limit > 4,
+            () -> "limit " + limiter.limit(HttpMethod.GET)
+        );
+        this.checkEquals(0, limiter.inFlight(), "inFlight");
+    }
+
+    @Test
+    public void testReleaseSteadyLatencyLimitedToMaxLimit() {
+        final HateosLimiterAdaptive limiter = HateosLimiterAdaptive.with(
+            4,
+            1,
+            8,
+            RETRY_AFTER
+        );
+
+        for (int i = 0; i < 100; i++) {
+            acquireAndReleaseAll(limiter, 1000);
+        }
+
+        this.checkEquals(
+            8,
+            limiter.limit(HttpMethod.GET).limit
+        );
+    }
+
+    @Test
+    public void testReleaseSteadyLatencyFewInFlightLimitUnchanged() {
+        final HateosLimiterAdaptive limiter = HateosLimiterAdaptive.with(
+            4,
+            1,
+            100,
+            RETRY_AFTER
+        );
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire(GET);
+            limiter.release(GET, 1000, true);
+        }
+
+        this.checkEquals(
+            4,
+            limiter.limit(HttpMethod.GET).limit
+        );
+    }
+
+    @Test
+    public void testReleaseRisingLatencyShrinksLimit() {
+        final HateosLimiterAdaptive limiter = HateosLimiterAdaptive.with(
+            20,
+            1,
+            100,
+            RETRY_AFTER
+        );
+
+        limiter.tryAcquire(GET);
+        limiter.release(GET, 1000, true);
+
+        for (int i = 0; i < 50; i++) {
+            acquireAndReleaseAll(limiter, 10 * 1000);
+        }
+
+        this.checkEquals(
+            true,
+            limiter.limit(HttpMethod.GET).limit < 20,
+            () -> "limit " + limiter.limit(HttpMethod.GET)
+        );
+    }
+
+    @Test
+    public void testReleaseSustainedOverloadLimitDoesNotGrow() {
+        final HateosLimiterAdaptive limiter = HateosLimiterAdaptive.with(
+            20,
+            1,
+            100,
+            RETRY_AFTER
+        );
+
+        limiter.tryAcquire(GET);
+        limiter.release(GET, 1000, true);
+
+        // more than 1000 slow samples, which must not become the new minimum latency
+        int samples = 0;
+        while (samples < 1500) {
+            samples += acquireAndReleaseAll(limiter, 10 * 1000);
+        }
+
+        this.checkEquals(
+            true,
+            limiter.limit(HttpMethod.GET).limit < 20,
+            () -> "limit " + limiter.limit(HttpMethod.GET)
+        );
+    }
+
+    /**
+     * Acquires every available permit and then releases them all with the given latency, returning the number of
+     * permits.
+     */
+    private static int acquireAndReleaseAll(final HateosLimiterAdaptive limiter,
+                                            final long nanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire(GET)) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(GET, nanos, true);
+        }
+        return acquired;
+    }
+
+    @Test
+    public void testReleaseNotSampled() {
+        final HateosLimiterAdaptive limiter = HateosLimiterAdaptive.with(
+            4,
+            1,
+            100,
+            RETRY_AFTER
+        );
+
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire(GET);
+            limiter.release(GET, 1000, false);
+        }
+
+        this.checkEquals(
+            4,
+            limiter.limit(HttpMethod.GET).limit
+        );
+        this.checkEquals(0, limiter.inFlight(), "inFlight");
+    }
+
+    @Test
+    public void testRetryAfter() {
+        this.checkEquals(
+            RETRY_AFTER,
+            HateosLimiterAdaptive.with(
+                1,
+                1,
+                1,
+                RETRY_AFTER
+            ).retryAfter()
+        );
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            HateosLimiterAdaptive.with(
+                2,
+                1,
+                10,
+                RETRY_AFTER
+            ),
+            "limit: 1..10 retryAfter: 5s {}"
+        );
+    }
+
+    // Class............................................................................................................
+
+    @Override
+    public Class<HateosLimiterAdaptive> type() {
+        return HateosLimiterAdaptive.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
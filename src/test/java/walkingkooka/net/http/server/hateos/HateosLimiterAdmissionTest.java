@@ -0,0 +1,466 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.net.header.HttpHeaderName;
+import walkingkooka.net.http.HttpMethod;
+import walkingkooka.net.http.server.FakeHttpRequest;
+import walkingkooka.net.http.server.HttpRequest;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class HateosLimiterAdmissionTest implements ClassTesting2<HateosLimiterAdmission>,
+    ToStringTesting<HateosLimiterAdmission> {
+
+    private final static Set<HttpMethod> SHEDDABLE = Sets.of(HttpMethod.GET);
+
+    private final static long MAX_QUEUE_TIME = 1000;
+
+    private final static long NOW = 1700000000000L; // 2023-11-14 in milliseconds
+
+    private final static LongSupplier CLOCK = () -> NOW;
+
+    private final static long RETRY_AFTER = 5;
+
+    // with.............................................................................................................
+
+    @Test
+    public void testWithInvalidMaxInFlightFails() {
+        this.withFails(
+            0,
+            0,
+            SHEDDABLE,
+            MAX_QUEUE_TIME,
+            CLOCK,
+            RETRY_AFTER,
+            IllegalArgumentException.class,
+            "Invalid maxInFlight 0 <= 0"
+        );
+    }
+
+    @Test
+    public void testWithInvalidSheddableInFlightFails() {
+        this.withFails(
+            1,
+            2,
+            SHEDDABLE,
+            MAX_QUEUE_TIME,
+            CLOCK,
+            RETRY_AFTER,
+            IllegalArgumentException.class,
+            "Invalid sheddableInFlight 2 not between 0 and 1"
+        );
+    }
+
+    @Test
+    public void testWithNullSheddableFails() {
+        this.withFails(
+            1,
+            1,
+            null,
+            MAX_QUEUE_TIME,
+            CLOCK,
+            RETRY_AFTER,
+            NullPointerException.class,
+            "sheddable"
+        );
+    }
+
+    @Test
+    public void testWithInvalidMaxQueueTimeFails() {
+        this.withFails(
+            1,
+            1,
+            SHEDDABLE,
+            0,
+            CLOCK,
+            RETRY_AFTER,
+            IllegalArgumentException.class,
+            "Invalid maxQueueTime 0 <= 0"
+        );
+    }
+
+    @Test
+    public void testWithNullNowFails() {
+        this.withFails(
+            1,
+            1,
+            SHEDDABLE,
+            MAX_QUEUE_TIME,
+            null,
+            RETRY_AFTER,
+            NullPointerException.class,
+            "now"
+        );
+    }
+
+    @Test
+    public void testWithInvalidRetryAfterFails() {
+        this.withFails(
+            1,
+            1,
+            SHEDDABLE,
+            MAX_QUEUE_TIME,
+            CLOCK,
+            -1,
+            IllegalArgumentException.class,
+            "Invalid retryAfter -1 < 0"
+        );
+    }
+
+    private void withFails(final int maxInFlight,
+                           final int sheddableInFlight,
+                           final Set<HttpMethod> sheddable,
+                           final long maxQueueTime,
+                           final LongSupplier now,
+                           final long retryAfter,
+                           final Class<? extends RuntimeException> thrownType,
+                           final String message) {
+        final RuntimeException thrown = assertThrows(
+            thrownType,
+            () -> HateosLimiterAdmission.with(
+                maxInFlight,
+                sheddableInFlight,
+                sheddable,
+                maxQueueTime,
+                now,
+                retryAfter
+            )
+        );
+        this.checkEquals(
+            message,
+            thrown.getMessage()
+        );
+    }
+
+    // tryAcquire.......................................................................................................
+
+    @Test
+    public void testTryAcquireMaxInFlight() {
+        final HateosLimiterAdmission admission = this.createAdmission();
+        final HttpRequest post = request(HttpMethod.POST);
+
+        this.checkEquals(true, admission.tryAcquire(post), "tryAcquire");
+        this.checkEquals(true, admission.tryAcquire(post), "tryAcquire");
+        this.checkEquals(false, admission.tryAcquire(post), "tryAcquire");
+
+        this.checkEquals(2, admission.inFlight(), "inFlight");
+        this.checkEquals(1L, admission.rejected(), "rejected");
+    }
+
+    @Test
+    public void testTryAcquireSheddableRejectedFirst() {
+        final HateosLimiterAdmission admission = this.createAdmission();
+        final HttpRequest get = request(HttpMethod.GET);
+        final HttpRequest post = request(HttpMethod.POST);
+
+        this.checkEquals(true, admission.tryAcquire(get), "tryAcquire GET");
+        this.checkEquals(false, admission.tryAcquire(get), "tryAcquire GET");
+        this.checkEquals(true, admission.tryAcquire(post), "tryAcquire POST");
+
+        this.checkEquals(2, admission.inFlight(), "inFlight");
+        this.checkEquals(1L, admission.rejected(), "rejected");
+    }
+
+    @Test
+    public void testTryAcquireAfterRelease() {
+        final HateosLimiterAdmission admission = this.createAdmission();
+        final HttpRequest get = request(HttpMethod.GET);
+
+        this.checkEquals(true, admission.tryAcquire(get), "tryAcquire");
+        admission.release(get, 1, true);
+        this.checkEquals(true, admission.tryAcquire(get), "tryAcquire");
+
+        this.checkEquals(1, admission.inFlight(), "inFlight");
+        this.checkEquals(0L, admission.rejected(), "rejected");
+    }
+
+    @Test
+    public void testTryAcquireQueueTime() {
+        final HateosLimiterAdmission admission = this.createAdmission();
+
+        this.checkEquals(
+            true,
+            admission.tryAcquire(
+                request(
+                    HttpMethod.POST,
+                    String.valueOf(NOW - MAX_QUEUE_TIME)
+                )
+            ),
+            "tryAcquire"
+        );
+        this.checkEquals(
+            MAX_QUEUE_TIME * 1000 * 1000,
+            admission.queueNanos(),
+            "queueNanos"
+        );
+    }
+
+    @Test
+    public void testTryAcquireQueueTimeWithPrefix() {
+        final HateosLimiterAdmission admission = this.createAdmission();
+
+        this.checkEquals(
+            true,
+            admission.tryAcquire(
+                request(
+                    HttpMethod.POST,
+                    "t=" + (NOW - 1)
+                )
+            ),
+            "tryAcquire"
+        );
+        this.checkEquals(
+            1000L * 1000,
+            admission.queueNanos(),
+            "queueNanos"
+        );
+    }
+
+    @Test
+    public void testTryAcquireQueueTimeTooLongRejected() {
+        final HateosLimiterAdmission admission = this.createAdmission();
+
+        this.checkEquals(
+            false,
+            admission.tryAcquire(
+                request(
+                    HttpMethod.POST,
+                    String.valueOf(NOW - MAX_QUEUE_TIME - 1)
+                )
+            ),
+            "tryAcquire"
+        );
+        this.checkEquals(0, admission.inFlight(), "inFlight");
+        this.checkEquals(1L, admission.rejected(), "rejected");
+        this.checkEquals(0L, admission.queueNanos(), "queueNanos");
+    }
+
+    @Test
+    public void testTryAcquireQueueTimeSecondsWithFraction() {
+        final HateosLimiterAdmission admission = this.createAdmission();
+
+        this.checkEquals(
+            true,
+            admission.tryAcquire(
+                request(
+                    HttpMethod.POST,
+                    "t=" + (NOW / 1000 - 1) + ".250"
+                )
+            ),
+            "tryAcquire"
+        );
+        this.checkEquals(
+            750L * 1000 * 1000,
+            admission.queueNanos(),
+            "queueNanos"
+        );
+    }
+
+    @Test
+    public void testTryAcquireQueueTimeMicroseconds() {
+        final HateosLimiterAdmission admission = this.createAdmission();
+
+        this.checkEquals(
+            true,
+            admission.tryAcquire(
+                request(
+                    HttpMethod.POST,
+                    "t=" + (NOW - 2) * 1000
+                )
+            ),
+            "tryAcquire"
+        );
+        this.checkEquals(
+            2L * 1000 * 1000,
+            admission.queueNanos(),
+            "queueNanos"
+        );
+    }
+
+    @Test
+    public void testTryAcquireInvalidRequestStartIgnored() {
+        final HateosLimiterAdmission admission = this.createAdmission();
+
+        this.checkEquals(
+            true,
+            admission.tryAcquire(
+                request(
+                    HttpMethod.POST,
+                    "invalid"
+                )
+            ),
+            "tryAcquire"
+        );
+        this.checkEquals(0L, admission.queueNanos(), "queueNanos");
+    }
+
+    // requestStart.....................................................................................................
+
+    @Test
+    public void testRequestStartMilliseconds() {
+        this.requestStartAndCheck(
+            "1700000000123",
+            1700000000123L
+        );
+    }
+
+    @Test
+    public void testRequestStartMillisecondsWithPrefix() {
+        this.requestStartAndCheck(
+            "t=1700000000123",
+            1700000000123L
+        );
+    }
+
+    @Test
+    public void testRequestStartSecondsWithFraction() {
+        this.requestStartAndCheck(
+            "t=1700000000.123",
+            1700000000123L
+        );
+    }
+
+    @Test
+    public void testRequestStartSecondsWithShortFraction() {
+        this.requestStartAndCheck(
+            "t=1700000000.5",
+            1700000000500L
+        );
+    }
+
+    @Test
+    public void testRequestStartSecondsWithLongFraction() {
+        this.requestStartAndCheck(
+            "t=1700000000.123456",
+            1700000000123L
+        );
+    }
+
+    @Test
+    public void testRequestStartMicroseconds() {
+        this.requestStartAndCheck(
+            "t=1700000000123456",
+            1700000000123L
+        );
+    }
+
+    @Test
+    public void testRequestStartInvalidFractionFails() {
+        assertThrows(
+            NumberFormatException.class,
+            () -> HateosLimiterAdmission.requestStart("t=1700000000.1x")
+        );
+    }
+
+    private void requestStartAndCheck(final String value,
+                                      final long expected) {
+        this.checkEquals(
+            expected,
+            HateosLimiterAdmission.requestStart(value),
+            () -> "requestStart " + value
+        );
+    }
+
+    @Test
+    public void testRetryAfter() {
+        this.checkEquals(
+            RETRY_AFTER,
+            this.createAdmission()
+                .retryAfter()
+        );
+    }
+
+    private HateosLimiterAdmission createAdmission() {
+        return HateosLimiterAdmission.with(
+            2,
+            1,
+            SHEDDABLE,
+            MAX_QUEUE_TIME,
+            CLOCK,
+            RETRY_AFTER
+        );
+    }
+
+    private static HttpRequest request(final HttpMethod method) {
+        return request(
+            method,
+            Maps.empty()
+        );
+    }
+
+    private static HttpRequest request(final HttpMethod method,
+                                       final String requestStart) {
+        return request(
+            method,
+            Maps.of(
+                HateosResourceMappings.X_REQUEST_START,
+                Lists.of(requestStart)
+            )
+        );
+    }
+
+    private static HttpRequest request(final HttpMethod method,
+                                       final Map<HttpHeaderName<?>, List<?>> headers) {
+        return new FakeHttpRequest() {
+            @Override
+            public HttpMethod method() {
+                return method;
+            }
+
+            @Override
+            public Map<HttpHeaderName<?>, List<?>> headers() {
+                return headers;
+            }
+        };
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            this.createAdmission(),
+            "maxInFlight: 2 sheddableInFlight: 1 [GET] maxQueueTime: 1000ms retryAfter: 5s"
+        );
+    }
+
+    // Class............................................................................................................
+
+    @Override
+    public Class<HateosLimiterAdmission> type() {
+        return HateosLimiterAdmission.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.net.http.server.FakeHttpRequest;
+import walkingkooka.net.http.server.HttpRequest;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class HateosLimiterBulkheadTest implements ClassTesting2<HateosLimiterBulkhead>,
+    ToStringTesting<HateosLimiterBulkhead> {
+
+    private final static HttpRequest REQUEST = new FakeHttpRequest();
+
+    private final static long RETRY_AFTER = 5;
+
+    // with.............................................................................................................
+
+    @Test
+    public void testWithInvalidMaxConcurrentFails() {
+        this.withFails(
+            0,
+            0,
+            0,
+            RETRY_AFTER,
+            "Invalid maxConcurrent 0 <= 0"
+        );
+    }
+
+    @Test
+    public void testWithInvalidMaxQueueFails() {
+        this.withFails(
+            1,
+            -1,
+            0,
+            RETRY_AFTER,
+            "Invalid maxQueue -1 < 0"
+        );
+    }
+
+    @Test
+    public void testWithInvalidMaxWaitFails() {
+        this.withFails(
+            1,
+            0,
+            -1,
+            RETRY_AFTER,
+            "Invalid maxWait -1 < 0"
+        );
+    }
+
+    @Test
+    public void testWithInvalidRetryAfterFails() {
+        this.withFails(
+            1,
+            0,
+            0,
+            -1,
+            "Invalid retryAfter -1 < 0"
+        );
+    }
+
+    private void withFails(final int maxConcurrent,
+                           final int maxQueue,
+                           final long maxWait,
+                           final long retryAfter,
+                           final String message) {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> HateosLimiterBulkhead.with(
+                maxConcurrent,
+                maxQueue,
+                maxWait,
+                retryAfter
+            )
+        );
+        this.checkEquals(
+            message,
+            thrown.getMessage()
+        );
+    }
+
+    // tryAcquire.......................................................................................................
+
+    @Test
+    public void testTryAcquireAndRelease() {
+        final HateosLimiterBulkhead bulkhead = HateosLimiterBulkhead.with(
+            2,
+            0,
+            0,
+            RETRY_AFTER
+        );
+
+        this.checkEquals(true, bulkhead.tryAcquire(REQUEST), "tryAcquire");
+        this.checkEquals(true, bulkhead.tryAcquire(REQUEST), "tryAcquire");
+        this.checkEquals(2, bulkhead.inFlight(), "inFlight");
+
+        bulkhead.release(REQUEST, 1, true);
+        bulkhead.release(REQUEST, 1, true);
+
+        this.checkEquals(0, bulkhead.inFlight(), "inFlight");
+        this.checkEquals(0L, bulkhead.rejected(), "rejected");
+    }
+
+    @Test
+    public void testTryAcquireSaturatedWithoutQueueRejected() {
+        final HateosLimiterBulkhead bulkhead = HateosLimiterBulkhead.with(
+            1,
+            0,
+            1000,
+            RETRY_AFTER
+        );
+
+        this.checkEquals(true, bulkhead.tryAcquire(REQUEST), "tryAcquire");
+        this.checkEquals(false, bulkhead.tryAcquire(REQUEST), "tryAcquire");
+
+        this.checkEquals(1, bulkhead.inFlight(), "inFlight");
+        this.checkEquals(1L, bulkhead.rejected(), "rejected");
+        this.checkEquals(0L, bulkhead.queueNanos(), "queueNanos");
+        this.checkEquals(0, bulkhead.waiting(), "waiting");
+    }
+
+    @Test
+    public void testTryAcquireSaturatedQueueTimeout() {
+        final HateosLimiterBulkhead bulkhead = HateosLimiterBulkhead.with(
+            1,
+            1,
+            1,
+            RETRY_AFTER
+        );
+
+        this.checkEquals(true, bulkhead.tryAcquire(REQUEST), "tryAcquire");
+        this.checkEquals(false, bulkhead.tryAcquire(REQUEST), "tryAcquire");
+
+        this.checkEquals(1L, bulkhead.rejected(), "rejected");
+        this.checkEquals(true, bulkhead.queueNanos() > 0, "queueNanos");
+        this.checkEquals(0, bulkhead.waiting(), "waiting");
+    }
+
+    @Test
+    public void testTryAcquireQueuedAcquiresReleasedPermit() throws Exception {
+        final HateosLimiterBulkhead bulkhead = HateosLimiterBulkhead.with(
+            1,
+            1,
+            60 * 1000,
+            RETRY_AFTER
+        );
+
+        this.checkEquals(true, bulkhead.tryAcquire(REQUEST), "tryAcquire");
+
+        final AtomicBoolean acquired = new AtomicBoolean();
+        final Thread waiter = new Thread(
+            () -> acquired.set(
+                bulkhead.tryAcquire(REQUEST)
+            )
+        );
+        waiter.start();
+
+        while (0 == bulkhead.waiting()) {
+            Thread.sleep(1);
+        }
+        bulkhead.release(REQUEST, 1, true);
+        waiter.join();
+
+        this.checkEquals(true, acquired.get(), "acquired");
+        this.checkEquals(1, bulkhead.inFlight(), "inFlight");
+        this.checkEquals(0L, bulkhead.rejected(), "rejected");
+        this.checkEquals(true, bulkhead.queueNanos() > 0, "queueNanos");
+    }
+
+    @Test
+    public void testRetryAfter() {
+        this.checkEquals(
+            RETRY_AFTER,
+            HateosLimiterBulkhead.with(
+                1,
+                0,
+                0,
+                RETRY_AFTER
+            ).retryAfter()
+        );
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            HateosLimiterBulkhead.with(
+                1,
+                2,
+                3,
+                4
+            ),
+            "maxConcurrent: 1 maxQueue: 2 maxWait: 3ms retryAfter: 4s"
+        );
+    }
+
+    // Class............................................................................................................
+
+    @Override
+    public Class<HateosLimiterBulkhead> type() {
+        return HateosLimiterBulkhead.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
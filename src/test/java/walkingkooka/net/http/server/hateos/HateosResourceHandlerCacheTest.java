@@ -0,0 +1,509 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.Range;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.net.UrlPath;
+import walkingkooka.net.http.server.HttpRequestAttribute;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class HateosResourceHandlerCacheTest implements ClassTesting2<HateosResourceHandlerCache<?, ?, ?, ?>>,
+    ToStringTesting<HateosResourceHandlerCache<?, ?, ?, ?>> {
+
+    private final static BigInteger ID1 = BigInteger.ONE;
+
+    private final static BigInteger ID2 = BigInteger.TWO;
+
+    private final static BigInteger ID3 = BigInteger.valueOf(3);
+
+    private final static Map<HttpRequestAttribute<?>, Object> PARAMETERS = HateosResourceHandler.NO_PARAMETERS;
+
+    private final static UrlPath PATH = UrlPath.EMPTY;
+
+    private final static FakeHateosHandlerContext CONTEXT = new FakeHateosHandlerContext();
+
+    private final static int MAX_SIZE = 2;
+
+    private final static long TIME_TO_LIVE = 1000;
+
+    private final static LongSupplier NOW = () -> 0;
+
+    // with.............................................................................................................
+
+    @Test
+    public void testWithNullHandlerFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> HateosResourceHandlerCache.with(
+                null,
+                MAX_SIZE,
+                TIME_TO_LIVE,
+                HateosResourceSelectionCacheEviction.LEAST_RECENTLY_USED,
+                NOW
+            )
+        );
+    }
+
+    @Test
+    public void testWithInvalidMaxSizeFails() {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> HateosResourceHandlerCache.with(
+                new TestHandler(),
+                0,
+                TIME_TO_LIVE,
+                HateosResourceSelectionCacheEviction.LEAST_RECENTLY_USED,
+                NOW
+            )
+        );
+        this.checkEquals(
+            "Invalid maxSize 0 <= 0",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testWithInvalidTimeToLiveFails() {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> HateosResourceHandlerCache.with(
+                new TestHandler(),
+                MAX_SIZE,
+                0,
+                HateosResourceSelectionCacheEviction.LEAST_RECENTLY_USED,
+                NOW
+            )
+        );
+        this.checkEquals(
+            "Invalid timeToLive 0 <= 0",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testWithNullEvictionFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> HateosResourceHandlerCache.with(
+                new TestHandler(),
+                MAX_SIZE,
+                TIME_TO_LIVE,
+                null,
+                NOW
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullNowFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> HateosResourceHandlerCache.with(
+                new TestHandler(),
+                MAX_SIZE,
+                TIME_TO_LIVE,
+                HateosResourceSelectionCacheEviction.LEAST_RECENTLY_USED,
+                null
+            )
+        );
+    }
+
+    // handle...........................................................................................................
+
+    @Test
+    public void testHandleOneHit() {
+        final TestHandler handler = new TestHandler();
+        final HateosResourceHandlerCache<BigInteger, String, String, FakeHateosHandlerContext> cache = this.createCache(handler);
+
+        this.handleOneAndCheck(cache, ID1, "one-1");
+        this.handleOneAndCheck(cache, ID1, "one-1");
+
+        this.checkEquals(1, handler.count, "handler count");
+        this.statsAndCheck(cache, 1, 1, 0);
+    }
+
+    @Test
+    public void testHandleOneWithResourceNotCached() {
+        final TestHandler handler = new TestHandler();
+        final HateosResourceHandlerCache<BigInteger, String, String, FakeHateosHandlerContext> cache = this.createCache(handler);
+
+        cache.handleOne(ID1, Optional.of("resource"), PARAMETERS, PATH, CONTEXT);
+        cache.handleOne(ID1, Optional.of("resource"), PARAMETERS, PATH, CONTEXT);
+
+        this.checkEquals(2, handler.count, "handler count");
+        this.statsAndCheck(cache, 0, 0, 0);
+    }
+
+    @Test
+    public void testHandleOneDifferentParametersMiss() {
+        final TestHandler handler = new TestHandler();
+        final HateosResourceHandlerCache<BigInteger, String, String, FakeHateosHandlerContext> cache = this.createCache(handler);
+
+        cache.handleOne(ID1, Optional.empty(), PARAMETERS, PATH, CONTEXT);
+        cache.handleOne(ID1, Optional.empty(), PARAMETERS, UrlPath.parse("/different"), CONTEXT);
+
+        this.checkEquals(2, handler.count, "handler count");
+        this.statsAndCheck(cache, 0, 2, 0);
+    }
+
+    @Test
+    public void testHandleOneExpired() {
+        final TestHandler handler = new TestHandler();
+        final long[] now = new long[1];
+
+        final HateosResourceHandlerCache<BigInteger, String, String, FakeHateosHandlerContext> cache = HateosResourceHandlerCache.with(
+            handler,
+            MAX_SIZE,
+            TIME_TO_LIVE,
+            HateosResourceSelectionCacheEviction.LEAST_RECENTLY_USED,
+            () -> now[0]
+        );
+
+        this.handleOneAndCheck(cache, ID1, "one-1");
+
+        now[0] = TIME_TO_LIVE - 1;
+        this.handleOneAndCheck(cache, ID1, "one-1");
+        this.checkEquals(1, handler.count, "handler count before expiry");
+
+        now[0] = TIME_TO_LIVE;
+        this.handleOneAndCheck(cache, ID1, "one-2");
+        this.checkEquals(2, handler.count, "handler count after expiry");
+    }
+
+    @Test
+    public void testHandleOneLeastRecentlyUsedEviction() {
+        final TestHandler handler = new TestHandler();
+        final HateosResourceHandlerCache<BigInteger, String, String, FakeHateosHandlerContext> cache = this.createCache(handler);
+
+        this.handleOneAndCheck(cache, ID1, "one-1");
+        this.handleOneAndCheck(cache, ID2, "one-2");
+        this.handleOneAndCheck(cache, ID1, "one-1"); // ID2 is now least recently used
+        this.handleOneAndCheck(cache, ID3, "one-3");
+
+        this.statsAndCheck(cache, 1, 3, 1);
+
+        this.handleOneAndCheck(cache, ID1, "one-1");
+        this.handleOneAndCheck(cache, ID2, "one-4");
+    }
+
+    @Test
+    public void testHandleOneFirstInFirstOutEviction() {
+        final TestHandler handler = new TestHandler();
+        final HateosResourceHandlerCache<BigInteger, String, String, FakeHateosHandlerContext> cache = HateosResourceHandlerCache.with(
+            handler,
+            MAX_SIZE,
+            TIME_TO_LIVE,
+            HateosResourceSelectionCacheEviction.FIRST_IN_FIRST_OUT,
+            NOW
+        );
+
+        this.handleOneAndCheck(cache, ID1, "one-1");
+        this.handleOneAndCheck(cache, ID2, "one-2");
+        this.handleOneAndCheck(cache, ID1, "one-1");
+        this.handleOneAndCheck(cache, ID3, "one-3"); // ID1 is the oldest
+
+        this.handleOneAndCheck(cache, ID1, "one-4");
+    }
+
+    @Test
+    public void testHandleOneLeastRecentlyUsedEvictionAllRead() {
+        final TestHandler handler = new TestHandler();
+        final HateosResourceHandlerCache<BigInteger, String, String, FakeHateosHandlerContext> cache = this.createCache(handler);
+
+        this.handleOneAndCheck(cache, ID1, "one-1");
+        this.handleOneAndCheck(cache, ID2, "one-2");
+        this.handleOneAndCheck(cache, ID2, "one-2");
+        this.handleOneAndCheck(cache, ID1, "one-1");
+        this.handleOneAndCheck(cache, ID3, "one-3"); // both were read, ID1 is the eldest after their second chance
+
+        this.statsAndCheck(cache, 2, 3, 1);
+        this.checkEquals(2, cache.size(), "size");
+
+        this.handleOneAndCheck(cache, ID2, "one-2");
+        this.handleOneAndCheck(cache, ID1, "one-4");
+    }
+
+    @Test
+    public void testHandleOneExpiredReplacedNotEvicted() {
+        final TestHandler handler = new TestHandler();
+        final long[] now = new long[1];
+
+        final HateosResourceHandlerCache<BigInteger, String, String, FakeHateosHandlerContext> cache = HateosResourceHandlerCache.with(
+            handler,
+            MAX_SIZE,
+            TIME_TO_LIVE,
+            HateosResourceSelectionCacheEviction.LEAST_RECENTLY_USED,
+            () -> now[0]
+        );
+
+        this.handleOneAndCheck(cache, ID1, "one-1");
+
+        now[0] = TIME_TO_LIVE;
+        this.handleOneAndCheck(cache, ID1, "one-2");
+        this.handleOneAndCheck(cache, ID2, "one-3");
+
+        this.statsAndCheck(cache, 0, 3, 0);
+        this.checkEquals(2, cache.size(), "size");
+
+        this.handleOneAndCheck(cache, ID1, "one-2");
+        this.handleOneAndCheck(cache, ID2, "one-3");
+    }
+
+    @Test
+    public void testHandleNoneNotCached() {
+        final TestHandler handler = new TestHandler();
+        final HateosResourceHandlerCache<BigInteger, String, String, FakeHateosHandlerContext> cache = this.createCache(handler);
+
+        cache.handleNone(Optional.empty(), PARAMETERS, PATH, CONTEXT);
+        cache.handleNone(Optional.empty(), PARAMETERS, PATH, CONTEXT);
+
+        this.checkEquals(2, handler.count, "handler count");
+    }
+
+    // invalidate.......................................................................................................
+
+    @Test
+    public void testInvalidateOne() {
+        final TestHandler handler = new TestHandler();
+        final HateosResourceHandlerCache<BigInteger, String, String, FakeHateosHandlerContext> cache = this.createCache(
+            handler,
+            10
+        );
+
+        cache.handleOne(ID1, Optional.empty(), PARAMETERS, PATH, CONTEXT);
+        cache.handleOne(ID2, Optional.empty(), PARAMETERS, PATH, CONTEXT);
+        cache.handleMany(Sets.of(ID1, ID3), Optional.empty(), PARAMETERS, PATH, CONTEXT);
+        cache.handleMany(Sets.of(ID2, ID3), Optional.empty(), PARAMETERS, PATH, CONTEXT);
+        cache.handleRange(Range.greaterThanEquals(ID1), Optional.empty(), PARAMETERS, PATH, CONTEXT);
+        cache.handleRange(Range.greaterThanEquals(ID2), Optional.empty(), PARAMETERS, PATH, CONTEXT);
+        cache.handleAll(Optional.empty(), PARAMETERS, PATH, CONTEXT);
+
+        this.checkEquals(7, cache.size(), "size");
+
+        cache.invalidate(
+            HateosResourceSelection.one(ID1)
+        );
+
+        this.checkEquals(3, cache.size(), "size after invalidate");
+
+        final int count = handler.count;
+        cache.handleOne(ID2, Optional.empty(), PARAMETERS, PATH, CONTEXT);
+        cache.handleMany(Sets.of(ID2, ID3), Optional.empty(), PARAMETERS, PATH, CONTEXT);
+        cache.handleRange(Range.greaterThanEquals(ID2), Optional.empty(), PARAMETERS, PATH, CONTEXT);
+
+        this.checkEquals(count, handler.count, "handler count");
+    }
+
+    @Test
+    public void testInvalidateNone() {
+        final HateosResourceHandlerCache<BigInteger, String, String, FakeHateosHandlerContext> cache = this.createCache(
+            new TestHandler()
+        );
+
+        cache.handleOne(ID1, Optional.empty(), PARAMETERS, PATH, CONTEXT);
+        cache.handleOne(ID2, Optional.empty(), PARAMETERS, PATH, CONTEXT);
+
+        cache.invalidate(
+            HateosResourceSelection.none()
+        );
+
+        this.checkEquals(0, cache.size(), "size");
+    }
+
+    @Test
+    public void testInvalidateWhileHandlingNotCached() {
+        final List<HateosResourceHandlerCache<BigInteger, String, String, FakeHateosHandlerContext>> caches = Lists.array();
+
+        final HateosResourceHandlerCache<BigInteger, String, String, FakeHateosHandlerContext> cache = this.createCache(
+            new TestHandler() {
+                @Override
+                public Optional<String> handleOne(final BigInteger id,
+                                                  final Optional<String> resource,
+                                                  final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                  final UrlPath path,
+                                                  final FakeHateosHandlerContext context) {
+                    final Optional<String> result = super.handleOne(
+                        id,
+                        resource,
+                        parameters,
+                        path,
+                        context
+                    );
+
+                    // a write to the same id completes while this read is loading
+                    if (1 == this.count) {
+                        caches.get(0)
+                            .invalidate(
+                                HateosResourceSelection.one(id)
+                            );
+                    }
+                    return result;
+                }
+            }
+        );
+        caches.add(cache);
+
+        this.handleOneAndCheck(cache, ID1, "one-1");
+        this.checkEquals(0, cache.size(), "size after invalidate while handling");
+
+        this.handleOneAndCheck(cache, ID1, "one-2");
+        this.handleOneAndCheck(cache, ID1, "one-2");
+        this.statsAndCheck(cache, 1, 2, 0);
+    }
+
+    private HateosResourceHandlerCache<BigInteger, String, String, FakeHateosHandlerContext> createCache(final TestHandler handler) {
+        return this.createCache(
+            handler,
+            MAX_SIZE
+        );
+    }
+
+    private HateosResourceHandlerCache<BigInteger, String, String, FakeHateosHandlerContext> createCache(final TestHandler handler,
+                                                                                                           final int maxSize) {
+        return HateosResourceHandlerCache.with(
+            handler,
+            maxSize,
+            TIME_TO_LIVE,
+            HateosResourceSelectionCacheEviction.LEAST_RECENTLY_USED,
+            NOW
+        );
+    }
+
+    private void handleOneAndCheck(final HateosResourceHandlerCache<BigInteger, String, String, FakeHateosHandlerContext> cache,
+                                   final BigInteger id,
+                                   final String expected) {
+        this.checkEquals(
+            Optional.of(expected),
+            cache.handleOne(
+                id,
+                Optional.empty(),
+                PARAMETERS,
+                PATH,
+                CONTEXT
+            ),
+            () -> "handleOne " + id
+        );
+    }
+
+    private void statsAndCheck(final HateosResourceHandlerCache<?, ?, ?, ?> cache,
+                               final long hits,
+                               final long misses,
+                               final long evictions) {
+        this.checkEquals(hits, cache.hits(), "hits");
+        this.checkEquals(misses, cache.misses(), "misses");
+        this.checkEquals(evictions, cache.evictions(), "evictions");
+    }
+
+    /**
+     * Returns a different value each time it is invoked, so cached results may be detected.
+     */
+    static class TestHandler extends FakeHateosResourceHandler<BigInteger, String, String, FakeHateosHandlerContext> {
+
+        @Override
+        public Optional<String> handleAll(final Optional<String> resource,
+                                          final Map<HttpRequestAttribute<?>, Object> parameters,
+                                          final UrlPath path,
+                                          final FakeHateosHandlerContext context) {
+            return this.result("all");
+        }
+
+        @Override
+        public Optional<String> handleMany(final Set<BigInteger> ids,
+                                           final Optional<String> resource,
+                                           final Map<HttpRequestAttribute<?>, Object> parameters,
+                                           final UrlPath path,
+                                           final FakeHateosHandlerContext context) {
+            return this.result("many");
+        }
+
+        @Override
+        public Optional<String> handleOne(final BigInteger id,
+                                          final Optional<String> resource,
+                                          final Map<HttpRequestAttribute<?>, Object> parameters,
+                                          final UrlPath path,
+                                          final FakeHateosHandlerContext context) {
+            return this.result("one");
+        }
+
+        @Override
+        public Optional<String> handleNone(final Optional<String> resource,
+                                           final Map<HttpRequestAttribute<?>, Object> parameters,
+                                           final UrlPath path,
+                                           final FakeHateosHandlerContext context) {
+            return this.result("none");
+        }
+
+        @Override
+        public Optional<String> handleRange(final Range<BigInteger> range,
+                                            final Optional<String> resource,
+                                            final Map<HttpRequestAttribute<?>, Object> parameters,
+                                            final UrlPath path,
+                                            final FakeHateosHandlerContext context) {
+            return this.result("range");
+        }
+
+        private Optional<String> result(final String prefix) {
+            this.count++;
+            return Optional.of(prefix + "-" + this.count);
+        }
+
+        int count;
+
+        @Override
+        public String toString() {
+            return "TestHandler";
+        }
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            this.createCache(new TestHandler()),
+            "TestHandler 2 1000ms LEAST_RECENTLY_USED"
+        );
+    }
+
+    // Class............................................................................................................
+
+    @Override
+    public Class<HateosResourceHandlerCache<?, ?, ?, ?>> type() {
+        return Cast.to(HateosResourceHandlerCache.class);
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
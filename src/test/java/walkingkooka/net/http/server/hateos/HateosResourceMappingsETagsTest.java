@@ -0,0 +1,200 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.net.header.ETag;
+import walkingkooka.net.header.ETagValidator;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+public final class HateosResourceMappingsETagsTest implements ClassTesting2<HateosResourceMappingsETags> {
+
+    private final static ETag EMPTY = ETag.with(
+        "cbf29ce484222325",
+        ETagValidator.WEAK
+    );
+
+    // text.............................................................................................................
+
+    @Test
+    public void testTextEmpty() {
+        this.checkEquals(
+            EMPTY,
+            HateosResourceMappingsETags.text("")
+        );
+    }
+
+    @Test
+    public void testTextSame() {
+        this.checkEquals(
+            HateosResourceMappingsETags.text("{\"abc\": 123}"),
+            HateosResourceMappingsETags.text(new StringBuilder("{\"abc\": 123}"))
+        );
+    }
+
+    @Test
+    public void testTextDifferent() {
+        this.checkNotEquals(
+            HateosResourceMappingsETags.text("{\"abc\": 123}"),
+            HateosResourceMappingsETags.text("{\"abc\": 124}")
+        );
+    }
+
+    // binary...........................................................................................................
+
+    @Test
+    public void testBinaryEmpty() {
+        this.checkEquals(
+            EMPTY,
+            HateosResourceMappingsETags.binary(new byte[0])
+        );
+    }
+
+    @Test
+    public void testBinary() {
+        this.checkEquals(
+            ETag.with(
+                "af63dc4c8601ec8c",
+                ETagValidator.WEAK
+            ),
+            HateosResourceMappingsETags.binary(
+                "a".getBytes(StandardCharsets.US_ASCII)
+            )
+        );
+    }
+
+    // version..........................................................................................................
+
+    @Test
+    public void testVersionNotHateosResource() {
+        this.checkEquals(
+            null,
+            HateosResourceMappingsETags.version("not a resource")
+        );
+    }
+
+    @Test
+    public void testVersionWithoutVersion() {
+        this.checkEquals(
+            null,
+            HateosResourceMappingsETags.version(
+                this.resource(Optional.empty())
+            )
+        );
+    }
+
+    @Test
+    public void testVersion() {
+        this.checkEquals(
+            HateosResourceMappingsETags.text("123/v1"),
+            HateosResourceMappingsETags.version(
+                this.resource(Optional.of("v1"))
+            )
+        );
+    }
+
+    private HateosResource<String> resource(final Optional<String> version) {
+        return new FakeHateosResource<>() {
+            @Override
+            public String hateosLinkId() {
+                return "123";
+            }
+
+            @Override
+            public Optional<String> hateosVersion() {
+                return version;
+            }
+        };
+    }
+
+    // isMatch..........................................................................................................
+
+    @Test
+    public void testIsMatchEmpty() {
+        this.isMatchAndCheck(
+            EMPTY,
+            false
+        );
+    }
+
+    @Test
+    public void testIsMatchWildcard() {
+        this.isMatchAndCheck(
+            EMPTY,
+            true,
+            ETag.wildcard()
+        );
+    }
+
+    @Test
+    public void testIsMatchWeakComparison() {
+        this.isMatchAndCheck(
+            EMPTY,
+            true,
+            ETag.with(
+                "different",
+                ETagValidator.STRONG
+            ),
+            ETag.with(
+                EMPTY.value(),
+                ETagValidator.STRONG
+            )
+        );
+    }
+
+    @Test
+    public void testIsMatchDifferent() {
+        this.isMatchAndCheck(
+            EMPTY,
+            false,
+            ETag.with(
+                "different",
+                ETagValidator.WEAK
+            )
+        );
+    }
+
+    private void isMatchAndCheck(final ETag eTag,
+                                 final boolean expected,
+                                 final ETag... ifNoneMatch) {
+        this.checkEquals(
+            expected,
+            HateosResourceMappingsETags.isMatch(
+                eTag,
+                Lists.of(ifNoneMatch)
+            )
+        );
+    }
+
+    // Class............................................................................................................
+
+    @Override
+    public Class<HateosResourceMappingsETags> type() {
+        return HateosResourceMappingsETags.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
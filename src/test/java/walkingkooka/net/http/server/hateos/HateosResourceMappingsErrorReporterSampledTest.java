@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.net.http.HttpEntity;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class HateosResourceMappingsErrorReporterSampledTest implements ClassTesting2<HateosResourceMappingsErrorReporterSampled>,
+    ToStringTesting<HateosResourceMappingsErrorReporterSampled> {
+
+    @Test
+    public void testWithZeroEveryFails() {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> HateosResourceMappingsErrorReporterSampled.with(
+                0,
+                (t) -> {
+                },
+                HateosResourceMappingsErrorReporters.problemJson()
+            )
+        );
+        this.checkEquals(
+            "Invalid every 0 <= 0",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testWithNullLoggerFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> HateosResourceMappingsErrorReporterSampled.with(
+                1,
+                null,
+                HateosResourceMappingsErrorReporters.problemJson()
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullReporterFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> HateosResourceMappingsErrorReporterSampled.with(
+                1,
+                (t) -> {
+                },
+                null
+            )
+        );
+    }
+
+    @Test
+    public void testBadRequestLogsOneInEvery() {
+        final List<Throwable> logged = Lists.array();
+        final HateosResourceMappingsErrorReporterSampled reporter = HateosResourceMappingsErrorReporterSampled.with(
+            3,
+            logged::add,
+            HateosResourceMappingsErrorReporters.problemJson()
+        );
+
+        final List<Throwable> causes = Lists.array();
+        for (int i = 0; i < 7; i++) {
+            final Throwable cause = new IllegalArgumentException("Cause" + i);
+            causes.add(cause);
+
+            final HttpEntity entity = reporter.badRequest(
+                "Message" + i,
+                cause
+            );
+            assertSame(
+                HateosResourceMappingsErrorReporters.problemJson()
+                    .badRequest(
+                        "Message" + i,
+                        cause
+                    ),
+                entity
+            );
+        }
+
+        this.checkEquals(
+            Lists.of(
+                causes.get(0),
+                causes.get(3),
+                causes.get(6)
+            ),
+            logged
+        );
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        final Consumer<Throwable> logger = (t) -> {
+        };
+
+        this.toStringAndCheck(
+            HateosResourceMappingsErrorReporterSampled.with(
+                10,
+                logger,
+                HateosResourceMappingsErrorReporters.problemJson()
+            ),
+            "sampled 10 " + logger + " problemJson"
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<HateosResourceMappingsErrorReporterSampled> type() {
+        return HateosResourceMappingsErrorReporterSampled.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.net.AbsoluteUrl;
+import walkingkooka.net.Url;
+import walkingkooka.tree.json.JsonNode;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public final class HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinksTest extends HateosResourceMappingsTestCase<HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks> {
+
+    private final static String PLACEHOLDER = HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks.PLACEHOLDER;
+
+    private final static AbsoluteUrl BASE = Url.parseAbsolute("https://example.com/api");
+
+    private final static HateosHandlerContext CONTEXT = new FakeHateosHandlerContext();
+
+    // canSubstitute....................................................................................................
+
+    @Test
+    public void testCanSubstituteHex() {
+        this.canSubstituteAndCheck("7b", true);
+    }
+
+    @Test
+    public void testCanSubstituteRange() {
+        this.canSubstituteAndCheck("1-2", true);
+    }
+
+    @Test
+    public void testCanSubstituteUnreserved() {
+        this.canSubstituteAndCheck("a.b_c~D", true);
+    }
+
+    @Test
+    public void testCanSubstituteEmpty() {
+        this.canSubstituteAndCheck("", false);
+    }
+
+    @Test
+    public void testCanSubstituteDot() {
+        this.canSubstituteAndCheck(".", false);
+    }
+
+    @Test
+    public void testCanSubstituteDotDot() {
+        this.canSubstituteAndCheck("..", false);
+    }
+
+    @Test
+    public void testCanSubstituteSpace() {
+        this.canSubstituteAndCheck("a b", false);
+    }
+
+    @Test
+    public void testCanSubstituteSlash() {
+        this.canSubstituteAndCheck("a/b", false);
+    }
+
+    @Test
+    public void testCanSubstitutePercent() {
+        this.canSubstituteAndCheck("a%20", false);
+    }
+
+    private void canSubstituteAndCheck(final String id,
+                                       final boolean expected) {
+        this.checkEquals(
+            expected,
+            HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks.canSubstitute(id),
+            id
+        );
+    }
+
+    // with.............................................................................................................
+
+    @Test
+    public void testWithMissingPlaceholder() {
+        assertNull(
+            HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks.with(
+                Lists.of(
+                    JsonNode.parse("{\"href\": \"https://example.com/api/resource1/7b\"}")
+                ),
+                BASE,
+                CONTEXT
+            )
+        );
+    }
+
+    @Test
+    public void testWithPlaceholderTwice() {
+        assertNull(
+            HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks.with(
+                Lists.of(
+                    JsonNode.parse("{\"href\": \"" + PLACEHOLDER + "/" + PLACEHOLDER + "\"}")
+                ),
+                BASE,
+                CONTEXT
+            )
+        );
+    }
+
+    @Test
+    public void testWithNotObject() {
+        assertNull(
+            HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks.with(
+                Lists.of(
+                    JsonNode.string(PLACEHOLDER)
+                ),
+                BASE,
+                CONTEXT
+            )
+        );
+    }
+
+    // links............................................................................................................
+
+    @Test
+    public void testLinks() {
+        final HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks links = this.createLinks();
+
+        this.checkEquals(
+            JsonNode.parse(
+                "[{\"href\": \"https://example.com/api/resource1/1c8\", \"method\": \"GET\"}, " +
+                    "{\"href\": \"https://example.com/api/resource1/1c8/contents\", \"method\": \"POST\"}]"
+            ),
+            links.links("1c8")
+        );
+    }
+
+    @Test
+    public void testIsFor() {
+        this.checkEquals(
+            true,
+            this.createLinks()
+                .isFor(BASE, CONTEXT)
+        );
+    }
+
+    @Test
+    public void testIsForDifferentBase() {
+        this.checkEquals(
+            false,
+            this.createLinks()
+                .isFor(Url.parseAbsolute("https://example.com/different"), CONTEXT)
+        );
+    }
+
+    @Test
+    public void testIsForDifferentContext() {
+        this.checkEquals(
+            false,
+            this.createLinks()
+                .isFor(BASE, new FakeHateosHandlerContext())
+        );
+    }
+
+    private HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks createLinks() {
+        final HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks links = HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks.with(
+            Lists.of(
+                JsonNode.parse("{\"href\": \"https://example.com/api/resource1/" + PLACEHOLDER + "\", \"method\": \"GET\"}"),
+                JsonNode.parse("{\"href\": \"https://example.com/api/resource1/" + PLACEHOLDER + "/contents\", \"method\": \"POST\"}")
+            ),
+            BASE,
+            CONTEXT
+        );
+        assertNotNull(links);
+        return links;
+    }
+
+    // TypeTesting......................................................................................................
+
+    @Override
+    public Class<HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks> type() {
+        return HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMappingLinks.class;
+    }
+
+    // TypeNameTesting..................................................................................................
+
+    @Override
+    public String typeNamePrefix() {
+        return HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessor.class.getSimpleName();
+    }
+
+    @Override
+    public String typeNameSuffix() {
+        return "Links";
+    }
+}
@@ -153,36 +153,84 @@ public final class HateosResourceMappingsJsonNodeMarshallContextObjectPostProces
         );
     }
 
+    @Test
+    public void testAddLinksManyResources() {
+        final HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMapping mapping = this.createMapping(
+            Maps.of(
+                LinkRelation.SELF,
+                Sets.of(HttpMethod.GET),
+                LinkRelation.CONTENTS,
+                Sets.of(HttpMethod.POST)
+            )
+        );
+
+        for (final int id : new int[]{123, 456, 123}) {
+            final String hex = Integer.toHexString(id);
+
+            this.addLinksAndCheck(
+                mapping,
+                id,
+                "{\n" +
+                    "  \"a\": 1,\n" +
+                    "  \"b\": 2,\n" +
+                    "  \"_links\": [{\n" +
+                    "    \"href\": \"https://example.com/api/resource1/" + hex + "\",\n" +
+                    "    \"method\": \"GET\",\n" +
+                    "    \"rel\": \"self\",\n" +
+                    "    \"type\": \"application/test-json\"\n" +
+                    "  }, {\n" +
+                    "    \"href\": \"https://example.com/api/resource1/" + hex + "/contents\",\n" +
+                    "    \"method\": \"POST\",\n" +
+                    "    \"rel\": \"contents\",\n" +
+                    "    \"type\": \"application/test-json\"\n" +
+                    "  }]\n" +
+                    "}"
+            );
+        }
+    }
+
     private void addLinksAndCheck(final HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMapping mapping,
                                   final String withLinks) {
+        this.addLinksAndCheck(
+            mapping,
+            123,
+            withLinks
+        );
+    }
+
+    private void addLinksAndCheck(final HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMapping mapping,
+                                  final int id,
+                                  final String withLinks) {
         final String before = "{\"a\": 1, \"b\": 2}";
         this.checkEquals(
             JsonNode.parse(withLinks),
             mapping.addLinks(
                 TestHateosResource.with(
-                    BigInteger.valueOf(123)
+                    BigInteger.valueOf(id)
                 ),
                 JsonNode.parse(before)
                     .objectOrFail(),
                 Url.parseAbsolute("https://example.com/api"),
-                new FakeHateosHandlerContext() {
-
-                    @Override
-                    public MediaType contentType() {
-                        return MediaType.parse("application/test-json");
-                    }
-
-                    @Override
-                    public JsonNode marshall(final Object value) {
-                        return JsonNodeMarshallContexts.basic()
-                            .marshall(value);
-                    }
-                }
+                CONTEXT
             ),
             mapping::toString
         );
     }
 
+    private final static HateosHandlerContext CONTEXT = new FakeHateosHandlerContext() {
+
+        @Override
+        public MediaType contentType() {
+            return MediaType.parse("application/test-json");
+        }
+
+        @Override
+        public JsonNode marshall(final Object value) {
+            return JsonNodeMarshallContexts.basic()
+                .marshall(value);
+        }
+    };
+
     @Test
     public void testToString() {
         this.toStringAndCheck(this.createMapping(), "resource1, about=GET, contents=GET, POST");
@@ -38,6 +38,10 @@ import java.math.BigInteger;
 import java.util.Set;
 import java.util.function.BiFunction;
 
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
 public final class HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorTest extends HateosResourceMappingsTestCase<HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessor<TestHateosHandlerContext>>
     implements JsonNodeMarshallContextObjectPostProcessorTesting<HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessor<TestHateosHandlerContext>> {
 
@@ -77,6 +81,50 @@ public final class HateosResourceMappingsJsonNodeMarshallContextObjectPostProces
         );
     }
 
+    @Test
+    public void testMapping() {
+        final HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessor<TestHateosHandlerContext> processor = this.createBiFunction();
+
+        final HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessorMapping mapping = processor.mapping(TestHateosResource.class);
+        assertNotNull(mapping, "mapping");
+        assertSame(
+            mapping,
+            processor.mapping(TestHateosResource.class)
+        );
+    }
+
+    @Test
+    public void testMappingMissing() {
+        final HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessor<TestHateosHandlerContext> processor = this.createBiFunction();
+
+        assertNull(processor.mapping(StringName.class));
+        assertNull(processor.mapping(StringName.class));
+    }
+
+    @Test
+    public void testMappingLinksNone() {
+        final HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessor<TestHateosHandlerContext> processor = HateosResourceMappingsJsonNodeMarshallContextObjectPostProcessor.with(
+            this.baseUrl(),
+            Sets.of(
+                HateosResourceMappings.with(
+                    this.resourceName1(),
+                    this.selectionParser(),
+                    TestResource.class,
+                    TestResource.class,
+                    TestHateosResource.class,
+                    TestHateosHandlerContext.class
+                ).setHateosResourceHandler(
+                    LinkRelation.SELF,
+                    HttpMethod.POST,
+                    new FakeHateosResourceHandler<>()
+                ).setLinks(HateosResourceMappingsLinks.NONE)
+            ),
+            new TestHateosHandlerContext()
+        );
+
+        assertNull(processor.mapping(TestHateosResource.class));
+    }
+
     private void marshallAndCheck(final Object resource,
                                   final JsonNode json) {
         this.checkEquals(json,
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class HateosResourceMappingsLinksTest implements ClassTesting<HateosResourceMappingsLinks> {
+
+    // parse............................................................................................................
+
+    @Test
+    public void testParseInvalidFails() {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> HateosResourceMappingsLinks.parse("invalid")
+        );
+        this.checkEquals(
+            "Invalid links \"invalid\"",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testParse() {
+        this.parseAndCheck(
+            "template",
+            HateosResourceMappingsLinks.TEMPLATE
+        );
+    }
+
+    @Test
+    public void testParseIgnoresCase() {
+        this.parseAndCheck(
+            "NoNe",
+            HateosResourceMappingsLinks.NONE
+        );
+    }
+
+    private void parseAndCheck(final String text,
+                               final HateosResourceMappingsLinks expected) {
+        this.checkEquals(
+            expected,
+            HateosResourceMappingsLinks.parse(text),
+            () -> "parse " + text
+        );
+    }
+
+    // reduce...........................................................................................................
+
+    @Test
+    public void testReduceResourceToNone() {
+        this.reduceAndCheck(
+            HateosResourceMappingsLinks.RESOURCE,
+            HateosResourceMappingsLinks.NONE,
+            HateosResourceMappingsLinks.NONE
+        );
+    }
+
+    @Test
+    public void testReduceResourceToTemplate() {
+        this.reduceAndCheck(
+            HateosResourceMappingsLinks.RESOURCE,
+            HateosResourceMappingsLinks.TEMPLATE,
+            HateosResourceMappingsLinks.TEMPLATE
+        );
+    }
+
+    @Test
+    public void testReduceNoneToResourceIgnored() {
+        this.reduceAndCheck(
+            HateosResourceMappingsLinks.NONE,
+            HateosResourceMappingsLinks.RESOURCE,
+            HateosResourceMappingsLinks.NONE
+        );
+    }
+
+    @Test
+    public void testReduceTemplateToResourceIgnored() {
+        this.reduceAndCheck(
+            HateosResourceMappingsLinks.TEMPLATE,
+            HateosResourceMappingsLinks.RESOURCE,
+            HateosResourceMappingsLinks.TEMPLATE
+        );
+    }
+
+    private void reduceAndCheck(final HateosResourceMappingsLinks links,
+                                final HateosResourceMappingsLinks requested,
+                                final HateosResourceMappingsLinks expected) {
+        this.checkEquals(
+            expected,
+            links.reduce(requested),
+            () -> links + " reduce " + requested
+        );
+    }
+
+    // Class............................................................................................................
+
+    @Override
+    public Class<HateosResourceMappingsLinks> type() {
+        return HateosResourceMappingsLinks.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
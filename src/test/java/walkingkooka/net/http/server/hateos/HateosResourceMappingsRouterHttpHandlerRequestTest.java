@@ -74,6 +74,43 @@ public final class HateosResourceMappingsRouterHttpHandlerRequestTest extends Ha
 
     private void dispatchSelectionExtractorThrowsAndCheck(final String throwMessage,
                                                           final String expected) {
+        final HttpResponse response = this.dispatchSelectionExtractorThrows(
+            throwMessage,
+            HateosResourceMappingsErrorReporters.stackTrace()
+        );
+
+        this.checkEquals(
+            expected,
+            response.status()
+                .map(HttpStatus::message)
+                .orElse(null)
+        );
+    }
+
+    @Test
+    public void testDispatchSelectionExtractorExceptionProblemJsonErrorReporter() {
+        final HttpResponse response = this.dispatchSelectionExtractorThrows(
+            "Message123",
+            HateosResourceMappingsErrorReporters.problemJson()
+        );
+
+        this.checkEquals(
+            "Message123",
+            response.status()
+                .map(HttpStatus::message)
+                .orElse(null)
+        );
+        this.checkEquals(
+            HttpEntity.EMPTY
+                .setContentType(MediaType.parse("application/problem+json"))
+                .setBodyText("{\"status\":400,\"title\":\"Bad Request\"}")
+                .setContentLength(),
+            response.entity()
+        );
+    }
+
+    private HttpResponse dispatchSelectionExtractorThrows(final String throwMessage,
+                                                          final HateosResourceMappingsErrorReporter errorReporter) {
         final HttpResponse response = HttpResponses.recording();
 
         final HateosHandlerContext context = new FakeHateosHandlerContext() {
@@ -118,17 +155,13 @@ public final class HateosResourceMappingsRouterHttpHandlerRequestTest extends Ha
                         HttpMethod.GET,
                         HateosResourceHandlers.fake()
                     )
-                )
+                ),
+                errorReporter
             ),
             context
         ).dispatch();
 
-        this.checkEquals(
-            expected,
-            response.status()
-                .map(HttpStatus::message)
-                .orElse(null)
-        );
+        return response;
     }
 
     // toString.........................................................................................................
@@ -139,7 +172,8 @@ public final class HateosResourceMappingsRouterHttpHandlerRequestTest extends Ha
 
         final HateosResourceMappingsRouter<HateosHandlerContext> router = HateosResourceMappingsRouter.with(
             UrlPath.parse("/path1/path2/"),
-            Sets.empty()
+            Sets.empty(),
+            HateosResourceMappingsErrorReporters.stackTrace()
         );
         final HttpRequest request = HttpRequests.fake();
         final HttpResponse response = HttpResponses.fake();
@@ -31,7 +31,8 @@ public final class HateosResourceMappingsRouterHttpHandlerTest extends HateosRes
         return HateosResourceMappingsRouterHttpHandler.with(
             HateosResourceMappingsRouter.with(
                 UrlPath.ROOT,
-                Sets.empty()
+                Sets.empty(),
+                HateosResourceMappingsErrorReporters.stackTrace()
             )
         );
     }
@@ -47,7 +48,8 @@ public final class HateosResourceMappingsRouterHttpHandlerTest extends HateosRes
     public void testToString() {
         final HateosResourceMappingsRouter<HateosHandlerContext> router = HateosResourceMappingsRouter.with(
             UrlPath.ROOT,
-            Sets.empty()
+            Sets.empty(),
+            HateosResourceMappingsErrorReporters.stackTrace()
         );
 
         this.toStringAndCheck(
@@ -18,6 +18,7 @@
 package walkingkooka.net.http.server.hateos;
 
 import org.junit.jupiter.api.Test;
+import walkingkooka.Binary;
 import walkingkooka.Cast;
 import walkingkooka.InvalidCharacterException;
 import walkingkooka.ToStringTesting;
@@ -33,7 +34,12 @@ import walkingkooka.net.UrlPath;
 import walkingkooka.net.UrlPathName;
 import walkingkooka.net.header.Accept;
 import walkingkooka.net.header.AcceptCharset;
+import walkingkooka.net.header.AcceptEncoding;
+import walkingkooka.net.header.CacheControl;
 import walkingkooka.net.header.CharsetName;
+import walkingkooka.net.header.ContentEncoding;
+import walkingkooka.net.header.ETag;
+import walkingkooka.net.header.ETagValidator;
 import walkingkooka.net.header.HttpHeaderName;
 import walkingkooka.net.header.LinkRelation;
 import walkingkooka.net.header.MediaType;
@@ -65,15 +71,21 @@ import walkingkooka.tree.json.JsonNode;
 import walkingkooka.tree.json.marshall.JsonNodeMarshallContexts;
 import walkingkooka.tree.json.marshall.JsonNodeUnmarshallContexts;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigInteger;
 import java.math.MathContext;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -96,6 +108,11 @@ public final class HateosResourceMappingsRouterTest extends HateosResourceMappin
 
     private final static String RESOURCE_TYPE_NAME = TestResource.class.getSimpleName();
 
+    /**
+     * Collection responses may also be NDJSON, so caches must key them by the {@link HttpHeaderName#ACCEPT}.
+     */
+    private final static List<HttpHeaderName<?>> VARY_ACCEPT = Lists.of(HttpHeaderName.ACCEPT);
+
     private final static CharsetName DEFAULT_CHARSET = CharsetName.UTF_8;
 
     private final static Set<HateosResourceMappings<?, ?, ?, ?, TestHateosHandlerContext>> MAPPINGS = Sets.empty();
@@ -144,7 +161,8 @@ public final class HateosResourceMappingsRouterTest extends HateosResourceMappin
             NullPointerException.class,
             () -> HateosResourceMappingsRouter.with(
                 null,
-                MAPPINGS
+                MAPPINGS,
+                HateosResourceMappingsErrorReporters.stackTrace()
             )
         );
     }
@@ -155,6 +173,19 @@ public final class HateosResourceMappingsRouterTest extends HateosResourceMappin
             NullPointerException.class,
             () -> HateosResourceMappingsRouter.with(
                 BASE_PATH,
+                null,
+                HateosResourceMappingsErrorReporters.stackTrace()
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullErrorReporterFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> HateosResourceMappingsRouter.with(
+                BASE_PATH,
+                MAPPINGS,
                 null
             )
         );
@@ -348,6 +379,92 @@ public final class HateosResourceMappingsRouterTest extends HateosResourceMappin
         );
     }
 
+    @Test
+    public void testRouteContentLengthOversizedRejectedBeforeBodyTextRead() {
+        final HttpRequest request = new FakeHttpRequest() {
+
+            @Override
+            public HttpTransport transport() {
+                return HttpTransport.UNSECURED;
+            }
+
+            @Override
+            public HttpProtocolVersion protocolVersion() {
+                return HttpProtocolVersion.VERSION_1_0;
+            }
+
+            @Override
+            public HttpMethod method() {
+                return HttpMethod.POST;
+            }
+
+            @Override
+            public RelativeUrl url() {
+                return Url.parseRelative("/api/resource-with-body/0x1f/contents");
+            }
+
+            @Override
+            public Map<HttpHeaderName<?>, List<?>> headers() {
+                return HateosResourceMappingsRouterTest.this.map(
+                    HttpHeaderName.CONTENT_TYPE,
+                    HateosResourceMappingsRouterTest.this.contentType(),
+                    HttpHeaderName.ACCEPT,
+                    HateosResourceMappingsRouterTest.this.contentType()
+                        .accept(),
+                    HttpHeaderName.CONTENT_LENGTH,
+                    Long.MAX_VALUE
+                );
+            }
+
+            @Override
+            public byte[] body() {
+                return "{}".getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public long bodyLength() {
+                return this.body().length;
+            }
+
+            @Override
+            public String bodyText() {
+                throw new AssertionError("bodyText should not be read when the Content-Length is invalid");
+            }
+
+            @Override
+            public Map<HttpRequestParameterName, List<String>> parameters() {
+                return Maps.empty();
+            }
+
+            @Override
+            public List<String> parameterValues(final HttpRequestParameterName parameterName) {
+                return Lists.empty();
+            }
+
+            @Override
+            public String toString() {
+                return this.method() + " " + this.url();
+            }
+        };
+        final HttpResponse response = HttpResponses.recording();
+
+        this.createRouter()
+            .route(request.routerParameters())
+            .get()
+            .handle(
+                request,
+                response,
+                CONTEXT
+            );
+
+        this.checkEquals(
+            Optional.of(
+                HttpStatusCode.BAD_REQUEST.setMessage("Content-Length: " + Long.MAX_VALUE + " != body length=2 mismatch")
+            ),
+            response.status()
+        );
+    }
+
     @Test
     public void testRouteBadRequestIdAndInvalidJson() {
         this.routeAndCheck(
@@ -901,6 +1018,9 @@ public final class HateosResourceMappingsRouterTest extends HateosResourceMappin
             HttpEntity.EMPTY.addHeader(
                 HateosResourceMappings.X_CONTENT_TYPE_NAME,
                 RESOURCE_TYPE_NAME
+            ).addHeader(
+                HttpHeaderName.VARY,
+                VARY_ACCEPT
             )
         );
     }
@@ -926,6 +1046,9 @@ public final class HateosResourceMappingsRouterTest extends HateosResourceMappin
             HttpEntity.EMPTY.addHeader(
                 HateosResourceMappings.X_CONTENT_TYPE_NAME,
                 RESOURCE_TYPE_NAME
+            ).addHeader(
+                HttpHeaderName.VARY,
+                VARY_ACCEPT
             )
         );
     }
@@ -951,6 +1074,9 @@ public final class HateosResourceMappingsRouterTest extends HateosResourceMappin
             HttpEntity.EMPTY.addHeader(
                 HateosResourceMappings.X_CONTENT_TYPE_NAME,
                 RESOURCE_TYPE_NAME
+            ).addHeader(
+                HttpHeaderName.VARY,
+                VARY_ACCEPT
             )
         );
     }
@@ -981,6 +1107,9 @@ public final class HateosResourceMappingsRouterTest extends HateosResourceMappin
             HttpEntity.EMPTY.addHeader(
                 HateosResourceMappings.X_CONTENT_TYPE_NAME,
                 RESOURCE_TYPE_NAME
+            ).addHeader(
+                HttpHeaderName.VARY,
+                VARY_ACCEPT
             )
         );
     }
@@ -1008,6 +1137,9 @@ public final class HateosResourceMappingsRouterTest extends HateosResourceMappin
             HttpEntity.EMPTY.addHeader(
                 HateosResourceMappings.X_CONTENT_TYPE_NAME,
                 RESOURCE_TYPE_NAME
+            ).addHeader(
+                HttpHeaderName.VARY,
+                VARY_ACCEPT
             )
         );
     }
@@ -1035,6 +1167,9 @@ public final class HateosResourceMappingsRouterTest extends HateosResourceMappin
             HttpEntity.EMPTY.addHeader(
                 HateosResourceMappings.X_CONTENT_TYPE_NAME,
                 RESOURCE_TYPE_NAME
+            ).addHeader(
+                HttpHeaderName.VARY,
+                VARY_ACCEPT
             )
         );
     }
@@ -1173,6 +1308,9 @@ public final class HateosResourceMappingsRouterTest extends HateosResourceMappin
             HttpEntity.EMPTY.addHeader(
                 HateosResourceMappings.X_CONTENT_TYPE_NAME,
                 RESOURCE_TYPE_NAME
+            ).addHeader(
+                HttpHeaderName.VARY,
+                VARY_ACCEPT
             )
         );
     }
@@ -1196,172 +1334,2126 @@ public final class HateosResourceMappingsRouterTest extends HateosResourceMappin
             NO_BODY,
             HttpStatusCode.OK.status(),
             this.httpEntity(COLLECTION_RESOURCE_OUT)
+                .addHeader(
+                    HttpHeaderName.VARY,
+                    VARY_ACCEPT
+                )
         );
     }
 
-    // this test contains everything in a single method so it can be copied over to JunitTest.
     @Test
-    public void testRouteAndCheckStandaloneForItJunitTest() {
-        final HateosResourceMappings<BigInteger, TestResource, TestResource, TestHateosResource, TestHateosHandlerContext> mapping = HateosResourceMappings.with(
-            HateosResourceName.with("resource-with-body"),
-            (s, x) -> {
-                return HateosResourceSelection.one(
-                    BigInteger.valueOf(
-                        Integer.parseInt(
-                            s.substring(2),
-                            16
-                        )
-                    )
-                ); // assumes hex digit in url
-            },
-            TestResource.class,
-            TestResource.class,
-            TestHateosResource.class,
-            TestHateosHandlerContext.class
-        ).setHateosResourceHandler(
-            LinkRelation.CONTENTS,
-            HttpMethod.POST,
-            new FakeHateosResourceHandler<>() {
-
-                @Override
-                public Optional<TestResource> handleOne(final BigInteger id,
-                                                        final Optional<TestResource> resource,
-                                                        final Map<HttpRequestAttribute<?>, Object> parameters,
-                                                        final UrlPath path,
-                                                        final TestHateosHandlerContext context) {
-                    HateosResourceHandler.checkPathEmpty(path);
-
-                    return Optional.of(
-                        TestResource.with(
-                            TestHateosResource.with(
-                                BigInteger.valueOf(31)
-                            )
-                        )
-                    );
-                }
-            }
-        );
-
-        final Router<HttpRequestAttribute<?>, HttpHandler<TestHateosHandlerContext>> router = HateosResourceMappings.router(
-            UrlPath.parse("/api"),
-            Sets.of(mapping)
-        );
-
-        final HttpRequest request = new FakeHttpRequest() {
-
+    public void testRouteResponseResourceBodyEncoded() {
+        final HateosResourceHandler<BigInteger, TestResource, TestResource, TestHateosHandlerContext> handler = new FakeHateosResourceHandler<>() {
             @Override
-            public HttpTransport transport() {
-                return HttpTransport.UNSECURED;
-            }
-
-            @Override
-            public HttpProtocolVersion protocolVersion() {
-                return HttpProtocolVersion.VERSION_1_0;
-            }
-
-            @Override
-            public HttpMethod method() {
-                return HttpMethod.POST;
-            }
-
-            @Override
-            public RelativeUrl url() {
-                return Url.parseRelative("/api/resource-with-body/0x123/contents");
+            public Optional<TestResource> handleRange(final Range<BigInteger> id,
+                                                      final Optional<TestResource> resource,
+                                                      final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                      final UrlPath path,
+                                                      final TestHateosHandlerContext context) {
+                return Optional.of(COLLECTION_RESOURCE_OUT);
             }
+        };
 
-            @Override
-            public Map<HttpHeaderName<?>, List<?>> headers() {
-                return Maps.of(
-                    HttpHeaderName.CONTENT_TYPE, Lists.of(CONTENT_TYPE),
-                    HttpHeaderName.ACCEPT, Lists.of(CONTENT_TYPE.accept()),
-                    HttpHeaderName.ACCEPT_CHARSET, Lists.of(
-                        AcceptCharset.parse("utf-8")
+        this.routeAndCheck(
+            Cast.to(
+                HateosResourceMappings.router(
+                    BASE_PATH,
+                    Sets.of(
+                        this.mappingWithBody()
+                            .setResponseBodyEncodeThreshold(0)
+                            .setHateosResourceHandler(
+                                LinkRelation.CONTENTS,
+                                HttpMethod.POST,
+                                handler
+                            )
                     )
-                );
-            }
-
-            @Override
-            public String bodyText() {
-                return "";
-            }
+                )
+            ),
+            "/api/resource-with-body/0x123-0x456/contents",
+            NO_BODY,
+            HttpStatusCode.OK.status(),
+            HttpEntity.EMPTY
+                .setContentType(this.contentType())
+                .addHeader(
+                    HateosResourceMappings.X_CONTENT_TYPE_NAME,
+                    TestResource.class.getSimpleName()
+                ).addHeader(
+                    HttpHeaderName.VARY,
+                    VARY_ACCEPT
+                ).setBody(
+                    Binary.with(
+                        this.toJson(COLLECTION_RESOURCE_OUT)
+                            .getBytes(StandardCharsets.UTF_8)
+                    )
+                ).setContentLength()
+        );
+    }
 
+    @Test
+    public void testRouteHateosResourceStreamHandlerRange() {
+        final HateosResourceStreamHandler<BigInteger, TestResource, TestHateosHandlerContext> handler = new FakeHateosResourceStreamHandler<>() {
             @Override
-            public Map<HttpRequestParameterName, List<String>> parameters() {
-                return Maps.empty();
+            public Iterator<TestResource> handleRange(final Range<BigInteger> range,
+                                                      final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                      final UrlPath path,
+                                                      final TestHateosHandlerContext context) {
+                HateosResourceHandler.checkPathEmpty(path);
+
+                return Lists.of(
+                    RESOURCE_OUT,
+                    COLLECTION_RESOURCE_OUT
+                ).iterator();
             }
+        };
 
-            @Override
-            public List<String> parameterValues(final HttpRequestParameterName parameterName) {
-                throw new UnsupportedOperationException();
-            }
+        this.routeAndCheck(
+            Cast.to(
+                HateosResourceMappings.router(
+                    BASE_PATH,
+                    Sets.of(
+                        this.mappingWithBody()
+                            .setHateosResourceStreamHandler(
+                                LinkRelation.CONTENTS,
+                                HttpMethod.POST,
+                                handler
+                            )
+                    )
+                )
+            ),
+            "/api/resource-with-body/0x123-0x456/contents",
+            NO_BODY,
+            HttpStatusCode.OK.status(),
+            this.httpEntity(
+                "[" + this.toJson(RESOURCE_OUT) + "," + this.toJson(COLLECTION_RESOURCE_OUT) + "]",
+                TestResource.class.getSimpleName(),
+                this.contentType()
+            ).addHeader(
+                HttpHeaderName.VARY,
+                VARY_ACCEPT
+            )
+        );
+    }
 
+    @Test
+    public void testRouteHateosResourceStreamHandlerAllEmpty() {
+        final HateosResourceStreamHandler<BigInteger, TestResource, TestHateosHandlerContext> handler = new FakeHateosResourceStreamHandler<>() {
             @Override
-            public String toString() {
-                return this.method() + " " + this.url() + " " + parameters();
+            public Iterator<TestResource> handleAll(final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                    final UrlPath path,
+                                                    final TestHateosHandlerContext context) {
+                return Collections.emptyIterator();
             }
         };
-        final HttpHandler<TestHateosHandlerContext> httpHandler = router.route(
-            request.routerParameters()
-        ).orElseThrow(
-            () -> new Error("Unable to route")
-        );
 
-        final HttpResponse response = HttpResponses.recording();
-        httpHandler.handle(
-            request,
-            response,
-            CONTEXT
-        );
-        this.checkEquals(
-            "{\n" +
-                "  \"type\": \"test-HateosResource\",\n" +
-                "  \"value\": {\n" +
-                "    \"id\": \"31\"\n" +
-                "  }\n" +
-                "}",
-            response.entity()
-                .bodyText()
+        this.routeAndCheck(
+            Cast.to(
+                HateosResourceMappings.router(
+                    BASE_PATH,
+                    Sets.of(
+                        this.mappingWithBody()
+                            .setHateosResourceStreamHandler(
+                                LinkRelation.CONTENTS,
+                                HttpMethod.POST,
+                                handler
+                            )
+                    )
+                )
+            ),
+            "/api/resource-with-body/*/contents",
+            NO_BODY,
+            HttpStatusCode.OK.status(),
+            this.httpEntity(
+                "[]",
+                TestResource.class.getSimpleName(),
+                this.contentType()
+            ).addHeader(
+                HttpHeaderName.VARY,
+                VARY_ACCEPT
+            )
         );
     }
 
     @Test
-    public void testSetHateosHttpEntityHandler() {
-        this.setHateosHttpEntityHandlerAndRouteWithPathAndCheck(
+    public void testRouteHateosResourceStreamHandlerNoneBadRequest() {
+        this.routeHateosResourceStreamHandlerAndCheck(
             LinkRelation.SELF,
-            "/api/resource-with-body/0x123",
-            ""
+            "/api/resource-with-body",
+            "Invalid selection \"\" for stream"
         );
     }
 
     @Test
-    public void testSetHateosHttpEntityHandlerWithLinkRelation() {
-        this.setHateosHttpEntityHandlerAndRouteWithPathAndCheck(
+    public void testRouteHateosResourceStreamHandlerOneBadRequest() {
+        this.routeHateosResourceStreamHandlerAndCheck(
             LinkRelation.CONTENTS,
             "/api/resource-with-body/0x123/contents",
-            ""
-        );
-    }
-
-    @Test
-    public void testSetHateosHttpEntityHandlerAndRouteWithPath() {
-        this.setHateosHttpEntityHandlerAndRouteWithPathAndCheck(
-            LinkRelation.SELF,
-            "/api/resource-with-body/0x123/",
-            "/"
+            "Invalid selection \"291\" for stream"
         );
     }
 
-    @Test
-    public void testSetHateosHttpEntityHandlerAndRouteWithLinkRelationAndPath() {
-        this.setHateosHttpEntityHandlerAndRouteWithPathAndCheck(
-            LinkRelation.CONTENTS,
-            "/api/resource-with-body/0x123/contents/",
-            "/"
+    private void routeHateosResourceStreamHandlerAndCheck(final LinkRelation<?> linkRelation,
+                                                          final String url,
+                                                          final String message) {
+        this.routeAndCheck(
+            Cast.to(
+                HateosResourceMappings.router(
+                    BASE_PATH,
+                    Sets.of(
+                        this.mappingWithBody()
+                            .setHateosResourceStreamHandler(
+                                linkRelation,
+                                HttpMethod.POST,
+                                new FakeHateosResourceStreamHandler<>() // fails if invoked
+                            )
+                    )
+                )
+            ),
+            url,
+            NO_BODY,
+            HttpStatusCode.BAD_REQUEST.setMessage(message),
+            HttpEntity.EMPTY
         );
     }
 
     @Test
-    public void testSetHateosHttpEntityHandlerAndRouteWithLinkRelationAndPath2() {
+    public void testRouteNdjsonCollection() {
+        this.routeAndCheck(
+            this.createRouter(
+                new FakeHateosResourceHandler<>() {
+                    @Override
+                    public Optional<TestResource> handleRange(final Range<BigInteger> id,
+                                                              final Optional<TestResource> resource,
+                                                              final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                              final UrlPath path,
+                                                              final TestHateosHandlerContext context) {
+                        return Optional.of(COLLECTION_RESOURCE_OUT);
+                    }
+                }
+            ),
+            HttpMethod.POST,
+            "/api/resource-with-body/0x123-0x456/contents",
+            this.map(
+                HttpHeaderName.ACCEPT,
+                HateosHandlerContext.HATEOS_NDJSON_CONTENT_TYPE.accept()
+            ),
+            NO_BODY,
+            HttpStatusCode.OK.status(),
+            this.httpEntity(
+                this.toJsonLine(COLLECTION_RESOURCE_OUT),
+                TestResource.class.getSimpleName(),
+                HateosHandlerContext.HATEOS_NDJSON_CONTENT_TYPE.setCharset(DEFAULT_CHARSET)
+            ).addHeader(
+                HttpHeaderName.VARY,
+                VARY_ACCEPT
+            )
+        );
+    }
+
+    @Test
+    public void testRouteNdjsonHateosResourceStreamHandler() {
+        final HateosResourceStreamHandler<BigInteger, TestResource, TestHateosHandlerContext> handler = new FakeHateosResourceStreamHandler<>() {
+            @Override
+            public Iterator<TestResource> handleAll(final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                    final UrlPath path,
+                                                    final TestHateosHandlerContext context) {
+                return Lists.of(
+                    RESOURCE_OUT,
+                    COLLECTION_RESOURCE_OUT
+                ).iterator();
+            }
+        };
+
+        this.routeAndCheck(
+            Cast.to(
+                HateosResourceMappings.router(
+                    BASE_PATH,
+                    Sets.of(
+                        this.mappingWithBody()
+                            .setHateosResourceStreamHandler(
+                                LinkRelation.CONTENTS,
+                                HttpMethod.POST,
+                                handler
+                            )
+                    )
+                )
+            ),
+            HttpMethod.POST,
+            "/api/resource-with-body/*/contents",
+            this.map(
+                HttpHeaderName.ACCEPT,
+                HateosHandlerContext.HATEOS_NDJSON_CONTENT_TYPE.accept()
+            ),
+            NO_BODY,
+            HttpStatusCode.OK.status(),
+            this.httpEntity(
+                this.toJsonLine(RESOURCE_OUT) + this.toJsonLine(COLLECTION_RESOURCE_OUT),
+                TestResource.class.getSimpleName(),
+                HateosHandlerContext.HATEOS_NDJSON_CONTENT_TYPE.setCharset(DEFAULT_CHARSET)
+            ).addHeader(
+                HttpHeaderName.VARY,
+                VARY_ACCEPT
+            )
+        );
+    }
+
+    @Test
+    public void testRouteNdjsonOneBadRequest() {
+        final HttpRequest request = this.request(
+            HttpMethod.POST,
+            "/api/resource-with-body/0x123/contents",
+            this.map(
+                HttpHeaderName.ACCEPT,
+                HateosHandlerContext.HATEOS_NDJSON_CONTENT_TYPE.accept()
+            ),
+            NO_BODY
+        );
+        final HttpResponse response = HttpResponses.recording();
+        this.createRouter()
+            .route(request.routerParameters())
+            .get()
+            .handle(
+                request,
+                response,
+                CONTEXT
+            );
+
+        this.checkEquals(
+            Optional.of(HttpStatusCode.BAD_REQUEST),
+            response.status()
+                .map(HttpStatus::value)
+        );
+    }
+
+    @Test
+    public void testRouteCborCollection() {
+        final TestHateosHandlerContext context = new TestHateosHandlerContext() {
+            @Override
+            public List<HateosContentCodec> codecs() {
+                return Lists.of(
+                    HateosContentCodecs.cbor()
+                );
+            }
+        };
+
+        final HttpRequest request = this.request(
+            HttpMethod.POST,
+            "/api/resource-with-body/0x123-0x456/contents",
+            this.map(
+                HttpHeaderName.ACCEPT,
+                HateosContentCodecs.cbor()
+                    .contentType()
+                    .accept()
+            ),
+            NO_BODY
+        );
+        final HttpResponse response = HttpResponses.recording();
+        this.createRouter(
+                new FakeHateosResourceHandler<>() {
+                    @Override
+                    public Optional<TestResource> handleRange(final Range<BigInteger> id,
+                                                              final Optional<TestResource> resource,
+                                                              final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                              final UrlPath path,
+                                                              final TestHateosHandlerContext context) {
+                        return Optional.of(COLLECTION_RESOURCE_OUT);
+                    }
+                }
+            ).route(request.routerParameters())
+            .get()
+            .handle(
+                request,
+                response,
+                context
+            );
+
+        this.checkEquals(
+            Optional.of(HttpStatusCode.OK),
+            response.status()
+                .map(HttpStatus::value)
+        );
+
+        final HttpEntity entity = response.entity();
+        this.checkEquals(
+            HateosContentCodecs.cbor()
+                .contentType(),
+            HttpHeaderName.CONTENT_TYPE.headerOrFail(entity)
+        );
+        this.checkEquals(
+            context.marshall(COLLECTION_RESOURCE_OUT),
+            HateosContentCodecs.cbor()
+                .decode(
+                    entity.body()
+                        .value()
+                )
+        );
+        this.checkEquals(
+            Lists.of(VARY_ACCEPT),
+            entity.headers()
+                .get(HttpHeaderName.VARY),
+            "vary"
+        );
+    }
+
+    @Test
+    public void testRouteCodecsOneVaryAccept() {
+        final TestHateosHandlerContext context = new TestHateosHandlerContext() {
+            @Override
+            public List<HateosContentCodec> codecs() {
+                return Lists.of(
+                    HateosContentCodecs.cbor()
+                );
+            }
+        };
+
+        final HttpRequest request = this.request(
+            HttpMethod.GET,
+            "/api/get-resource/0x123",
+            this.map(
+                HttpHeaderName.ACCEPT,
+                CONTENT_TYPE.accept()
+            ),
+            NO_BODY
+        );
+        final HttpResponse response = HttpResponses.recording();
+        this.createRouter(
+                new FakeHateosResourceHandler<>() {
+                    @Override
+                    public Optional<TestResource> handleOne(final BigInteger id,
+                                                            final Optional<TestResource> resource,
+                                                            final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                            final UrlPath path,
+                                                            final TestHateosHandlerContext context) {
+                        return Optional.of(RESOURCE_OUT);
+                    }
+                }
+            ).route(request.routerParameters())
+            .get()
+            .handle(
+                request,
+                response,
+                context
+            );
+
+        this.checkEquals(
+            Optional.of(HttpStatusCode.OK),
+            response.status()
+                .map(HttpStatus::value)
+        );
+        this.checkEquals(
+            Lists.of(VARY_ACCEPT),
+            response.entity()
+                .headers()
+                .get(HttpHeaderName.VARY),
+            "vary"
+        );
+    }
+
+    @Test
+    public void testRouteCodecsAcceptCborAndWildcardLowerQuality() {
+        this.routeCodecsAcceptAndCheck(
+            "application/cbor, */*;q=0.1",
+            HateosContentCodecs.cbor()
+                .contentType()
+        );
+    }
+
+    @Test
+    public void testRouteCodecsAcceptCborAndDefaultLowerQuality() {
+        this.routeCodecsAcceptAndCheck(
+            "application/cbor, " + CONTENT_TYPE + ";q=0.1",
+            HateosContentCodecs.cbor()
+                .contentType()
+        );
+    }
+
+    @Test
+    public void testRouteCodecsAcceptDefaultHigherQuality() {
+        this.routeCodecsAcceptAndCheck(
+            "application/cbor;q=0.5, " + CONTENT_TYPE,
+            this.contentType()
+        );
+    }
+
+    @Test
+    public void testRouteCodecsAcceptEqualQualityDefault() {
+        this.routeCodecsAcceptAndCheck(
+            "application/cbor, " + CONTENT_TYPE,
+            this.contentType()
+        );
+    }
+
+    @Test
+    public void testRouteCodecsAcceptWildcardDefault() {
+        this.routeCodecsAcceptAndCheck(
+            "*/*",
+            this.contentType()
+        );
+    }
+
+    private void routeCodecsAcceptAndCheck(final String accept,
+                                           final MediaType expected) {
+        final TestHateosHandlerContext context = new TestHateosHandlerContext() {
+            @Override
+            public List<HateosContentCodec> codecs() {
+                return Lists.of(
+                    HateosContentCodecs.cbor()
+                );
+            }
+        };
+
+        final HttpRequest request = this.request(
+            HttpMethod.GET,
+            "/api/get-resource/0x123",
+            this.map(
+                HttpHeaderName.ACCEPT,
+                Accept.parse(accept)
+            ),
+            NO_BODY
+        );
+        final HttpResponse response = HttpResponses.recording();
+        this.createRouter(
+                new FakeHateosResourceHandler<>() {
+                    @Override
+                    public Optional<TestResource> handleOne(final BigInteger id,
+                                                            final Optional<TestResource> resource,
+                                                            final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                            final UrlPath path,
+                                                            final TestHateosHandlerContext context) {
+                        return Optional.of(RESOURCE_OUT);
+                    }
+                }
+            ).route(request.routerParameters())
+            .get()
+            .handle(
+                request,
+                response,
+                context
+            );
+
+        this.checkEquals(
+            Optional.of(HttpStatusCode.OK),
+            response.status()
+                .map(HttpStatus::value),
+            "status"
+        );
+        this.checkEquals(
+            expected,
+            HttpHeaderName.CONTENT_TYPE.headerOrFail(
+                response.entity()
+            ),
+            () -> "content-type for Accept: " + accept
+        );
+    }
+
+    @Test
+    public void testRouteGzipCompressed() throws IOException {
+        final HttpResponse response = this.routeWithContentEncodings(0);
+
+        final HttpEntity entity = response.entity();
+        this.checkEquals(
+            Lists.of(ContentEncoding.GZIP),
+            entity.headers()
+                .get(HttpHeaderName.CONTENT_ENCODING),
+            "content-encoding"
+        );
+        this.checkEquals(
+            Lists.of(
+                Lists.of(
+                    HttpHeaderName.ACCEPT,
+                    HttpHeaderName.ACCEPT_ENCODING
+                )
+            ),
+            entity.headers()
+                .get(HttpHeaderName.VARY),
+            "vary"
+        );
+
+        try (final InputStream input = new GZIPInputStream(new ByteArrayInputStream(entity.body().value()))) {
+            this.checkEquals(
+                this.toJson(COLLECTION_RESOURCE_OUT),
+                new String(
+                    input.readAllBytes(),
+                    StandardCharsets.UTF_8
+                )
+            );
+        }
+    }
+
+    @Test
+    public void testRouteGzipBelowMinimumLengthNotCompressed() {
+        final HttpResponse response = this.routeWithContentEncodings(Integer.MAX_VALUE);
+
+        final HttpEntity entity = response.entity();
+        this.checkEquals(
+            null,
+            entity.headers()
+                .get(HttpHeaderName.CONTENT_ENCODING),
+            "content-encoding"
+        );
+        this.checkEquals(
+            Lists.of(
+                Lists.of(
+                    HttpHeaderName.ACCEPT,
+                    HttpHeaderName.ACCEPT_ENCODING
+                )
+            ),
+            entity.headers()
+                .get(HttpHeaderName.VARY),
+            "vary"
+        );
+        this.checkEquals(
+            this.toJson(COLLECTION_RESOURCE_OUT),
+            entity.bodyText()
+        );
+    }
+
+    @Test
+    public void testRouteGzipRequestBody() {
+        this.routeGzipRequestBodyAndCheck(
+            HateosHandlerContext.CONTENT_ENCODING_MAX_DECODED_LENGTH,
+            HttpStatusCode.OK
+        );
+    }
+
+    @Test
+    public void testRouteGzipRequestBodyTooLarge() {
+        this.routeGzipRequestBodyAndCheck(
+            1,
+            HttpStatusCode.BAD_REQUEST
+        );
+    }
+
+    @Test
+    public void testRouteGzipRequestBodyUnsupportedContentEncoding() {
+        this.routeGzipRequestBodyAndCheck(
+            Lists.empty(),
+            HateosHandlerContext.CONTENT_ENCODING_MAX_DECODED_LENGTH,
+            HttpStatusCode.UNSUPPORTED_MEDIA_TYPE
+        );
+    }
+
+    @Test
+    public void testRouteIdentityContentEncodingWithoutContentEncodings() {
+        final String json = this.toJson(RESOURCE_IN);
+
+        final Map<HttpHeaderName<?>, List<?>> headers = Maps.sorted();
+        headers.put(
+            HttpHeaderName.ACCEPT,
+            Lists.of(
+                CONTENT_TYPE.accept()
+            )
+        );
+        headers.put(
+            HttpHeaderName.CONTENT_TYPE,
+            Lists.of(
+                new MediaType[]{this.contentType()}
+            )
+        );
+        headers.put(
+            HttpHeaderName.CONTENT_ENCODING,
+            Lists.of(
+                new ContentEncoding[]{ContentEncoding.parse("identity")}
+            )
+        );
+        headers.put(
+            HttpHeaderName.CONTENT_LENGTH,
+            Lists.of(
+                new Long[]{
+                    Long.valueOf(
+                        json.getBytes(StandardCharsets.UTF_8).length
+                    )
+                }
+            )
+        );
+
+        final HttpRequest request = this.request(
+            HttpMethod.POST,
+            "/api/resource-with-body/0x123",
+            headers,
+            json
+        );
+        final HttpResponse response = HttpResponses.recording();
+        this.createRouter(
+                new FakeHateosResourceHandler<>() {
+                    @Override
+                    public Optional<TestResource> handleOne(final BigInteger id,
+                                                            final Optional<TestResource> resource,
+                                                            final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                            final UrlPath path,
+                                                            final TestHateosHandlerContext context) {
+                        checkEquals(
+                            Optional.of(RESOURCE_IN),
+                            resource,
+                            "resource"
+                        );
+                        return Optional.of(RESOURCE_OUT);
+                    }
+                }
+            ).route(request.routerParameters())
+            .get()
+            .handle(
+                request,
+                response,
+                CONTEXT
+            );
+
+        this.checkEquals(
+            Optional.of(HttpStatusCode.OK),
+            response.status()
+                .map(HttpStatus::value)
+        );
+    }
+
+    private void routeGzipRequestBodyAndCheck(final int maxDecodedLength,
+                                              final HttpStatusCode status) {
+        this.routeGzipRequestBodyAndCheck(
+            Lists.of(
+                HateosContentEncodings.gzip()
+            ),
+            maxDecodedLength,
+            status
+        );
+    }
+
+    private void routeGzipRequestBodyAndCheck(final List<HateosContentEncoding> contentEncodings,
+                                              final int maxDecodedLength,
+                                              final HttpStatusCode status) {
+        final TestHateosHandlerContext context = new TestHateosHandlerContext() {
+            @Override
+            public List<HateosContentEncoding> contentEncodings() {
+                return contentEncodings;
+            }
+
+            @Override
+            public int contentEncodingMaxDecodedLength() {
+                return maxDecodedLength;
+            }
+        };
+
+        final String json = this.toJson(RESOURCE_IN);
+        final byte[] compressed = HateosContentEncodings.gzip()
+            .encode(
+                json.getBytes(StandardCharsets.UTF_8)
+            );
+
+        final Map<HttpHeaderName<?>, List<?>> headers = Maps.sorted();
+        headers.put(
+            HttpHeaderName.ACCEPT,
+            Lists.of(
+                CONTENT_TYPE.accept()
+            )
+        );
+        headers.put(
+            HttpHeaderName.CONTENT_TYPE,
+            Lists.of(
+                new MediaType[]{this.contentType()}
+            )
+        );
+        headers.put(
+            HttpHeaderName.CONTENT_ENCODING,
+            Lists.of(
+                new ContentEncoding[]{ContentEncoding.GZIP}
+            )
+        );
+        headers.put(
+            HttpHeaderName.CONTENT_LENGTH,
+            Lists.of(
+                new Long[]{
+                    Long.valueOf(compressed.length)
+                }
+            )
+        );
+
+        final HttpRequest request = this.request(
+            HttpMethod.POST,
+            "/api/resource-with-body/0x123",
+            headers,
+            null,
+            compressed
+        );
+        final HttpResponse response = HttpResponses.recording();
+        this.createRouter(
+                new FakeHateosResourceHandler<>() {
+                    @Override
+                    public Optional<TestResource> handleOne(final BigInteger id,
+                                                            final Optional<TestResource> resource,
+                                                            final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                            final UrlPath path,
+                                                            final TestHateosHandlerContext context) {
+                        checkEquals(
+                            Optional.of(RESOURCE_IN),
+                            resource,
+                            "resource"
+                        );
+                        return Optional.of(RESOURCE_OUT);
+                    }
+                }
+            ).route(request.routerParameters())
+            .get()
+            .handle(
+                request,
+                response,
+                context
+            );
+
+        this.checkEquals(
+            Optional.of(status),
+            response.status()
+                .map(HttpStatus::value)
+        );
+    }
+
+    private HttpResponse routeWithContentEncodings(final int minimumLength) {
+        final TestHateosHandlerContext context = new TestHateosHandlerContext() {
+            @Override
+            public List<HateosContentEncoding> contentEncodings() {
+                return Lists.of(
+                    HateosContentEncodings.gzip()
+                );
+            }
+
+            @Override
+            public int contentEncodingMinimumLength() {
+                return minimumLength;
+            }
+        };
+
+        final HttpRequest request = this.request(
+            HttpMethod.POST,
+            "/api/resource-with-body/0x123-0x456/contents",
+            this.map(
+                HttpHeaderName.ACCEPT,
+                CONTENT_TYPE.accept(),
+                HttpHeaderName.ACCEPT_ENCODING,
+                AcceptEncoding.parse("gzip, deflate")
+            ),
+            NO_BODY
+        );
+        final HttpResponse response = HttpResponses.recording();
+        this.createRouter(
+                new FakeHateosResourceHandler<>() {
+                    @Override
+                    public Optional<TestResource> handleRange(final Range<BigInteger> id,
+                                                              final Optional<TestResource> resource,
+                                                              final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                              final UrlPath path,
+                                                              final TestHateosHandlerContext context) {
+                        return Optional.of(COLLECTION_RESOURCE_OUT);
+                    }
+                }
+            ).route(request.routerParameters())
+            .get()
+            .handle(
+                request,
+                response,
+                context
+            );
+
+        this.checkEquals(
+            Optional.of(HttpStatusCode.OK),
+            response.status()
+                .map(HttpStatus::value)
+        );
+        return response;
+    }
+
+    @Test
+    public void testRouteLinksTemplate() {
+        final HttpResponse response = this.routeWithLinks(
+            HateosResourceMappingsLinks.TEMPLATE,
+            "/api/get-resource/0x123",
+            HttpStatusCode.OK
+        );
+
+        this.checkEquals(
+            Lists.of("</api/get-resource/{id}>; rel=\"self\""),
+            response.entity()
+                .headers()
+                .get(HateosResourceMappings.LINK_TEMPLATE),
+            "link-template"
+        );
+    }
+
+    @Test
+    public void testRouteLinksResourceWithoutLinkTemplate() {
+        final HttpResponse response = this.routeWithLinks(
+            HateosResourceMappingsLinks.RESOURCE,
+            "/api/get-resource/0x123",
+            HttpStatusCode.OK
+        );
+
+        this.checkEquals(
+            null,
+            response.entity()
+                .headers()
+                .get(HateosResourceMappings.LINK_TEMPLATE),
+            "link-template"
+        );
+    }
+
+    @Test
+    public void testRouteLinksParameterNoneWithoutLinkTemplate() {
+        final HttpResponse response = this.routeWithLinks(
+            HateosResourceMappingsLinks.TEMPLATE,
+            "/api/get-resource/0x123?links=none",
+            HttpStatusCode.OK
+        );
+
+        this.checkEquals(
+            null,
+            response.entity()
+                .headers()
+                .get(HateosResourceMappings.LINK_TEMPLATE),
+            "link-template"
+        );
+    }
+
+    @Test
+    public void testRouteLinksParameterInvalid() {
+        this.routeWithLinks(
+            HateosResourceMappingsLinks.RESOURCE,
+            "/api/get-resource/0x123?links=invalid",
+            HttpStatusCode.BAD_REQUEST
+        );
+    }
+
+    @Test
+    public void testRouteLinksParameterNoneRemovesNestedLinks() {
+        final String links = "\"_links\": [{\"href\": \"https://example.com/api/get-resource/0x1\", \"method\": \"GET\", \"rel\": \"self\", \"type\": \"application/json\"}]";
+
+        this.routeMarshalledWithLinksAndCheck(
+            HateosResourceMappingsLinks.RESOURCE,
+            "/api/get-resource/0x123?links=none",
+            "[{\"id\": 1, " + links + ", \"children\": [" +
+                "{\"id\": 2, " + links + ", \"children\": [{\"id\": 3, " + links + "}]}" +
+                "]}]",
+            "[{\"id\": 1, \"children\": [" +
+                "{\"id\": 2, \"children\": [{\"id\": 3}]}" +
+                "]}]"
+        );
+    }
+
+    @Test
+    public void testRouteLinksParameterNoneKeepsUserLinksProperty() {
+        final String links = "\"_links\": [{\"href\": \"https://example.com/api/get-resource/0x1\", \"method\": \"GET\", \"rel\": \"self\", \"type\": \"application/json\"}]";
+
+        this.routeMarshalledWithLinksAndCheck(
+            HateosResourceMappingsLinks.RESOURCE,
+            "/api/get-resource/0x123?links=none",
+            "{\"id\": 1, " + links + ", \"data\": {\"_links\": \"user1\"}, \"more\": {\"_links\": [1, 2]}}",
+            "{\"id\": 1, \"data\": {\"_links\": \"user1\"}, \"more\": {\"_links\": [1, 2]}}"
+        );
+    }
+
+    @Test
+    public void testRouteLinksParameterNoneWithLinksNoneMappingUnchanged() {
+        // resources of a NONE mapping never received _links, so the response is not walked
+        final String marshalled = "{\"id\": 1, \"_links\": [{\"href\": \"https://example.com/user\"}]}";
+
+        this.routeMarshalledWithLinksAndCheck(
+            HateosResourceMappingsLinks.NONE,
+            "/api/get-resource/0x123?links=none",
+            marshalled,
+            marshalled
+        );
+    }
+
+    private void routeMarshalledWithLinksAndCheck(final HateosResourceMappingsLinks links,
+                                                  final String url,
+                                                  final String marshalled,
+                                                  final String expected) {
+        final JsonNode marshalledJson = JsonNode.parse(marshalled);
+
+        final HttpRequest request = this.request(
+            HttpMethod.GET,
+            url,
+            this.map(
+                HttpHeaderName.ACCEPT,
+                CONTENT_TYPE.accept()
+            ),
+            NO_BODY
+        );
+        final HttpResponse response = HttpResponses.recording();
+
+        HateosResourceMappings.router(
+                BASE_PATH,
+                Sets.of(
+                    this.getMapping()
+                        .setHateosResourceHandler(
+                            LinkRelation.SELF,
+                            HttpMethod.GET,
+                            new FakeHateosResourceHandler<>() {
+                                @Override
+                                public Optional<TestResource> handleOne(final BigInteger id,
+                                                                        final Optional<TestResource> resource,
+                                                                        final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                                        final UrlPath path,
+                                                                        final TestHateosHandlerContext context) {
+                                    return Optional.of(RESOURCE_OUT);
+                                }
+                            }
+                        ).setLinks(links)
+                )
+            ).route(request.routerParameters())
+            .get()
+            .handle(
+                request,
+                response,
+                new TestHateosHandlerContext() {
+                    @Override
+                    public JsonNode marshall(final Object value) {
+                        return marshalledJson;
+                    }
+                }
+            );
+
+        this.checkEquals(
+            Optional.of(HttpStatusCode.OK),
+            response.status()
+                .map(HttpStatus::value)
+        );
+        this.checkEquals(
+            JsonNode.parse(expected),
+            JsonNode.parse(
+                response.entity()
+                    .bodyText()
+            )
+        );
+    }
+
+    private HttpResponse routeWithLinks(final HateosResourceMappingsLinks links,
+                                        final String url,
+                                        final HttpStatusCode statusCode) {
+        final HttpRequest request = this.request(
+            HttpMethod.GET,
+            url,
+            this.map(
+                HttpHeaderName.ACCEPT,
+                CONTENT_TYPE.accept()
+            ),
+            NO_BODY
+        );
+        final HttpResponse response = HttpResponses.recording();
+
+        HateosResourceMappings.router(
+                BASE_PATH,
+                Sets.of(
+                    this.getMapping()
+                        .setHateosResourceHandler(
+                            LinkRelation.SELF,
+                            HttpMethod.GET,
+                            new FakeHateosResourceHandler<>() {
+                                @Override
+                                public Optional<TestResource> handleOne(final BigInteger id,
+                                                                        final Optional<TestResource> resource,
+                                                                        final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                                        final UrlPath path,
+                                                                        final TestHateosHandlerContext context) {
+                                    return Optional.of(RESOURCE_OUT);
+                                }
+                            }
+                        ).setLinks(links)
+                )
+            ).route(request.routerParameters())
+            .get()
+            .handle(
+                request,
+                response,
+                CONTEXT
+            );
+
+        this.checkEquals(
+            Optional.of(statusCode),
+            response.status()
+                .map(HttpStatus::value)
+        );
+        return response;
+    }
+
+    @Test
+    public void testRouteCacheInvalidatedByDelete() {
+        final int[] count = new int[1];
+
+        final HateosResourceHandlerCache<BigInteger, TestResource, TestResource, TestHateosHandlerContext> cache = HateosResourceHandlers.cache(
+            new FakeHateosResourceHandler<>() {
+                @Override
+                public Optional<TestResource> handleOne(final BigInteger id,
+                                                        final Optional<TestResource> resource,
+                                                        final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                        final UrlPath path,
+                                                        final TestHateosHandlerContext context) {
+                    count[0]++;
+                    return Optional.of(RESOURCE_OUT);
+                }
+            },
+            10,
+            60 * 1000,
+            HateosResourceSelectionCacheEviction.LEAST_RECENTLY_USED,
+            () -> 0
+        );
+
+        final Router<HttpRequestAttribute<?>, HttpHandler<TestHateosHandlerContext>> router = HateosResourceMappings.router(
+            BASE_PATH,
+            Sets.of(
+                this.getMapping()
+                    .setHateosResourceHandler(
+                        LinkRelation.SELF,
+                        HttpMethod.GET,
+                        cache
+                    ).setHateosResourceHandler(
+                        LinkRelation.SELF,
+                        HttpMethod.DELETE,
+                        new FakeHateosResourceHandler<>() {
+                            @Override
+                            public Optional<TestResource> handleOne(final BigInteger id,
+                                                                    final Optional<TestResource> resource,
+                                                                    final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                                    final UrlPath path,
+                                                                    final TestHateosHandlerContext context) {
+                                return Optional.empty();
+                            }
+                        }
+                    )
+            )
+        );
+
+        this.routeCache(router, HttpMethod.GET);
+        this.routeCache(router, HttpMethod.GET);
+
+        this.checkEquals(1, count[0], "handler count before DELETE");
+        this.checkEquals(1, cache.size(), "cache size before DELETE");
+
+        this.routeCache(router, HttpMethod.DELETE);
+
+        this.checkEquals(0, cache.size(), "cache size after DELETE");
+
+        this.routeCache(router, HttpMethod.GET);
+
+        this.checkEquals(2, count[0], "handler count after DELETE");
+    }
+
+    @Test
+    public void testRouteCacheIgnoresIncidentalHeaders() {
+        final int[] count = new int[1];
+
+        final HateosResourceHandlerCache<BigInteger, TestResource, TestResource, TestHateosHandlerContext> cache = HateosResourceHandlers.cache(
+            new FakeHateosResourceHandler<>() {
+                @Override
+                public Optional<TestResource> handleOne(final BigInteger id,
+                                                        final Optional<TestResource> resource,
+                                                        final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                        final UrlPath path,
+                                                        final TestHateosHandlerContext context) {
+                    count[0]++;
+                    return Optional.of(RESOURCE_OUT);
+                }
+            },
+            10,
+            60 * 1000,
+            HateosResourceSelectionCacheEviction.LEAST_RECENTLY_USED,
+            () -> 0
+        );
+
+        final Router<HttpRequestAttribute<?>, HttpHandler<TestHateosHandlerContext>> router = HateosResourceMappings.router(
+            BASE_PATH,
+            Sets.of(
+                this.getMapping()
+                    .setHateosResourceHandler(
+                        LinkRelation.SELF,
+                        HttpMethod.GET,
+                        cache
+                    )
+            )
+        );
+
+        final HttpHeaderName<String> requestId = HttpHeaderName.with("X-Request-Id")
+            .stringValues();
+
+        this.routeCache(
+            router,
+            HttpMethod.GET,
+            this.map(
+                HttpHeaderName.ACCEPT,
+                CONTENT_TYPE.accept(),
+                requestId,
+                "client-1"
+            )
+        );
+        this.routeCache(
+            router,
+            HttpMethod.GET,
+            this.map(
+                HttpHeaderName.ACCEPT,
+                CONTENT_TYPE.accept(),
+                requestId,
+                "client-2"
+            )
+        );
+
+        this.checkEquals(1, count[0], "handler count");
+        this.checkEquals(1, cache.size(), "cache size");
+        this.checkEquals(1L, cache.hits(), "cache hits");
+    }
+
+    private void routeCache(final Router<HttpRequestAttribute<?>, HttpHandler<TestHateosHandlerContext>> router,
+                            final HttpMethod method) {
+        this.routeCache(
+            router,
+            method,
+            this.map(
+                HttpHeaderName.ACCEPT,
+                CONTENT_TYPE.accept()
+            )
+        );
+    }
+
+    private void routeCache(final Router<HttpRequestAttribute<?>, HttpHandler<TestHateosHandlerContext>> router,
+                            final HttpMethod method,
+                            final Map<HttpHeaderName<?>, List<?>> headers) {
+        final HttpRequest request = this.request(
+            method,
+            "/api/get-resource/0x123",
+            headers,
+            NO_BODY
+        );
+
+        router.route(request.routerParameters())
+            .get()
+            .handle(
+                request,
+                HttpResponses.recording(),
+                CONTEXT
+            );
+    }
+
+    @Test
+    public void testRouteETag() {
+        final HttpResponse response = this.routeWithETag(
+            HttpMethod.GET,
+            Lists.empty()
+        );
+
+        final HttpEntity entity = response.entity();
+        this.checkEquals(
+            Lists.of(
+                HateosResourceMappingsETags.text(
+                    entity.bodyText()
+                )
+            ),
+            entity.headers()
+                .get(HttpHeaderName.E_TAG),
+            "etag"
+        );
+        this.checkEquals(
+            Optional.of(HttpStatusCode.OK),
+            response.status()
+                .map(HttpStatus::value)
+        );
+    }
+
+    @Test
+    public void testRouteETagIfNoneMatchNotModified() {
+        final ETag eTag = (ETag) this.routeWithETag(
+                HttpMethod.GET,
+                Lists.empty()
+            ).entity()
+            .headers()
+            .get(HttpHeaderName.E_TAG)
+            .get(0);
+
+        final HttpResponse response = this.routeWithETag(
+            HttpMethod.GET,
+            Lists.of(eTag)
+        );
+
+        this.checkEquals(
+            Optional.of(HttpStatusCode.NOT_MODIFIED),
+            response.status()
+                .map(HttpStatus::value)
+        );
+
+        final HttpEntity entity = response.entity();
+        this.checkEquals(
+            Lists.of(eTag),
+            entity.headers()
+                .get(HttpHeaderName.E_TAG),
+            "etag"
+        );
+        this.checkEquals(
+            0,
+            entity.body()
+                .size(),
+            "body"
+        );
+    }
+
+    @Test
+    public void testRouteETagIfNoneMatchDifferent() {
+        final HttpResponse response = this.routeWithETag(
+            HttpMethod.GET,
+            Lists.of(
+                ETag.with(
+                    "different",
+                    ETagValidator.WEAK
+                )
+            )
+        );
+
+        this.checkEquals(
+            Optional.of(HttpStatusCode.OK),
+            response.status()
+                .map(HttpStatus::value)
+        );
+    }
+
+    @Test
+    public void testRouteETagPostIgnored() {
+        final HttpResponse response = this.routeWithETag(
+            HttpMethod.POST,
+            Lists.of(
+                ETag.wildcard()
+            )
+        );
+
+        this.checkEquals(
+            null,
+            response.entity()
+                .headers()
+                .get(HttpHeaderName.E_TAG),
+            "etag"
+        );
+    }
+
+    private HttpResponse routeWithETag(final HttpMethod method,
+                                       final List<ETag> ifNoneMatch) {
+        final Map<HttpHeaderName<?>, List<?>> headers = Maps.sorted();
+        headers.put(
+            HttpHeaderName.ACCEPT,
+            Lists.of(
+                CONTENT_TYPE.accept()
+            )
+        );
+        if (false == ifNoneMatch.isEmpty()) {
+            headers.put(
+                HttpHeaderName.IF_NONE_MATCH,
+                Lists.of(ifNoneMatch)
+            );
+        }
+
+        final HttpRequest request = this.request(
+            method,
+            "/api/get-resource/0x123",
+            headers,
+            NO_BODY
+        );
+        final HttpResponse response = HttpResponses.recording();
+
+        final HateosResourceHandler<BigInteger, TestResource, TestResource, TestHateosHandlerContext> handler = new FakeHateosResourceHandler<>() {
+            @Override
+            public Optional<TestResource> handleOne(final BigInteger id,
+                                                    final Optional<TestResource> resource,
+                                                    final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                    final UrlPath path,
+                                                    final TestHateosHandlerContext context) {
+                return Optional.of(RESOURCE_OUT);
+            }
+        };
+
+        HateosResourceMappings.router(
+                BASE_PATH,
+                Sets.of(
+                    this.getMapping()
+                        .setHateosResourceHandler(
+                            LinkRelation.SELF,
+                            HttpMethod.GET,
+                            handler
+                        ).setHateosResourceHandler(
+                            LinkRelation.SELF,
+                            HttpMethod.POST,
+                            handler
+                        ).setETag(true)
+                )
+            ).route(request.routerParameters())
+            .get()
+            .handle(
+                request,
+                response,
+                CONTEXT
+            );
+
+        return response;
+    }
+
+    @Test
+    public void testRouteCacheControl() {
+        final CacheControl cacheControl = CacheControl.parse("max-age=60, s-maxage=300, stale-while-revalidate=30, public");
+
+        final HttpRequest request = this.request(
+            HttpMethod.GET,
+            "/api/get-resource/0x123",
+            this.map(
+                HttpHeaderName.ACCEPT,
+                CONTENT_TYPE.accept()
+            ),
+            NO_BODY
+        );
+        final HttpResponse response = HttpResponses.recording();
+
+        HateosResourceMappings.router(
+                BASE_PATH,
+                Sets.of(
+                    this.getMapping()
+                        .setHateosResourceHandler(
+                            LinkRelation.SELF,
+                            HttpMethod.GET,
+                            new FakeHateosResourceHandler<>() {
+                                @Override
+                                public Optional<TestResource> handleOne(final BigInteger id,
+                                                                        final Optional<TestResource> resource,
+                                                                        final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                                        final UrlPath path,
+                                                                        final TestHateosHandlerContext context) {
+                                    return Optional.of(RESOURCE_OUT);
+                                }
+                            }
+                        ).setCacheControl(
+                            LinkRelation.SELF,
+                            HttpMethod.GET,
+                            cacheControl
+                        )
+                )
+            ).route(request.routerParameters())
+            .get()
+            .handle(
+                request,
+                response,
+                CONTEXT
+            );
+
+        this.checkEquals(
+            Lists.of(cacheControl),
+            response.entity()
+                .headers()
+                .get(HttpHeaderName.CACHE_CONTROL),
+            "cache-control"
+        );
+    }
+
+    @Test
+    public void testRouteSingleFlight() {
+        final HateosSingleFlight singleFlight = HateosSingleFlights.basic();
+
+        final HttpRequest request = this.request(
+            HttpMethod.GET,
+            "/api/get-resource/0x123",
+            this.map(
+                HttpHeaderName.ACCEPT,
+                CONTENT_TYPE.accept()
+            ),
+            NO_BODY
+        );
+        final HttpResponse response = HttpResponses.recording();
+
+        HateosResourceMappings.router(
+                BASE_PATH,
+                Sets.of(
+                    this.getMapping()
+                        .setHateosResourceHandler(
+                            LinkRelation.SELF,
+                            HttpMethod.GET,
+                            new FakeHateosResourceHandler<>() {
+                                @Override
+                                public Optional<TestResource> handleOne(final BigInteger id,
+                                                                        final Optional<TestResource> resource,
+                                                                        final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                                        final UrlPath path,
+                                                                        final TestHateosHandlerContext context) {
+                                    return Optional.of(RESOURCE_OUT);
+                                }
+                            }
+                        ).setSingleFlight(
+                            LinkRelation.SELF,
+                            singleFlight
+                        )
+                )
+            ).route(request.routerParameters())
+            .get()
+            .handle(
+                request,
+                response,
+                CONTEXT
+            );
+
+        this.checkEquals(
+            Optional.of(HttpStatusCode.OK),
+            response.status()
+                .map(HttpStatus::value)
+        );
+        this.checkEquals(
+            1L,
+            singleFlight.leaders(),
+            "leaders"
+        );
+    }
+
+    @Test
+    public void testRouteSingleFlightFollowerSharesLeaderResponse() throws Exception {
+        final HateosSingleFlight singleFlight = HateosSingleFlights.basic();
+        final HttpHeaderName<String> requestId = HttpHeaderName.with("X-Request-Id")
+            .stringValues();
+
+        final HttpRequest leaderRequest = this.request(
+            HttpMethod.GET,
+            "/api/get-resource/0x123",
+            this.map(
+                HttpHeaderName.ACCEPT,
+                CONTENT_TYPE.accept(),
+                requestId,
+                "leader"
+            ),
+            NO_BODY
+        );
+        final HttpResponse leaderResponse = HttpResponses.recording();
+
+        final HttpRequest followerRequest = this.request(
+            HttpMethod.GET,
+            "/api/get-resource/0x123",
+            this.map(
+                HttpHeaderName.ACCEPT,
+                CONTENT_TYPE.accept(),
+                requestId,
+                "follower"
+            ),
+            NO_BODY
+        );
+        final HttpResponse followerResponse = HttpResponses.recording();
+
+        final int[] count = new int[1];
+        final Throwable[] followerFailure = new Throwable[1];
+        final Thread[] follower = new Thread[1];
+
+        final Router<HttpRequestAttribute<?>, HttpHandler<TestHateosHandlerContext>> router = HateosResourceMappings.router(
+            BASE_PATH,
+            Sets.of(
+                this.getMapping()
+                    .setHateosResourceHandler(
+                        LinkRelation.SELF,
+                        HttpMethod.GET,
+                        new FakeHateosResourceHandler<>() {
+                            @Override
+                            public Optional<TestResource> handleOne(final BigInteger id,
+                                                                    final Optional<TestResource> resource,
+                                                                    final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                                    final UrlPath path,
+                                                                    final TestHateosHandlerContext context) {
+                                count[0]++;
+
+                                // the leader is in flight, start the follower and wait until it has joined
+                                follower[0].start();
+
+                                final long timeout = System.currentTimeMillis() + 10 * 1000;
+                                while (0 == singleFlight.coalesced()) {
+                                    if (System.currentTimeMillis() > timeout) {
+                                        throw new IllegalStateException("Follower did not join leader");
+                                    }
+                                    Thread.yield();
+                                }
+
+                                return Optional.of(RESOURCE_OUT);
+                            }
+                        }
+                    ).setSingleFlight(
+                        LinkRelation.SELF,
+                        singleFlight
+                    )
+            )
+        );
+
+        follower[0] = new Thread(
+            () -> {
+                try {
+                    router.route(followerRequest.routerParameters())
+                        .get()
+                        .handle(
+                            followerRequest,
+                            followerResponse,
+                            CONTEXT
+                        );
+                } catch (final Throwable cause) {
+                    followerFailure[0] = cause;
+                }
+            }
+        );
+
+        router.route(leaderRequest.routerParameters())
+            .get()
+            .handle(
+                leaderRequest,
+                leaderResponse,
+                CONTEXT
+            );
+        follower[0].join(10 * 1000);
+
+        this.checkEquals(null, followerFailure[0], "follower failure");
+        this.checkEquals(1, count[0], "handler count");
+        this.checkEquals(1L, singleFlight.leaders(), "leaders");
+        this.checkEquals(1L, singleFlight.coalesced(), "coalesced");
+
+        this.checkEquals(
+            Optional.of(HttpStatusCode.OK),
+            leaderResponse.status()
+                .map(HttpStatus::value),
+            "leader status"
+        );
+        this.checkEquals(
+            leaderResponse.status(),
+            followerResponse.status(),
+            "follower status"
+        );
+        this.checkEquals(
+            leaderResponse.entity(),
+            followerResponse.entity(),
+            "follower entity"
+        );
+    }
+
+    @Test
+    public void testRouteLimiterSaturatedServiceUnavailable() {
+        final HateosLimiter limiter = HateosLimiters.bulkhead(
+            1,
+            0,
+            0,
+            30
+        );
+        this.checkEquals(
+            true,
+            limiter.tryAcquire(new FakeHttpRequest()),
+            "tryAcquire"
+        );
+
+        final HttpRequest request = this.request(
+            HttpMethod.GET,
+            "/api/get-resource/0x123",
+            this.map(
+                HttpHeaderName.ACCEPT,
+                CONTENT_TYPE.accept()
+            ),
+            NO_BODY
+        );
+        final HttpResponse response = HttpResponses.recording();
+
+        HateosResourceMappings.router(
+                BASE_PATH,
+                Sets.of(
+                    this.getMapping()
+                        .setHateosResourceHandler(
+                            LinkRelation.SELF,
+                            HttpMethod.GET,
+                            new FakeHateosResourceHandler<>()
+                        ).setLimiter(
+                            LinkRelation.SELF,
+                            limiter
+                        )
+                )
+            ).route(request.routerParameters())
+            .get()
+            .handle(
+                request,
+                response,
+                CONTEXT
+            );
+
+        this.checkEquals(
+            Optional.of(HttpStatusCode.SERVICE_UNAVAILABLE),
+            response.status()
+                .map(HttpStatus::value)
+        );
+        this.checkEquals(
+            Lists.of("30"),
+            response.entity()
+                .headers()
+                .get(HateosResourceMappings.RETRY_AFTER),
+            "retry-after"
+        );
+        this.checkEquals(
+            1L,
+            limiter.rejected(),
+            "rejected"
+        );
+    }
+
+    @Test
+    public void testRouteLimiterReleasedAfterHandle() {
+        final HateosLimiter limiter = HateosLimiters.bulkhead(
+            1,
+            0,
+            0,
+            30
+        );
+
+        final HttpRequest request = this.request(
+            HttpMethod.GET,
+            "/api/get-resource/0x123",
+            this.map(
+                HttpHeaderName.ACCEPT,
+                CONTENT_TYPE.accept()
+            ),
+            NO_BODY
+        );
+        final HttpResponse response = HttpResponses.recording();
+
+        HateosResourceMappings.router(
+                BASE_PATH,
+                Sets.of(
+                    this.getMapping()
+                        .setHateosResourceHandler(
+                            LinkRelation.SELF,
+                            HttpMethod.GET,
+                            new FakeHateosResourceHandler<>() {
+                                @Override
+                                public Optional<TestResource> handleOne(final BigInteger id,
+                                                                        final Optional<TestResource> resource,
+                                                                        final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                                        final UrlPath path,
+                                                                        final TestHateosHandlerContext context) {
+                                    checkEquals(1, limiter.inFlight(), "inFlight");
+                                    return Optional.of(RESOURCE_OUT);
+                                }
+                            }
+                        ).setLimiter(limiter)
+                )
+            ).route(request.routerParameters())
+            .get()
+            .handle(
+                request,
+                response,
+                CONTEXT
+            );
+
+        this.checkEquals(
+            Optional.of(HttpStatusCode.OK),
+            response.status()
+                .map(HttpStatus::value)
+        );
+        this.checkEquals(
+            0,
+            limiter.inFlight(),
+            "inFlight"
+        );
+    }
+
+    @Test
+    public void testRouteLimiterReleaseSampled() {
+        this.routeLimiterReleaseAndCheck(
+            new FakeHateosResourceHandler<>() {
+                @Override
+                public Optional<TestResource> handleOne(final BigInteger id,
+                                                        final Optional<TestResource> resource,
+                                                        final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                        final UrlPath path,
+                                                        final TestHateosHandlerContext context) {
+                    return Optional.of(RESOURCE_OUT);
+                }
+            },
+            "/api/get-resource/0x123",
+            HttpStatusCode.OK,
+            true
+        );
+    }
+
+    @Test
+    public void testRouteLimiterReleaseBadRequestNotSampled() {
+        this.routeLimiterReleaseAndCheck(
+            new FakeHateosResourceHandler<>(),
+            "/api/get-resource/0x123?links=invalid",
+            HttpStatusCode.BAD_REQUEST,
+            false
+        );
+    }
+
+    @Test
+    public void testRouteLimiterReleaseCacheHitNotSampled() {
+        final HateosResourceHandlerCache<BigInteger, TestResource, TestResource, TestHateosHandlerContext> cache = HateosResourceHandlers.cache(
+            new FakeHateosResourceHandler<>() {
+                @Override
+                public Optional<TestResource> handleOne(final BigInteger id,
+                                                        final Optional<TestResource> resource,
+                                                        final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                        final UrlPath path,
+                                                        final TestHateosHandlerContext context) {
+                    return Optional.of(RESOURCE_OUT);
+                }
+            },
+            10,
+            60 * 1000,
+            HateosResourceSelectionCacheEviction.LEAST_RECENTLY_USED,
+            () -> 0
+        );
+
+        this.routeLimiterReleaseAndCheck(
+            cache,
+            "/api/get-resource/0x123",
+            HttpStatusCode.OK,
+            true
+        );
+        this.routeLimiterReleaseAndCheck(
+            cache,
+            "/api/get-resource/0x123",
+            HttpStatusCode.OK,
+            false
+        );
+    }
+
+    @Test
+    public void testRouteLimiterReleaseHandlerThrowsSampled() {
+        final List<Boolean> released = Lists.array();
+
+        assertThrows(
+            IllegalStateException.class,
+            () -> this.routeLimiterRelease(
+                new FakeHateosResourceHandler<>() {
+                    @Override
+                    public Optional<TestResource> handleOne(final BigInteger id,
+                                                            final Optional<TestResource> resource,
+                                                            final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                            final UrlPath path,
+                                                            final TestHateosHandlerContext context) {
+                        throw new IllegalStateException("Database timeout");
+                    }
+                },
+                "/api/get-resource/0x123",
+                released
+            )
+        );
+
+        this.checkEquals(
+            Lists.of(true),
+            released,
+            "released sampled"
+        );
+    }
+
+    private void routeLimiterReleaseAndCheck(final HateosResourceHandler<BigInteger, TestResource, TestResource, TestHateosHandlerContext> handler,
+                                             final String url,
+                                             final HttpStatusCode status,
+                                             final boolean sampled) {
+        final List<Boolean> released = Lists.array();
+
+        final HttpResponse response = this.routeLimiterRelease(
+            handler,
+            url,
+            released
+        );
+
+        this.checkEquals(
+            Optional.of(status),
+            response.status()
+                .map(HttpStatus::value),
+            "status"
+        );
+        this.checkEquals(
+            Lists.of(sampled),
+            released,
+            "released sampled"
+        );
+    }
+
+    private HttpResponse routeLimiterRelease(final HateosResourceHandler<BigInteger, TestResource, TestResource, TestHateosHandlerContext> handler,
+                                             final String url,
+                                             final List<Boolean> released) {
+        final HateosLimiter limiter = new HateosLimiter() {
+            @Override
+            public boolean tryAcquire(final HttpRequest request) {
+                return true;
+            }
+
+            @Override
+            public void release(final HttpRequest request,
+                                final long nanos,
+                                final boolean sampled) {
+                released.add(sampled);
+            }
+
+            @Override
+            public long retryAfter() {
+                return 0;
+            }
+
+            @Override
+            public int inFlight() {
+                return 0;
+            }
+
+            @Override
+            public long rejected() {
+                return 0;
+            }
+
+            @Override
+            public long queueNanos() {
+                return 0;
+            }
+        };
+
+        final HttpRequest request = this.request(
+            HttpMethod.GET,
+            url,
+            this.map(
+                HttpHeaderName.ACCEPT,
+                CONTENT_TYPE.accept()
+            ),
+            NO_BODY
+        );
+        final HttpResponse response = HttpResponses.recording();
+
+        HateosResourceMappings.router(
+                BASE_PATH,
+                Sets.of(
+                    this.getMapping()
+                        .setHateosResourceHandler(
+                            LinkRelation.SELF,
+                            HttpMethod.GET,
+                            handler
+                        ).setLimiter(limiter)
+                )
+            ).route(request.routerParameters())
+            .get()
+            .handle(
+                request,
+                response,
+                CONTEXT
+            );
+
+        return response;
+    }
+
+    @Test
+    public void testRouteAdmissionQueueTimeTooLongServiceUnavailableBodyIgnored() {
+        final HateosLimiter limiter = HateosLimiters.admission(
+            1,
+            1,
+            Sets.empty(),
+            1000, // maxQueueTime
+            () -> 60 * 1000,
+            30
+        );
+
+        final HttpRequest request = this.request(
+            HttpMethod.POST,
+            "/api/get-resource/0x123",
+            this.map(
+                HttpHeaderName.CONTENT_TYPE,
+                CONTENT_TYPE,
+                HttpHeaderName.ACCEPT,
+                CONTENT_TYPE.accept(),
+                HateosResourceMappings.X_REQUEST_START,
+                "0"
+            ),
+            "invalid json!"
+        );
+        final HttpResponse response = HttpResponses.recording();
+
+        HateosResourceMappings.router(
+                BASE_PATH,
+                Sets.of(
+                    this.getMapping()
+                        .setHateosResourceHandler(
+                            LinkRelation.SELF,
+                            HttpMethod.POST,
+                            new FakeHateosResourceHandler<>()
+                        ).setLimiter(limiter)
+                )
+            ).route(request.routerParameters())
+            .get()
+            .handle(
+                request,
+                response,
+                CONTEXT
+            );
+
+        this.checkEquals(
+            Optional.of(HttpStatusCode.SERVICE_UNAVAILABLE),
+            response.status()
+                .map(HttpStatus::value)
+        );
+        this.checkEquals(
+            1L,
+            limiter.rejected(),
+            "rejected"
+        );
+    }
+
+    private String toJsonLine(final Object resource) {
+        return Arrays.stream(
+                this.toJson(resource)
+                    .split("\n")
+            ).map(String::stripLeading)
+            .collect(Collectors.joining()) + "\n";
+    }
+
+    // this test contains everything in a single method so it can be copied over to JunitTest.
+    @Test
+    public void testRouteAndCheckStandaloneForItJunitTest() {
+        final HateosResourceMappings<BigInteger, TestResource, TestResource, TestHateosResource, TestHateosHandlerContext> mapping = HateosResourceMappings.with(
+            HateosResourceName.with("resource-with-body"),
+            (s, x) -> {
+                return HateosResourceSelection.one(
+                    BigInteger.valueOf(
+                        Integer.parseInt(
+                            s.substring(2),
+                            16
+                        )
+                    )
+                ); // assumes hex digit in url
+            },
+            TestResource.class,
+            TestResource.class,
+            TestHateosResource.class,
+            TestHateosHandlerContext.class
+        ).setHateosResourceHandler(
+            LinkRelation.CONTENTS,
+            HttpMethod.POST,
+            new FakeHateosResourceHandler<>() {
+
+                @Override
+                public Optional<TestResource> handleOne(final BigInteger id,
+                                                        final Optional<TestResource> resource,
+                                                        final Map<HttpRequestAttribute<?>, Object> parameters,
+                                                        final UrlPath path,
+                                                        final TestHateosHandlerContext context) {
+                    HateosResourceHandler.checkPathEmpty(path);
+
+                    return Optional.of(
+                        TestResource.with(
+                            TestHateosResource.with(
+                                BigInteger.valueOf(31)
+                            )
+                        )
+                    );
+                }
+            }
+        );
+
+        final Router<HttpRequestAttribute<?>, HttpHandler<TestHateosHandlerContext>> router = HateosResourceMappings.router(
+            UrlPath.parse("/api"),
+            Sets.of(mapping)
+        );
+
+        final HttpRequest request = new FakeHttpRequest() {
+
+            @Override
+            public HttpTransport transport() {
+                return HttpTransport.UNSECURED;
+            }
+
+            @Override
+            public HttpProtocolVersion protocolVersion() {
+                return HttpProtocolVersion.VERSION_1_0;
+            }
+
+            @Override
+            public HttpMethod method() {
+                return HttpMethod.POST;
+            }
+
+            @Override
+            public RelativeUrl url() {
+                return Url.parseRelative("/api/resource-with-body/0x123/contents");
+            }
+
+            @Override
+            public Map<HttpHeaderName<?>, List<?>> headers() {
+                return Maps.of(
+                    HttpHeaderName.CONTENT_TYPE, Lists.of(CONTENT_TYPE),
+                    HttpHeaderName.ACCEPT, Lists.of(CONTENT_TYPE.accept()),
+                    HttpHeaderName.ACCEPT_CHARSET, Lists.of(
+                        AcceptCharset.parse("utf-8")
+                    )
+                );
+            }
+
+            @Override
+            public String bodyText() {
+                return "";
+            }
+
+            @Override
+            public Map<HttpRequestParameterName, List<String>> parameters() {
+                return Maps.empty();
+            }
+
+            @Override
+            public List<String> parameterValues(final HttpRequestParameterName parameterName) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public String toString() {
+                return this.method() + " " + this.url() + " " + parameters();
+            }
+        };
+        final HttpHandler<TestHateosHandlerContext> httpHandler = router.route(
+            request.routerParameters()
+        ).orElseThrow(
+            () -> new Error("Unable to route")
+        );
+
+        final HttpResponse response = HttpResponses.recording();
+        httpHandler.handle(
+            request,
+            response,
+            CONTEXT
+        );
+        this.checkEquals(
+            "{\n" +
+                "  \"type\": \"test-HateosResource\",\n" +
+                "  \"value\": {\n" +
+                "    \"id\": \"31\"\n" +
+                "  }\n" +
+                "}",
+            response.entity()
+                .bodyText()
+        );
+    }
+
+    @Test
+    public void testSetHateosHttpEntityHandler() {
+        this.setHateosHttpEntityHandlerAndRouteWithPathAndCheck(
+            LinkRelation.SELF,
+            "/api/resource-with-body/0x123",
+            ""
+        );
+    }
+
+    @Test
+    public void testSetHateosHttpEntityHandlerWithLinkRelation() {
+        this.setHateosHttpEntityHandlerAndRouteWithPathAndCheck(
+            LinkRelation.CONTENTS,
+            "/api/resource-with-body/0x123/contents",
+            ""
+        );
+    }
+
+    @Test
+    public void testSetHateosHttpEntityHandlerAndRouteWithPath() {
+        this.setHateosHttpEntityHandlerAndRouteWithPathAndCheck(
+            LinkRelation.SELF,
+            "/api/resource-with-body/0x123/",
+            "/"
+        );
+    }
+
+    @Test
+    public void testSetHateosHttpEntityHandlerAndRouteWithLinkRelationAndPath() {
+        this.setHateosHttpEntityHandlerAndRouteWithPathAndCheck(
+            LinkRelation.CONTENTS,
+            "/api/resource-with-body/0x123/contents/",
+            "/"
+        );
+    }
+
+    @Test
+    public void testSetHateosHttpEntityHandlerAndRouteWithLinkRelationAndPath2() {
         this.setHateosHttpEntityHandlerAndRouteWithPathAndCheck(
             LinkRelation.CONTENTS,
             "/api/resource-with-body/0x123/contents/path1/path2",
@@ -2018,6 +4110,23 @@ public final class HateosResourceMappingsRouterTest extends HateosResourceMappin
                                 final String url,
                                 final Map<HttpHeaderName<?>, List<?>> headers,
                                 final String body) {
+        return this.request(
+            method,
+            url,
+            headers,
+            body,
+            null // bodyBytes
+        );
+    }
+
+    /**
+     * When present the body bytes replace the encoded body text, so compressed bodies may be tested.
+     */
+    private HttpRequest request(final HttpMethod method,
+                                final String url,
+                                final Map<HttpHeaderName<?>, List<?>> headers,
+                                final String body,
+                                final byte[] bodyBytes) {
         return new HttpRequest() {
 
             @Override
@@ -2047,7 +4156,9 @@ public final class HateosResourceMappingsRouterTest extends HateosResourceMappin
 
             @Override
             public byte[] body() {
-                return bytes(body, this);
+                return null != bodyBytes ?
+                    bodyBytes :
+                    bytes(body, this);
             }
 
             @Override
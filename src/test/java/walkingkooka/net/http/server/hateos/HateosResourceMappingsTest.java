@@ -24,6 +24,7 @@ import walkingkooka.collect.Range;
 import walkingkooka.collect.map.Maps;
 import walkingkooka.collect.set.SortedSets;
 import walkingkooka.net.UrlPathName;
+import walkingkooka.net.header.CacheControl;
 import walkingkooka.net.header.LinkRelation;
 import walkingkooka.net.http.HttpMethod;
 import walkingkooka.net.http.server.FakeHttpHandler;
@@ -847,6 +848,552 @@ public final class HateosResourceMappingsTest implements ClassTesting2<HateosRes
         );
     }
 
+    // setHateosResourceStreamHandler...................................................................................
+
+    @Test
+    public void testSetHateosResourceStreamHandlerWithNullLinkRelationFails() {
+        this.setHateosResourceStreamHandlerFails(
+            null,
+            METHOD,
+            new FakeHateosResourceStreamHandler<>()
+        );
+    }
+
+    @Test
+    public void testSetHateosResourceStreamHandlerWithNullMethodFails() {
+        this.setHateosResourceStreamHandlerFails(
+            LINK_RELATION,
+            null,
+            new FakeHateosResourceStreamHandler<>()
+        );
+    }
+
+    @Test
+    public void testSetHateosResourceStreamHandlerWithNullHandlerFails() {
+        this.setHateosResourceStreamHandlerFails(
+            LINK_RELATION,
+            METHOD,
+            null
+        );
+    }
+
+    private void setHateosResourceStreamHandlerFails(final LinkRelation<?> relation,
+                                                     final HttpMethod method,
+                                                     final HateosResourceStreamHandler<BigInteger, TestResource, TestHateosHandlerContext> handler) {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createMappings()
+                .setHateosResourceStreamHandler(
+                    relation,
+                    method,
+                    handler
+                )
+        );
+    }
+
+    @Test
+    public void testSetHateosResourceStreamHandlerSame() {
+        final HateosResourceStreamHandler<BigInteger, TestResource, TestHateosHandlerContext> handler = new FakeHateosResourceStreamHandler<>();
+
+        final HateosResourceMappings<BigInteger, TestResource, TestResource2, TestHateosResource, TestHateosHandlerContext> mapping = this.createMappings()
+            .setHateosResourceStreamHandler(
+                LINK_RELATION,
+                METHOD,
+                handler
+            );
+        assertSame(
+            mapping,
+            mapping.setHateosResourceStreamHandler(
+                LINK_RELATION,
+                METHOD,
+                handler
+            )
+        );
+    }
+
+    // setLinks.........................................................................................................
+
+    @Test
+    public void testSetLinksWithNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createMappings(this.selectionParser())
+                .setLinks(null)
+        );
+    }
+
+    @Test
+    public void testSetLinksSame() {
+        final HateosResourceMappings<BigInteger, TestResource, TestResource2, TestHateosResource, TestHateosHandlerContext> mappings = this.createMappings(this.selectionParser());
+        assertSame(
+            mappings,
+            mappings.setLinks(HateosResourceMappingsLinks.RESOURCE)
+        );
+    }
+
+    @Test
+    public void testSetLinksDifferent() {
+        final HateosResourceMappings<BigInteger, TestResource, TestResource2, TestHateosResource, TestHateosHandlerContext> mappings = this.createMappings(this.selectionParser());
+        final HateosResourceMappings<BigInteger, TestResource, TestResource2, TestHateosResource, TestHateosHandlerContext> different = mappings.setLinks(HateosResourceMappingsLinks.NONE);
+
+        assertNotSame(
+            mappings,
+            different
+        );
+        this.checkEquals(
+            HateosResourceMappingsLinks.NONE,
+            different.links
+        );
+        this.checkEquals(
+            HateosResourceMappingsLinks.RESOURCE,
+            mappings.links,
+            "original unchanged"
+        );
+    }
+
+    // setCacheControl..................................................................................................
+
+    private final static CacheControl CACHE_CONTROL = CacheControl.parse("max-age=60, public");
+
+    @Test
+    public void testSetCacheControlWithNullCacheControlFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createMappings(this.selectionParser())
+                .setHateosResourceHandler(
+                    LinkRelation.SELF,
+                    HttpMethod.GET,
+                    new FakeHateosResourceHandler<>()
+                ).setCacheControl(
+                    LinkRelation.SELF,
+                    HttpMethod.GET,
+                    null
+                )
+        );
+    }
+
+    @Test
+    public void testSetCacheControlMissingHandlerFails() {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> this.createMappings(this.selectionParser())
+                .setCacheControl(
+                    LinkRelation.SELF,
+                    HttpMethod.GET,
+                    CACHE_CONTROL
+                )
+        );
+        this.checkEquals(
+            "Missing handler for link relation self",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testSetCacheControl() {
+        final HateosResourceMappings<BigInteger, TestResource, TestResource2, TestHateosResource, TestHateosHandlerContext> mappings = this.createMappings(this.selectionParser())
+            .setHateosResourceHandler(
+                LinkRelation.SELF,
+                HttpMethod.GET,
+                new FakeHateosResourceHandler<>()
+            );
+        final HateosResourceMappings<BigInteger, TestResource, TestResource2, TestHateosResource, TestHateosHandlerContext> different = mappings.setCacheControl(
+            LinkRelation.SELF,
+            HttpMethod.GET,
+            CACHE_CONTROL
+        );
+
+        assertNotSame(
+            mappings,
+            different
+        );
+
+        final HateosResourceMappingsMapping<?, ?, ?, ?, ?> mapping = different.pathNameToMappings.get(
+            LinkRelation.SELF.toUrlPathName()
+                .get()
+        );
+        this.checkEquals(
+            CACHE_CONTROL,
+            mapping.cacheControl(HttpMethod.GET),
+            "GET"
+        );
+        this.checkEquals(
+            null,
+            mapping.cacheControl(HttpMethod.POST),
+            "POST"
+        );
+
+        assertSame(
+            different,
+            different.setCacheControl(
+                LinkRelation.SELF,
+                HttpMethod.GET,
+                CACHE_CONTROL
+            )
+        );
+    }
+
+    // setSingleFlight..................................................................................................
+
+    @Test
+    public void testSetSingleFlightMissingHandlerFails() {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> this.createMappings(this.selectionParser())
+                .setSingleFlight(
+                    LinkRelation.SELF,
+                    HateosSingleFlights.basic()
+                )
+        );
+        this.checkEquals(
+            "Missing handler for link relation self",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testSetSingleFlight() {
+        final HateosSingleFlight singleFlight = HateosSingleFlights.basic();
+
+        final HateosResourceMappings<BigInteger, TestResource, TestResource2, TestHateosResource, TestHateosHandlerContext> mappings = this.createMappings(this.selectionParser())
+            .setHateosResourceHandler(
+                LinkRelation.SELF,
+                HttpMethod.GET,
+                new FakeHateosResourceHandler<>()
+            ).setSingleFlight(
+                LinkRelation.SELF,
+                singleFlight
+            );
+
+        assertSame(
+            singleFlight,
+            mappings.pathNameToMappings.get(
+                LinkRelation.SELF.toUrlPathName()
+                    .get()
+            ).singleFlight
+        );
+        assertSame(
+            mappings,
+            mappings.setSingleFlight(
+                LinkRelation.SELF,
+                singleFlight
+            )
+        );
+    }
+
+    // setLimiter.......................................................................................................
+
+    @Test
+    public void testSetLimiter() {
+        final HateosLimiter limiter = HateosLimiters.bulkhead(
+            1,
+            0,
+            0,
+            1
+        );
+
+        final HateosResourceMappings<BigInteger, TestResource, TestResource2, TestHateosResource, TestHateosHandlerContext> mappings = this.createMappings(this.selectionParser())
+            .setLimiter(limiter);
+
+        assertSame(
+            limiter,
+            mappings.limiter
+        );
+        assertSame(
+            mappings,
+            mappings.setLimiter(limiter)
+        );
+    }
+
+    @Test
+    public void testSetLimiterLinkRelationMissingHandlerFails() {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> this.createMappings(this.selectionParser())
+                .setLimiter(
+                    LinkRelation.SELF,
+                    HateosLimiters.bulkhead(
+                        1,
+                        0,
+                        0,
+                        1
+                    )
+                )
+        );
+        this.checkEquals(
+            "Missing handler for link relation self",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testSetLimiterLinkRelation() {
+        final HateosLimiter limiter = HateosLimiters.bulkhead(
+            1,
+            0,
+            0,
+            1
+        );
+
+        final HateosResourceMappings<BigInteger, TestResource, TestResource2, TestHateosResource, TestHateosHandlerContext> mappings = this.createMappings(this.selectionParser())
+            .setHateosResourceHandler(
+                LinkRelation.SELF,
+                HttpMethod.GET,
+                new FakeHateosResourceHandler<>()
+            ).setLimiter(
+                LinkRelation.SELF,
+                limiter
+            );
+
+        assertSame(
+            limiter,
+            mappings.pathNameToMappings.get(
+                LinkRelation.SELF.toUrlPathName()
+                    .get()
+            ).limiter
+        );
+        assertSame(
+            mappings,
+            mappings.setLimiter(
+                LinkRelation.SELF,
+                limiter
+            )
+        );
+    }
+
+    // setETag..........................................................................................................
+
+    @Test
+    public void testSetETagSame() {
+        final HateosResourceMappings<BigInteger, TestResource, TestResource2, TestHateosResource, TestHateosHandlerContext> mappings = this.createMappings(this.selectionParser());
+        assertSame(
+            mappings,
+            mappings.setETag(false)
+        );
+    }
+
+    @Test
+    public void testSetETagDifferent() {
+        final HateosResourceMappings<BigInteger, TestResource, TestResource2, TestHateosResource, TestHateosHandlerContext> mappings = this.createMappings(this.selectionParser());
+        final HateosResourceMappings<BigInteger, TestResource, TestResource2, TestHateosResource, TestHateosHandlerContext> different = mappings.setETag(true);
+
+        assertNotSame(
+            mappings,
+            different
+        );
+        this.checkEquals(
+            true,
+            different.eTag
+        );
+    }
+
+    // setResponseBodyEncodeThreshold...................................................................................
+
+    @Test
+    public void testSetResponseBodyEncodeThresholdWithNegativeFails() {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> this.createMappings(this.selectionParser())
+                .setResponseBodyEncodeThreshold(-1)
+        );
+        this.checkEquals(
+            "Invalid threshold -1 < 0",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testSetResponseBodyEncodeThresholdSame() {
+        final HateosResourceMappings<BigInteger, TestResource, TestResource2, TestHateosResource, TestHateosHandlerContext> mappings = this.createMappings(this.selectionParser())
+            .setResponseBodyEncodeThreshold(10);
+        assertSame(
+            mappings,
+            mappings.setResponseBodyEncodeThreshold(10)
+        );
+    }
+
+    @Test
+    public void testIsResponseBodyEncodedWithoutThreshold() {
+        this.checkEquals(
+            false,
+            this.createMappings(this.selectionParser())
+                .isResponseBodyEncoded("abc")
+        );
+    }
+
+    @Test
+    public void testIsResponseBodyEncodedWithThreshold() {
+        final HateosResourceMappings<BigInteger, TestResource, TestResource2, TestHateosResource, TestHateosHandlerContext> mappings = this.createMappings(this.selectionParser())
+            .setResponseBodyEncodeThreshold(3);
+
+        this.checkEquals(
+            false,
+            mappings.isResponseBodyEncoded("ab"),
+            "ab"
+        );
+        this.checkEquals(
+            true,
+            mappings.isResponseBodyEncoded("abc"),
+            "abc"
+        );
+    }
+
+    // setSelectionCache................................................................................................
+
+    @Test
+    public void testSetSelectionCacheWithInvalidMaxSizeFails() {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> this.createMappings(this.selectionParser())
+                .setSelectionCache(
+                    0,
+                    HateosResourceSelectionCacheEviction.LEAST_RECENTLY_USED
+                )
+        );
+        this.checkEquals(
+            "Invalid maxSize 0 <= 0",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testSetSelectionCacheWithNullEvictionFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createMappings(this.selectionParser())
+                .setSelectionCache(
+                    1,
+                    null
+                )
+        );
+    }
+
+    @Test
+    public void testSetSelectionCacheWithoutHateosResourceSelectionParserFails() {
+        final IllegalStateException thrown = assertThrows(
+            IllegalStateException.class,
+            () -> this.createMappings()
+                .setSelectionCache(
+                    1,
+                    HateosResourceSelectionCacheEviction.LEAST_RECENTLY_USED
+                )
+        );
+        this.checkEquals(
+            "Selection cache requires a HateosResourceSelectionParser",
+            thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testParseSelectionWithoutSelectionCache() {
+        final HateosResourceMappings<BigInteger, TestResource, TestResource2, TestHateosResource, TestHateosHandlerContext> mappings = this.createMappings(this.selectionParser());
+
+        this.checkEquals(
+            HateosResourceSelection.one(BigInteger.ONE),
+            mappings.parseSelection("1", new TestHateosHandlerContext()).selection
+        );
+        this.checkEquals(
+            0L,
+            mappings.selectionCacheMisses(),
+            "misses"
+        );
+    }
+
+    @Test
+    public void testParseSelectionWithSelectionCache() {
+        final HateosResourceMappings<BigInteger, TestResource, TestResource2, TestHateosResource, TestHateosHandlerContext> mappings = this.createMappings(this.selectionParser())
+            .setSelectionCache(
+                1,
+                HateosResourceSelectionCacheEviction.LEAST_RECENTLY_USED
+            );
+        final TestHateosHandlerContext context = new TestHateosHandlerContext();
+
+        final HateosResourceSelection<BigInteger> selection = mappings.parseSelection("1", context).selection;
+        assertSame(
+            selection,
+            mappings.parseSelection("1", context).selection
+        );
+
+        // evicts 1
+        mappings.parseSelection("2", context);
+        assertNotSame(
+            selection,
+            mappings.parseSelection("1", context).selection
+        );
+
+        this.checkEquals(
+            1L,
+            mappings.selectionCacheHits(),
+            "hits"
+        );
+        this.checkEquals(
+            3L,
+            mappings.selectionCacheMisses(),
+            "misses"
+        );
+    }
+
+    @Test
+    public void testParseSelectionWithSelectionCacheFirstInFirstOut() {
+        final HateosResourceMappings<BigInteger, TestResource, TestResource2, TestHateosResource, TestHateosHandlerContext> mappings = this.createMappings(this.selectionParser())
+            .setSelectionCache(
+                2,
+                HateosResourceSelectionCacheEviction.FIRST_IN_FIRST_OUT
+            );
+        final TestHateosHandlerContext context = new TestHateosHandlerContext();
+
+        final HateosResourceSelection<BigInteger> selection = mappings.parseSelection("1", context).selection;
+        mappings.parseSelection("2", context);
+        mappings.parseSelection("1", context); // hit does not refresh 1
+
+        // evicts 1
+        mappings.parseSelection("3", context);
+        assertNotSame(
+            selection,
+            mappings.parseSelection("1", context).selection
+        );
+
+        this.checkEquals(
+            1L,
+            mappings.selectionCacheHits(),
+            "hits"
+        );
+        this.checkEquals(
+            4L,
+            mappings.selectionCacheMisses(),
+            "misses"
+        );
+    }
+
+    @Test
+    public void testParseSelectionWithLargeSelectionCache() {
+        final HateosResourceMappings<BigInteger, TestResource, TestResource2, TestHateosResource, TestHateosHandlerContext> mappings = this.createMappings(this.selectionParser())
+            .setSelectionCache(
+                1024,
+                HateosResourceSelectionCacheEviction.LEAST_RECENTLY_USED
+            );
+        final TestHateosHandlerContext context = new TestHateosHandlerContext();
+
+        final int count = 256;
+        for (int i = 0; i < count; i++) {
+            mappings.parseSelection(String.valueOf(i), context);
+        }
+        for (int i = 0; i < count; i++) {
+            mappings.parseSelection(String.valueOf(i), context);
+        }
+
+        this.checkEquals(
+            (long) count,
+            mappings.selectionCacheHits(),
+            "hits"
+        );
+        this.checkEquals(
+            (long) count,
+            mappings.selectionCacheMisses(),
+            "misses"
+        );
+    }
+
     // helpers..........................................................................................................
 
     private HateosResourceMappings<BigInteger, TestResource, TestResource2, TestHateosResource, TestHateosHandlerContext> createMappings() {
@@ -860,6 +1407,21 @@ public final class HateosResourceMappingsTest implements ClassTesting2<HateosRes
         );
     }
 
+    private HateosResourceMappings<BigInteger, TestResource, TestResource2, TestHateosResource, TestHateosHandlerContext> createMappings(final BiFunction<String, TestHateosHandlerContext, HateosResourceSelection<BigInteger>> selection) {
+        return HateosResourceMappings.with(
+            RESOURCE_NAME,
+            selection,
+            VALUE_TYPE,
+            COLLECTION_TYPE,
+            RESOURCE_TYPE,
+            TestHateosHandlerContext.class
+        );
+    }
+
+    private HateosResourceSelectionParser<BigInteger, TestHateosHandlerContext> selectionParser() {
+        return (s) -> HateosResourceSelection.one(new BigInteger(s));
+    }
+
     private BiFunction<String, TestHateosHandlerContext, HateosResourceSelection<BigInteger>> selection() {
         return (s, x) -> {
             if (s.isEmpty()) {
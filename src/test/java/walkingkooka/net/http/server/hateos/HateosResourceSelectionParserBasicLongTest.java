@@ -0,0 +1,198 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.Range;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class HateosResourceSelectionParserBasicLongTest implements ClassTesting2<HateosResourceSelectionParserBasicLong>,
+    ToStringTesting<HateosResourceSelectionParserBasicLong> {
+
+    @Test
+    public void testParseEmpty() {
+        this.parseAndCheck(
+            "",
+            HateosResourceSelection.none()
+        );
+    }
+
+    @Test
+    public void testParseAll() {
+        this.parseAndCheck(
+            "*",
+            HateosResourceSelection.all()
+        );
+    }
+
+    @Test
+    public void testParseOne() {
+        this.parseAndCheck(
+            "123",
+            HateosResourceSelection.one(123L)
+        );
+    }
+
+    @Test
+    public void testParseOneMaxValue() {
+        this.parseAndCheck(
+            String.valueOf(Long.MAX_VALUE),
+            HateosResourceSelection.one(Long.MAX_VALUE)
+        );
+    }
+
+    @Test
+    public void testParseMany() {
+        this.parseAndCheck(
+            "1,22,333",
+            HateosResourceSelection.many(
+                Sets.of(1L, 22L, 333L)
+            )
+        );
+    }
+
+    @Test
+    public void testParseRange() {
+        this.parseAndCheck(
+            "1-22",
+            HateosResourceSelection.range(
+                Range.greaterThanEquals(1L)
+                    .and(
+                        Range.lessThanEquals(22L)
+                    )
+            )
+        );
+    }
+
+    @Test
+    public void testTryParseInvalidId() {
+        this.tryParseInvalidAndCheck(
+            "1a",
+            "Invalid id \"1a\""
+        );
+    }
+
+    @Test
+    public void testTryParseInvalidIdOverflow() {
+        this.tryParseInvalidAndCheck(
+            "99999999999999999999",
+            "Invalid id \"99999999999999999999\""
+        );
+    }
+
+    @Test
+    public void testTryParseInvalidListEmptyId() {
+        this.tryParseInvalidAndCheck(
+            "1,,3",
+            "Invalid list \"1,,3\""
+        );
+    }
+
+    @Test
+    public void testTryParseInvalidListTrailingSeparator() {
+        this.tryParseInvalidAndCheck(
+            "1,",
+            "Invalid list \"1,\""
+        );
+    }
+
+    @Test
+    public void testTryParseInvalidRangeMissingUpper() {
+        this.tryParseInvalidAndCheck(
+            "1-",
+            "Invalid range \"1-\""
+        );
+    }
+
+    @Test
+    public void testTryParseInvalidRangeLowerGreaterThanUpper() {
+        this.tryParseInvalidAndCheck(
+            "3-1",
+            "Invalid range \"3-1\""
+        );
+    }
+
+    @Test
+    public void testParseInvalidFails() {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> HateosResourceSelectionParserBasicLong.INSTANCE.parse("1-2-3")
+        );
+        this.checkEquals(
+            "Invalid range \"1-2-3\"",
+            thrown.getMessage()
+        );
+    }
+
+    private void parseAndCheck(final String text,
+                               final HateosResourceSelection<Long> expected) {
+        this.checkEquals(
+            expected,
+            HateosResourceSelectionParserBasicLong.INSTANCE.parse(text),
+            "parse " + text
+        );
+        this.checkEquals(
+            expected,
+            HateosResourceSelectionParserBasicLong.INSTANCE.tryParse(text).selection,
+            "tryParse " + text
+        );
+    }
+
+    private void tryParseInvalidAndCheck(final String text,
+                                         final String message) {
+        final HateosResourceSelectionParserResult<Long> result = HateosResourceSelectionParserBasicLong.INSTANCE.tryParse(text);
+        this.checkEquals(
+            null,
+            result.selection,
+            "selection"
+        );
+        this.checkEquals(
+            message,
+            result.message,
+            "message"
+        );
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            HateosResourceSelectionParserBasicLong.INSTANCE,
+            "Long"
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<HateosResourceSelectionParserBasicLong> type() {
+        return HateosResourceSelectionParserBasicLong.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
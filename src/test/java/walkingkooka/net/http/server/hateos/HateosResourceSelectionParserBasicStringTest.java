@@ -0,0 +1,245 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.net.http.server.hateos;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.Range;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class HateosResourceSelectionParserBasicStringTest implements ClassTesting2<HateosResourceSelectionParserBasicString>,
+    ToStringTesting<HateosResourceSelectionParserBasicString> {
+
+    @Test
+    public void testParseEmpty() {
+        this.parseAndCheck(
+            "",
+            HateosResourceSelection.none()
+        );
+    }
+
+    @Test
+    public void testParseAll() {
+        this.parseAndCheck(
+            "*",
+            HateosResourceSelection.all()
+        );
+    }
+
+    @Test
+    public void testParseOne() {
+        this.parseAndCheck(
+            "abc",
+            HateosResourceSelection.one("abc")
+        );
+    }
+
+    @Test
+    public void testParseOneWithSpace() {
+        this.parseAndCheck(
+            "a b",
+            HateosResourceSelection.one("a b")
+        );
+    }
+
+    @Test
+    public void testParseMany() {
+        this.parseAndCheck(
+            "a,bb,ccc",
+            HateosResourceSelection.many(
+                Sets.of("a", "bb", "ccc")
+            )
+        );
+    }
+
+    @Test
+    public void testParseManyDuplicates() {
+        this.parseAndCheck(
+            "bb,a,bb",
+            HateosResourceSelection.many(
+                Sets.of("a", "bb")
+            )
+        );
+    }
+
+    @Test
+    public void testParseRange() {
+        this.parseAndCheck(
+            "a-bb",
+            HateosResourceSelection.range(
+                Range.greaterThanEquals("a")
+                    .and(
+                        Range.lessThanEquals("bb")
+                    )
+            )
+        );
+    }
+
+    @Test
+    public void testParseRangeSame() {
+        this.parseAndCheck(
+            "a-a",
+            HateosResourceSelection.range(
+                Range.greaterThanEquals("a")
+                    .and(
+                        Range.lessThanEquals("a")
+                    )
+            )
+        );
+    }
+
+    @Test
+    public void testTryParseInvalidListEmptyId() {
+        this.tryParseInvalidAndCheck(
+            "a,,c",
+            "Invalid list \"a,,c\""
+        );
+    }
+
+    @Test
+    public void testTryParseInvalidListLeadingSeparator() {
+        this.tryParseInvalidAndCheck(
+            ",a",
+            "Invalid list \",a\""
+        );
+    }
+
+    @Test
+    public void testTryParseInvalidListTrailingSeparator() {
+        this.tryParseInvalidAndCheck(
+            "a,",
+            "Invalid list \"a,\""
+        );
+    }
+
+    @Test
+    public void testTryParseInvalidListRange() {
+        this.tryParseInvalidAndCheck(
+            "a,b-c",
+            "Invalid list \"a,b-c\""
+        );
+    }
+
+    @Test
+    public void testTryParseInvalidListRangeFirst() {
+        this.tryParseInvalidAndCheck(
+            "a-b,c",
+            "Invalid list \"a-b,c\""
+        );
+    }
+
+    @Test
+    public void testTryParseInvalidRangeMissingLower() {
+        this.tryParseInvalidAndCheck(
+            "-a",
+            "Invalid range \"-a\""
+        );
+    }
+
+    @Test
+    public void testTryParseInvalidRangeMissingUpper() {
+        this.tryParseInvalidAndCheck(
+            "a-",
+            "Invalid range \"a-\""
+        );
+    }
+
+    @Test
+    public void testTryParseInvalidRangeLowerGreaterThanUpper() {
+        this.tryParseInvalidAndCheck(
+            "b-a",
+            "Invalid range \"b-a\""
+        );
+    }
+
+    @Test
+    public void testTryParseInvalidRangeSeparatorOnly() {
+        this.tryParseInvalidAndCheck(
+            "-",
+            "Invalid range \"-\""
+        );
+    }
+
+    @Test
+    public void testParseInvalidFails() {
+        final IllegalArgumentException thrown = assertThrows(
+            IllegalArgumentException.class,
+            () -> HateosResourceSelectionParserBasicString.INSTANCE.parse("a-b-c")
+        );
+        this.checkEquals(
+            "Invalid range \"a-b-c\"",
+            thrown.getMessage()
+        );
+    }
+
+    private void parseAndCheck(final String text,
+                               final HateosResourceSelection<String> expected) {
+        this.checkEquals(
+            expected,
+            HateosResourceSelectionParserBasicString.INSTANCE.parse(text),
+            "parse " + text
+        );
+        this.checkEquals(
+            expected,
+            HateosResourceSelectionParserBasicString.INSTANCE.tryParse(text).selection,
+            "tryParse " + text
+        );
+    }
+
+    private void tryParseInvalidAndCheck(final String text,
+                                         final String message) {
+        final HateosResourceSelectionParserResult<String> result = HateosResourceSelectionParserBasicString.INSTANCE.tryParse(text);
+        this.checkEquals(
+            null,
+            result.selection,
+            "selection"
+        );
+        this.checkEquals(
+            message,
+            result.message,
+            "message"
+        );
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            HateosResourceSelectionParserBasicString.INSTANCE,
+            "String"
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<HateosResourceSelectionParserBasicString> type() {
+        return HateosResourceSelectionParserBasicString.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
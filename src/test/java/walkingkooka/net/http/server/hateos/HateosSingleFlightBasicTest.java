@@ -0,0 +1,163 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.net.http.server.hateos;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class HateosSingleFlightBasicTest implements ClassTesting2<HateosSingleFlightBasic>,
+    ToStringTesting<HateosSingleFlightBasic> {
+
+    private final static String KEY = "key";
+
+    @Test
+    public void testExecute() {
+        final HateosSingleFlightBasic singleFlight = HateosSingleFlightBasic.empty();
+
+        this.checkEquals(
+            "result",
+            singleFlight.execute(
+                KEY,
+                () -> "result"
+            )
+        );
+        this.checkEquals(1L, singleFlight.leaders(), "leaders");
+        this.checkEquals(0L, singleFlight.coalesced(), "coalesced");
+        this.checkEquals(0, singleFlight.inFlight(), "inFlight");
+    }
+
+    @Test
+    public void testExecuteSequentialNotCoalesced() {
+        final HateosSingleFlightBasic singleFlight = HateosSingleFlightBasic.empty();
+        final AtomicInteger count = new AtomicInteger();
+
+        singleFlight.execute(KEY, count::incrementAndGet);
+        singleFlight.execute(KEY, count::incrementAndGet);
+
+        this.checkEquals(2, count.get(), "count");
+        this.checkEquals(2L, singleFlight.leaders(), "leaders");
+    }
+
+    @Test
+    public void testExecuteThrows() {
+        final HateosSingleFlightBasic singleFlight = HateosSingleFlightBasic.empty();
+        final IllegalStateException thrown = new IllegalStateException("Fail!");
+
+        assertSame(
+            thrown,
+            assertThrows(
+                IllegalStateException.class,
+                () -> singleFlight.execute(
+                    KEY,
+                    () -> {
+                        throw thrown;
+                    }
+                )
+            )
+        );
+        this.checkEquals(0, singleFlight.inFlight(), "inFlight");
+    }
+
+    @Test
+    public void testExecuteConcurrentCoalesced() throws Exception {
+        final HateosSingleFlightBasic singleFlight = HateosSingleFlightBasic.empty();
+        final CountDownLatch leaderStarted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger count = new AtomicInteger();
+
+        final AtomicReference<Object> leaderResult = new AtomicReference<>();
+        final Thread leader = new Thread(
+            () -> leaderResult.set(
+                singleFlight.execute(
+                    KEY,
+                    () -> {
+                        leaderStarted.countDown();
+                        try {
+                            release.await();
+                        } catch (final InterruptedException cause) {
+                            throw new IllegalStateException(cause);
+                        }
+                        return "result-" + count.incrementAndGet();
+                    }
+                )
+            )
+        );
+        leader.start();
+        leaderStarted.await();
+
+        final AtomicReference<Object> followerResult = new AtomicReference<>();
+        final Thread follower = new Thread(
+            () -> followerResult.set(
+                singleFlight.execute(
+                    KEY,
+                    () -> "result-" + count.incrementAndGet()
+                )
+            )
+        );
+        follower.start();
+
+        while (0 == singleFlight.coalesced()) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        leader.join();
+        follower.join();
+
+        this.checkEquals("result-1", leaderResult.get(), "leader");
+        this.checkEquals("result-1", followerResult.get(), "follower");
+        this.checkEquals(1, count.get(), "count");
+        this.checkEquals(1L, singleFlight.leaders(), "leaders");
+        this.checkEquals(1L, singleFlight.coalesced(), "coalesced");
+        this.checkEquals(0, singleFlight.inFlight(), "inFlight");
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        final HateosSingleFlightBasic singleFlight = HateosSingleFlightBasic.empty();
+        singleFlight.execute(KEY, () -> "result");
+
+        this.toStringAndCheck(
+            singleFlight,
+            "leaders: 1 coalesced: 0"
+        );
+    }
+
+    // Class............................................................................................................
+
+    @Override
+    public Class<HateosSingleFlightBasic> type() {
+        return HateosSingleFlightBasic.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}